@@ -1,11 +1,12 @@
 package com.gra.paradise.botattendance;
 
+import com.gra.paradise.botattendance.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
-@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class BotAttendanceApplication {
 
     public static void main(String[] args) {
@@ -1,25 +1,60 @@
 package com.gra.paradise.botattendance.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-
-import java.util.concurrent.Executor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Configuração para operações assíncronas - otimiza performance de operações não-blocking
+ * O modo de execução do trabalho bloqueante vem de {@code gra.blocking.mode} ({@link BlockingMode}) e vale
+ * tanto para o {@code taskExecutor} (@Async, buffers write-behind, roda de tempo) quanto para o
+ * {@code blockingScheduler}, onde os handlers reativos fazem as chamadas JPA.
  */
+@Slf4j
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
+    private final BlockingMode mode;
+
+    public AsyncConfig(@Value("${gra.blocking.mode:PLATFORM}") BlockingMode requested) {
+        if (requested == BlockingMode.VIRTUAL && !BlockingMode.virtualThreadsSupported()) {
+            log.warn("Virtual threads exigem Java 21 (runtime atual: {}). Usando threads de plataforma.", Runtime.version().feature());
+            this.mode = BlockingMode.PLATFORM;
+        } else {
+            this.mode = requested;
+        }
+        log.info("Trabalho bloqueante em modo {}", this.mode);
+    }
+
     /**
      * Pool de threads otimizado para operações Discord e banco de dados
      * Configurado para balancear performance e uso de memória
      */
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public AsyncTaskExecutor taskExecutor() {
+        return taskExecutor(mode);
+    }
+
+    /**
+     * Scheduler para {@code subscribeOn} de chamadas bloqueantes a partir de cadeias reativas
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler() {
+        return blockingScheduler(mode);
+    }
+
+    static AsyncTaskExecutor taskExecutor(BlockingMode mode) {
+        if (mode == BlockingMode.VIRTUAL) {
+            return virtualThreadExecutor("GRA-Bot-vt-");
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         // Configurações otimizadas para bot Discord com operações de I/O
         executor.setCorePoolSize(4);  // Threads mínimas
@@ -31,4 +66,20 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    static Scheduler blockingScheduler(BlockingMode mode) {
+        if (mode == BlockingMode.VIRTUAL) {
+            return Schedulers.fromExecutor(virtualThreadExecutor("GRA-Blocking-vt-"));
+        }
+        // Instância compartilhada do Reactor: dispose() nela não tem efeito
+        return Schedulers.boundedElastic();
+    }
+
+    // Uma virtual thread por tarefa, sem fila nem teto: quem limita a concorrência no banco são os pools Hikari
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(20_000);
+        return executor;
+    }
+}
@@ -0,0 +1,15 @@
+package com.gra.paradise.botattendance.config;
+
+/**
+ * Onde roda o trabalho bloqueante (JPA, JDBC, arquivos) disparado pelos handlers reativos e pelo @Async
+ * PLATFORM usa pools de threads de plataforma (boundedElastic do Reactor e o pool do taskExecutor);
+ * VIRTUAL usa uma virtual thread por tarefa e exige runtime Java 21 ou mais novo.
+ */
+public enum BlockingMode {
+    PLATFORM,
+    VIRTUAL;
+
+    public static boolean virtualThreadsSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+}
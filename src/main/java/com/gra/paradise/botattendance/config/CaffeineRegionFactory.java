@@ -0,0 +1,143 @@
+package com.gra.paradise.botattendance.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Region factory do cache de segundo nível do Hibernate sobre Caffeine
+ * Cada região é um cache Caffeine com limite de entradas, dimensionado para rodar com -Xmx256m.
+ * Limites podem ser sobrescritos por região com
+ * {@code spring.jpa.properties.hibernate.cache.caffeine.<regiao>.maximum_size} e
+ * {@code ...expire_after_write_minutes}.
+ */
+@Slf4j
+public class CaffeineRegionFactory extends RegionFactoryTemplate {
+
+    public static final String USERS_REGION = "users";
+    public static final String GUILD_CONFIGS_REGION = "guild-configs";
+    public static final String SYSTEM_MESSAGES_REGION = "system-messages";
+    public static final String SCHEDULES_REGION = "schedules";
+    public static final String SCHEDULE_QUERIES_REGION = "schedule-queries";
+
+    private static final String SETTINGS_PREFIX = "hibernate.cache.caffeine.";
+    private static final RegionLimits DEFAULT_LIMITS = new RegionLimits(200, Duration.ofMinutes(30));
+    private static final Map<String, RegionLimits> REGION_DEFAULTS = Map.of(
+            USERS_REGION, new RegionLimits(2_000, Duration.ofHours(6)),
+            GUILD_CONFIGS_REGION, new RegionLimits(100, Duration.ofHours(12)),
+            SYSTEM_MESSAGES_REGION, new RegionLimits(100, Duration.ofHours(12)),
+            SCHEDULES_REGION, new RegionLimits(500, Duration.ofHours(1)),
+            SCHEDULE_QUERIES_REGION, new RegionLimits(200, Duration.ofMinutes(30))
+    );
+
+    private final Map<String, Cache<Object, Object>> regions = new ConcurrentHashMap<>();
+    private Map<String, Object> settings = Map.of();
+
+    /**
+     * Caches Caffeine de cada região, expostos para as métricas
+     */
+    public Map<String, Cache<Object, Object>> regions() {
+        return regions;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions options, Map<String, Object> configValues) {
+        this.settings = configValues;
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(Cache::invalidateAll);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new CaffeineStorageAccess(region(regionConfig.getRegionName(), true));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(region(regionName, true));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        // Timestamps não podem ser descartados antes dos resultados de query que eles invalidam.
+        // Há uma entrada por tabela, então o cache fica pequeno mesmo sem limite.
+        return new CaffeineStorageAccess(region(regionName, false));
+    }
+
+    private Cache<Object, Object> region(String regionName, boolean bounded) {
+        return regions.computeIfAbsent(regionName, name -> {
+            Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+            if (bounded) {
+                RegionLimits limits = limitsFor(name);
+                builder.maximumSize(limits.maximumSize()).expireAfterWrite(limits.expireAfterWrite());
+                log.info("Região L2 {}: até {} entradas, expira em {}", name, limits.maximumSize(), limits.expireAfterWrite());
+            }
+            return builder.build();
+        });
+    }
+
+    private RegionLimits limitsFor(String regionName) {
+        RegionLimits defaults = REGION_DEFAULTS.getOrDefault(regionName, DEFAULT_LIMITS);
+        long maximumSize = longSetting(regionName + ".maximum_size", defaults.maximumSize());
+        long expireMinutes = longSetting(regionName + ".expire_after_write_minutes", defaults.expireAfterWrite().toMinutes());
+        return new RegionLimits(maximumSize, Duration.ofMinutes(expireMinutes));
+    }
+
+    private long longSetting(String key, long defaultValue) {
+        Object value = settings.get(SETTINGS_PREFIX + key);
+        return value == null ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+
+    private record RegionLimits(long maximumSize, Duration expireAfterWrite) {}
+
+    private record CaffeineStorageAccess(Cache<Object, Object> cache) implements DomainDataStorageAccess {
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            // Sem passar pelo getIfPresent: contains não é uma leitura e não deve contar como hit/miss
+            return cache.asMap().containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+    }
+}
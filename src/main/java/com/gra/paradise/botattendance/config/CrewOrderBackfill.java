@@ -0,0 +1,42 @@
+package com.gra.paradise.botattendance.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Numera a ordem de embarque das tripulações gravadas antes da coluna crew_order.
+ * O ddl-auto cria a coluna com 0 em todas as linhas antigas; lista indexada com posições repetidas
+ * perderia tripulantes ao carregar. Escalas nessa situação são renumeradas (a ordem original não
+ * foi gravada, então fica a do ID do usuário).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CrewOrderBackfill {
+
+    private static final String RENUMBER_SQL =
+            "UPDATE schedule_crew c SET crew_order = (" +
+            "SELECT COUNT(*) FROM schedule_crew o WHERE o.schedule_id = c.schedule_id AND o.user_discord_id < c.user_discord_id) " +
+            "WHERE c.schedule_id IN (" +
+            "SELECT schedule_id FROM schedule_crew GROUP BY schedule_id HAVING COUNT(*) > COUNT(DISTINCT crew_order))";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Garante que o schema (e a coluna crew_order) já foi atualizado pelo Hibernate
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void renumberLegacyCrews() {
+        try {
+            int updated = jdbcTemplate.update(RENUMBER_SQL);
+            if (updated > 0) {
+                log.info("Ordem de embarque numerada em {} linhas de schedule_crew", updated);
+            }
+        } catch (Exception e) {
+            log.warn("Não foi possível numerar a ordem de embarque de schedule_crew: {}", e.getMessage());
+        }
+    }
+}
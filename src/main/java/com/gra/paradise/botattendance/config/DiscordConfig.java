@@ -2,26 +2,14 @@ package com.gra.paradise.botattendance.config;
 
 import com.gra.paradise.botattendance.model.AircraftType;
 import com.gra.paradise.botattendance.model.GuildConfig;
+import com.gra.paradise.botattendance.model.LogMode;
 import com.gra.paradise.botattendance.model.MissionType;
 import com.gra.paradise.botattendance.repository.GuildConfigRepository;
-import discord4j.common.store.Store;
-import discord4j.common.store.impl.LocalStoreLayout;
-import discord4j.core.DiscordClientBuilder;
-import discord4j.core.GatewayDiscordClient;
-import discord4j.core.object.presence.ClientActivity;
-import discord4j.core.object.presence.ClientPresence;
-import discord4j.gateway.intent.Intent;
-import discord4j.gateway.intent.IntentSet;
-import discord4j.rest.RestClient;
-import discord4j.store.api.service.StoreService;
-import discord4j.store.jdk.JdkStoreService;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.ZoneId;
@@ -41,9 +29,6 @@ public class DiscordConfig {
     public static final ZoneId FORTALEZA_ZONE = ZoneId.of("America/Fortaleza");
     private final GuildConfigRepository guildConfigRepository;
 
-    @Value("${discord.token}")
-    private String token;
-
     @Value("${gra.image.url:https://raw.githubusercontent.com/slnntk/qru-report/refs/heads/main/src/assets/EMBLEMA%20GRA.png}")
     private String graImageUrl;
     @Value("${footer.gra.blue.url:https://raw.githubusercontent.com/slnntk/BOT-ATTENDANCE-GRA/refs/heads/master/image.png}")
@@ -78,28 +63,6 @@ public class DiscordConfig {
         logger.debug("AIRCRAFT_IMAGE_URLS: {}", AIRCRAFT_IMAGE_URLS);
     }
 
-    @Bean
-    @ConditionalOnProperty(name = "discord.enabled", havingValue = "true", matchIfMissing = true)
-    public GatewayDiscordClient gatewayDiscordClient() {
-        return DiscordClientBuilder.create(token)
-                .build()
-                .gateway()
-                .setEnabledIntents(IntentSet.of(
-                        Intent.GUILDS,
-                        Intent.GUILD_MEMBERS
-                ))
-                .setStore(Store.fromLayout(LocalStoreLayout.create()))
-                .setInitialPresence(shardInfo ->
-                        ClientPresence.online(ClientActivity.playing("Desenvolvido por Tiago Holanda")))
-                .login()
-                .block();
-    }
-
-    @Bean
-    public RestClient discordRestClient(GatewayDiscordClient gatewayDiscordClient) {
-        return gatewayDiscordClient.getRestClient();
-    }
-
     public String getDefaultSystemChannelId(String guildId) {
         return guildConfigRepository.findById(guildId)
                 .map(GuildConfig::getSystemChannelId)
@@ -122,4 +85,17 @@ public class DiscordConfig {
                 })
                 .orElse(null);
     }
-}
\ No newline at end of file
+
+    /**
+     * Modo de publicação dos logs deste tipo de missão; sem configuração, um embed por escala
+     */
+    public LogMode getLogMode(String guildId, MissionType missionType) {
+        return guildConfigRepository.findById(guildId)
+                .map(config -> switch (missionType) {
+                    case ACTION -> config.getActionLogMode();
+                    case PATROL -> config.getPatrolLogMode();
+                    case OUTROS -> config.getOutrosLogMode();
+                })
+                .orElse(LogMode.EMBED);
+    }
+}
@@ -0,0 +1,74 @@
+package com.gra.paradise.botattendance.config;
+
+import com.gra.paradise.botattendance.discord.DiscordGateway;
+import discord4j.common.store.Store;
+import discord4j.common.store.impl.LocalStoreLayout;
+import discord4j.core.DiscordClient;
+import discord4j.core.DiscordClientBuilder;
+import discord4j.core.event.ReplayingEventDispatcher;
+import discord4j.core.event.domain.interaction.InteractionCreateEvent;
+import discord4j.core.object.presence.ClientActivity;
+import discord4j.core.object.presence.ClientPresence;
+import discord4j.gateway.intent.Intent;
+import discord4j.gateway.intent.IntentSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Cliente REST e gateway do Discord
+ * Fica fora do {@link DiscordConfig}, que depende de repositórios, para não esperar o JPA: o
+ * EntityManagerFactory passa a depender do gateway, então o login começa antes do bootstrap do
+ * Hibernate e os dois correm em paralelo em vez de somar no tempo de boot. Interações recebidas antes
+ * dos handlers inscritos são retidas pelo dispatcher e reentregues quando a barreira do
+ * {@link DiscordGateway} abre.
+ */
+@Configuration
+@ConditionalOnProperty(name = "discord.enabled", havingValue = "true", matchIfMissing = true)
+public class DiscordGatewayConfig {
+
+    @Value("${discord.token}")
+    private String token;
+
+    // Decidido em runtime, não por condição: com AOT as condições ficam congeladas no build
+    @Value("${discord.stand-in:false}")
+    private boolean standIn;
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor discordGatewayBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor("discordGateway");
+    }
+
+    /**
+     * Cliente REST: não depende da sessão do gateway, então comandos e mensagens funcionam desde o boot
+     */
+    @Bean
+    public DiscordClient discordClient() {
+        return DiscordClientBuilder.create(token).build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public DiscordGateway discordGateway(DiscordClient discordClient) {
+        if (standIn) {
+            return DiscordGateway.standIn();
+        }
+        Sinks.Empty<Void> barrier = Sinks.empty();
+        return new DiscordGateway(discordClient.gateway()
+                .setEventDispatcher(ReplayingEventDispatcher.builder()
+                        .replayEventFilter(event -> event instanceof InteractionCreateEvent)
+                        .stopReplayingTrigger(barrier.asMono())
+                        .build())
+                .setEnabledIntents(IntentSet.of(
+                        Intent.GUILDS,
+                        Intent.GUILD_MEMBERS
+                ))
+                .setStore(Store.fromLayout(LocalStoreLayout.create()))
+                .setInitialPresence(shardInfo ->
+                        ClientPresence.online(ClientActivity.playing("Desenvolvido por Tiago Holanda")))
+                .login(), barrier)
+                .start();
+    }
+}
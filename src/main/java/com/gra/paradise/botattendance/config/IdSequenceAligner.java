@@ -0,0 +1,48 @@
+package com.gra.paradise.botattendance.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Alinha as sequences de ID com os dados já existentes.
+ * Bancos criados quando as entidades usavam IDENTITY já têm linhas com IDs altos,
+ * enquanto a sequence criada pelo ddl-auto começa em 1; sem o ajuste o primeiro
+ * insert em lote colidiria com a chave primária.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdSequenceAligner {
+
+    private static final Map<String, String> SEQUENCES_BY_TABLE = Map.of(
+            "schedules", "schedules_seq",
+            "schedule_logs", "schedule_logs_seq",
+            "crew_activities", "crew_activities_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    // Garante que o schema (e as sequences) já foi atualizado pelo Hibernate
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES_BY_TABLE.forEach((table, sequence) -> {
+            try {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                if (maxId != null && maxId > 0) {
+                    // Com pooled-lo o valor da sequence é o menor ID do bloco; max + 1 nunca colide
+                    jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 1));
+                    log.info("Sequence {} reiniciada em {} (tabela {})", sequence, maxId + 1, table);
+                }
+            } catch (Exception e) {
+                log.warn("Não foi possível alinhar a sequence {} da tabela {}: {}", sequence, table, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.gra.paradise.botattendance.config;
+
+import com.gra.paradise.botattendance.model.CrewActivity;
+import com.gra.paradise.botattendance.model.GuildConfig;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.model.ScheduleLog;
+import com.gra.paradise.botattendance.model.SystemMessage;
+import com.gra.paradise.botattendance.model.User;
+import com.gra.paradise.botattendance.repository.ScheduleExportRow;
+import com.gra.paradise.botattendance.repository.ScheduleLogExportRow;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Metadados de alcance para a imagem nativa (perfil Maven native)
+ * Entidades JPA e a região de cache do Hibernate são acessadas por reflexão. Do discord-json entra só o
+ * que o Jackson liga: a classe Immutables (criador fromJson e getters) e a aninhada Json (construtor e
+ * setters), mais o Id, o filtro de Possible e os conversores do gateway; builders e shims ficam de fora.
+ * Do Caffeine entram só os construtores das classes geradas de nó e de cache, que ele escolhe por nome.
+ * As linhas da exportação são criadas pelo {@code select new} do HQL e escritas pelo Jackson. O que o
+ * repositório de metadados do GraalVM já cobre (Hibernate, H2, Netty) fica com ele.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> ENTITIES = List.of(
+            Schedule.class, ScheduleLog.class, User.class, CrewActivity.class, GuildConfig.class, SystemMessage.class);
+
+    static final List<Class<?>> EXPORT_ROWS = List.of(ScheduleExportRow.class, ScheduleLogExportRow.class);
+
+    private static final String DISCORD_JSON_PACKAGE = "discord4j/discordjson";
+    private static final String CAFFEINE_PACKAGE = "com/github/benmanes/caffeine/cache";
+
+    // discord4j.discordjson.json.ImmutableMessageData$Json -> pacote e MessageData
+    private static final Pattern JSON_BINDING = Pattern.compile("(.+)\\.Immutable(\\w+)\\$Json");
+    // Classes geradas têm nome só de letras maiúsculas (PSA, SSMSA...)
+    private static final Pattern CAFFEINE_GENERATED = Pattern.compile("com\\.github\\.benmanes\\.caffeine\\.cache\\.[A-Z]+");
+
+    static final List<String> DISCORD_JSON_SUPPORT = List.of(
+            "discord4j.discordjson.Id",
+            "discord4j.discordjson.possible.PossibleFilter",
+            "discord4j.discordjson.json.gateway.HeartbeatConverter",
+            "discord4j.discordjson.json.gateway.OpcodeConverter");
+
+    private static final MemberCategory[] ALL_MEMBERS = {
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.INVOKE_DECLARED_METHODS,
+            MemberCategory.DECLARED_FIELDS
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ENTITIES.forEach(entity -> hints.reflection().registerType(entity, ALL_MEMBERS));
+        hints.reflection().registerType(CaffeineRegionFactory.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        EXPORT_ROWS.forEach(row -> hints.reflection().registerType(row,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        for (String className : classesUnder(resolver, DISCORD_JSON_PACKAGE)) {
+            Matcher binding = JSON_BINDING.matcher(className);
+            if (binding.matches()) {
+                String immutable = binding.group(1) + ".Immutable" + binding.group(2);
+                // O tipo abstrato só carrega as anotações @JsonDeserialize/@JsonSerialize que apontam para o Immutable
+                hints.reflection().registerType(TypeReference.of(binding.group(1) + "." + binding.group(2)));
+                hints.reflection().registerType(TypeReference.of(immutable), MemberCategory.INVOKE_PUBLIC_METHODS);
+                hints.reflection().registerType(TypeReference.of(className),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+        }
+        DISCORD_JSON_SUPPORT.forEach(className -> hints.reflection().registerType(TypeReference.of(className),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        classesUnder(resolver, CAFFEINE_PACKAGE).stream()
+                .filter(className -> CAFFEINE_GENERATED.matcher(className).matches())
+                .forEach(className -> hints.reflection().registerType(TypeReference.of(className),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+
+        // Imagens servidas pelo ImageController
+        hints.resources().registerPattern("images/*");
+    }
+
+    private static List<String> classesUnder(PathMatchingResourcePatternResolver resolver, String basePackage) {
+        try {
+            Resource[] resources = resolver.getResources("classpath*:" + basePackage + "/**/*.class");
+            return Arrays.stream(resources)
+                    .map(resource -> className(resource, basePackage))
+                    .filter(name -> name != null && !name.endsWith("package-info"))
+                    .distinct()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível listar as classes de " + basePackage, e);
+        }
+    }
+
+    private static String className(Resource resource, String basePackage) {
+        try {
+            String url = resource.getURL().toString();
+            int start = url.lastIndexOf(basePackage + "/");
+            if (start < 0) {
+                return null;
+            }
+            return url.substring(start, url.length() - ".class".length()).replace('/', '.');
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
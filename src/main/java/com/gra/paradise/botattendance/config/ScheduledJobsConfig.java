@@ -0,0 +1,54 @@
+package com.gra.paradise.botattendance.config;
+
+import com.gra.paradise.botattendance.service.CrewActivityRecorder;
+import com.gra.paradise.botattendance.service.ScheduleLogDigest;
+import com.gra.paradise.botattendance.service.ScheduleLogManager;
+import com.gra.paradise.botattendance.service.ScheduleRetentionService;
+import com.gra.paradise.botattendance.service.TimerService;
+import com.gra.paradise.botattendance.service.UserService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+import static com.gra.paradise.botattendance.config.DiscordConfig.FORTALEZA_ZONE;
+
+/**
+ * Jobs periódicos do bot, todos na roda de tempo do {@link TimerService}
+ * Substitui o @Scheduled do Spring: um lugar só para ver o que roda, com que frequência e com que atraso.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ScheduledJobsConfig {
+
+    private final TimerService timerService;
+    private final ScheduleLogManager scheduleLogManager;
+    private final CrewActivityRecorder crewActivityRecorder;
+    private final UserService userService;
+    private final ScheduleLogDigest scheduleLogDigest;
+    private final ScheduleRetentionService retentionService;
+
+    @Value("${discord.logs.digest-interval-ms:30000}")
+    private long digestIntervalMs;
+
+    @PostConstruct
+    public void registerJobs() {
+        // Buffers write-behind
+        every("schedule-logs-flush", Duration.ofSeconds(2), scheduleLogManager::flushPendingLogs);
+        every("crew-activities-flush", Duration.ofSeconds(5), crewActivityRecorder::flush);
+        every("user-names-flush", Duration.ofSeconds(10), userService::flushPendingNames);
+
+        // Resumos dos canais de log
+        every("log-digest-flush", Duration.ofMillis(digestIntervalMs), scheduleLogDigest::flushAll);
+
+        // Retenção: à meia-noite de Fortaleza, mesmo fuso do corte de 30 dias
+        timerService.scheduleDaily("schedule-retention", LocalTime.MIDNIGHT, FORTALEZA_ZONE, retentionService::cleanOldLogs);
+    }
+
+    private void every(String job, Duration interval, Runnable task) {
+        timerService.scheduleWithFixedDelay(job, interval, interval, task);
+    }
+}
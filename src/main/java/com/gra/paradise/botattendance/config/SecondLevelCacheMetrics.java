@@ -0,0 +1,56 @@
+package com.gra.paradise.botattendance.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Métricas do cache de segundo nível do Hibernate
+ * Exporta hits, misses e evictions por região (Prometheus: hibernate_l2_requests_total{region,result})
+ * e o tamanho atual de cada região Caffeine. Os contadores vêm do recordStats() do próprio Caffeine,
+ * sem ligar hibernate.generate_statistics (que mede cada sessão e query em produção).
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (!(sessionFactory.getCache().getRegionFactory() instanceof CaffeineRegionFactory regionFactory)) {
+            return;
+        }
+
+        regionFactory.regions().forEach((region, cache) -> {
+            Gauge.builder("hibernate.l2.size", cache, Cache::estimatedSize)
+                    .description("Entries currently held in the second-level cache region")
+                    .tag("region", region)
+                    .register(registry);
+            requests(registry, cache, region, "hit", CacheStats::hitCount);
+            requests(registry, cache, region, "miss", CacheStats::missCount);
+            FunctionCounter.builder("hibernate.l2.evictions", cache, c -> c.stats().evictionCount())
+                    .description("Second-level cache entries evicted by size or expiration")
+                    .tag("region", region)
+                    .register(registry);
+        });
+    }
+
+    private void requests(MeterRegistry registry, Cache<Object, Object> cache, String region, String result,
+                          ToLongFunction<CacheStats> counter) {
+        FunctionCounter.builder("hibernate.l2.requests", cache, c -> counter.applyAsLong(c.stats()))
+                .description("Second-level cache lookups")
+                .tags("region", region, "result", result)
+                .register(registry);
+    }
+}
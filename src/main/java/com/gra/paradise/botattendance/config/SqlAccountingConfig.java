@@ -0,0 +1,63 @@
+package com.gra.paradise.botattendance.config;
+
+import com.gra.paradise.botattendance.utils.SqlRouteContext;
+import org.hibernate.SessionEventListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração da contabilidade SQL por rota
+ * Liga o StatementInspector e o SessionEventListener do Hibernate ao SqlRouteContext.
+ * Os listeners de carga de entidade/coleção são registrados pelo SqlAccountingService.
+ */
+@Configuration
+public class SqlAccountingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlAccountingHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new RouteStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, RouteSessionEventListener.class.getName());
+        };
+    }
+
+    /**
+     * Captura o SQL preparado na rota atual (usado nas mensagens de falha do orçamento de queries)
+     */
+    static class RouteStatementInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            SqlRouteContext.onStatementPrepared(sql);
+            return sql;
+        }
+    }
+
+    /**
+     * Conta round trips JDBC e o tempo em que a sessão segurou a conexão.
+     * Instanciado pelo Hibernate por sessão, por isso precisa ser público com construtor vazio.
+     */
+    public static class RouteSessionEventListener implements SessionEventListener {
+        @Override
+        public void jdbcConnectionAcquisitionEnd() {
+            SqlRouteContext.onConnectionAcquired();
+        }
+
+        @Override
+        public void jdbcConnectionReleaseEnd() {
+            SqlRouteContext.onConnectionReleased();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            SqlRouteContext.onStatementExecuted();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            SqlRouteContext.onStatementExecuted();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.gra.paradise.botattendance.controller;
+
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.service.HistoryExportService;
+import com.gra.paradise.botattendance.service.HistoryExportService.Filter;
+import com.gra.paradise.botattendance.service.HistoryExportService.Format;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+
+/**
+ * Exportação do histórico para a staff: escalas e logs em NDJSON ou CSV
+ * Paginação por keyset: a próxima página é pedida com after = id da última linha recebida;
+ * uma página com menos linhas que o limit é a última.
+ * Desativada enquanto export.api.token não estiver configurado.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/guilds/{guildId}")
+public class HistoryExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final HistoryExportService exportService;
+    private final byte[] apiToken;
+
+    public HistoryExportController(HistoryExportService exportService,
+                                   @Value("${export.api.token:}") String apiToken) {
+        this.exportService = exportService;
+        this.apiToken = apiToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @GetMapping("/schedules")
+    public ResponseEntity<StreamingResponseBody> exportSchedules(
+            @PathVariable String guildId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) AircraftType aircraft,
+            @RequestParam(required = false) String user,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + HistoryExportService.DEFAULT_LIMIT) int limit,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        HttpStatus denied = checkAccess(authorization);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        Filter filter = new Filter(guildId, from, to, aircraft, user, after, limit);
+        Format exportFormat = parseFormat(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return respond(exportFormat, "escalas-" + guildId,
+                out -> exportService.exportSchedules(filter, exportFormat, out));
+    }
+
+    @GetMapping("/logs")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @PathVariable String guildId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) AircraftType aircraft,
+            @RequestParam(required = false) String user,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + HistoryExportService.DEFAULT_LIMIT) int limit,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        HttpStatus denied = checkAccess(authorization);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        Filter filter = new Filter(guildId, from, to, aircraft, user, after, limit);
+        Format exportFormat = parseFormat(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return respond(exportFormat, "logs-" + guildId,
+                out -> exportService.exportLogs(filter, exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> respond(Format format, String fileName, StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format == Format.CSV ? CSV : NDJSON);
+        if (format == Format.CSV) {
+            response.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + ".csv\"");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Token fixo via Authorization: Bearer; sem token configurado a exportação não existe (404)
+     */
+    private HttpStatus checkAccess(String authorization) {
+        if (apiToken.length == 0) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        byte[] provided = authorization.substring("Bearer ".length()).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(apiToken, provided) ? null : HttpStatus.UNAUTHORIZED;
+    }
+
+    private static Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.debug("Formato de exportação inválido: {}", format);
+            return null;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.gra.paradise.botattendance.discord;
 
-import discord4j.core.GatewayDiscordClient;
 import discord4j.core.event.domain.interaction.DeferrableInteractionEvent;
 import discord4j.core.event.domain.interaction.InteractionCreateEvent;
 import lombok.extern.slf4j.Slf4j;
@@ -10,9 +9,9 @@ import org.springframework.stereotype.Component;
 @Component
 public class DiagnosticHandler {
 
-    public DiagnosticHandler(GatewayDiscordClient client) {
+    public DiagnosticHandler(DiscordGateway gateway) {
         // Este handler vai registrar TODAS as interações que o bot recebe
-//        client.on(InteractionCreateEvent.class)
+//        gateway.client().flatMapMany(client -> client.on(InteractionCreateEvent.class))
 //                .subscribe(event -> {
 //                    log.info("=========== INTERAÇÃO RECEBIDA ===========");
 //                    log.info("Tipo: {}", event.getClass().getSimpleName());
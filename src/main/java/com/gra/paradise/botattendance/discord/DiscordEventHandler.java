@@ -2,18 +2,19 @@ package com.gra.paradise.botattendance.discord;
 
 import com.gra.paradise.botattendance.discord.buttons.ButtonDispatcher;
 import com.gra.paradise.botattendance.discord.commands.Command;
+import com.gra.paradise.botattendance.model.LogMode;
 import com.gra.paradise.botattendance.service.PerformanceMetricsService;
 import com.gra.paradise.botattendance.service.StandbyService;
 import io.micrometer.core.instrument.Timer;
 import discord4j.core.GatewayDiscordClient;
 import discord4j.core.event.domain.interaction.ButtonInteractionEvent;
+import discord4j.core.event.domain.interaction.ChatInputAutoCompleteEvent;
 import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
 import discord4j.core.event.domain.interaction.ModalSubmitInteractionEvent;
 import discord4j.core.event.domain.interaction.SelectMenuInteractionEvent;
 import discord4j.discordjson.json.ApplicationCommandOptionChoiceData;
 import discord4j.discordjson.json.ApplicationCommandOptionData;
 import discord4j.discordjson.json.ApplicationCommandRequest;
-import discord4j.rest.RestClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
@@ -22,6 +23,7 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -32,12 +34,13 @@ import java.util.concurrent.ConcurrentHashMap;
 public class DiscordEventHandler {
 
     private final ApplicationContext applicationContext;
-    private final GatewayDiscordClient gatewayDiscordClient;
+    private final DiscordGateway gateway;
     private final ButtonDispatcher buttonDispatcher;
-    private final RestClient restClient;
+    private final SlashCommandRegistrar commandRegistrar;
     private final DiagnosticHandler diagnosticHandler;
     private final PerformanceMetricsService performanceMetrics;
     private final StandbyService standbyService;
+    private final DiscordReadinessHealthIndicator readiness;
 
     // Cache para otimizar lookup de comandos - evita busca linear repetida
     private final Map<String, Command> commandCache = new ConcurrentHashMap<>();
@@ -50,15 +53,33 @@ public class DiscordEventHandler {
         // Inicializar cache de comandos uma única vez para melhor performance
         initializeCommandCache();
         
+        if (gateway.isStandIn()) {
+            log.info("Gateway stand-in: comandos e handlers do Discord não serão registrados");
+            return;
+        }
+
         // Registrar comandos
         registerCommands();
 
+        // O login corre em paralelo com o boot: os handlers entram quando o gateway terminar de conectar
+        gateway.client().subscribe(this::subscribeHandlers,
+                e -> log.error("Gateway do Discord indisponível, interações não serão recebidas: {}", e.getMessage()));
+    }
+
+    private void subscribeHandlers(GatewayDiscordClient gatewayDiscordClient) {
         // Configurar handlers para eventos
         gatewayDiscordClient.on(ChatInputInteractionEvent.class, this::handleSlashCommand)
                 .subscribe();
 
+        // Autocomplete chega a cada tecla: responde só com dados em memória
+        gatewayDiscordClient.on(ChatInputAutoCompleteEvent.class, this::handleAutocomplete)
+                .subscribe();
+
         gatewayDiscordClient.on(ButtonInteractionEvent.class)
-                .doOnNext(e -> diagnosticHandler.logInteraction(e))
+                .doOnNext(e -> {
+                    readiness.recordInteraction();
+                    diagnosticHandler.logInteraction(e);
+                })
                 .flatMap(buttonDispatcher::handleButtonEvent)
                 .onErrorResume(e -> {
                     log.error("Erro ao processar evento de botão", e);
@@ -67,7 +88,10 @@ public class DiscordEventHandler {
                 .subscribe();
 
         gatewayDiscordClient.on(SelectMenuInteractionEvent.class)
-                .doOnNext(e -> diagnosticHandler.logInteraction(e))
+                .doOnNext(e -> {
+                    readiness.recordInteraction();
+                    diagnosticHandler.logInteraction(e);
+                })
                 .flatMap(buttonDispatcher::handleSelectMenuEvent)
                 .onErrorResume(e -> {
                     log.error("Erro ao processar evento de menu de seleção", e);
@@ -77,7 +101,10 @@ public class DiscordEventHandler {
 
         // Adicionar handler para ModalSubmitInteractionEvent
         gatewayDiscordClient.on(ModalSubmitInteractionEvent.class)
-                .doOnNext(e -> diagnosticHandler.logInteraction(e))
+                .doOnNext(e -> {
+                    readiness.recordInteraction();
+                    diagnosticHandler.logInteraction(e);
+                })
                 .flatMap(buttonDispatcher::handleModalSubmitEvent)
                 .onErrorResume(e -> {
                     log.error("Erro ao processar evento de modal", e);
@@ -85,6 +112,9 @@ public class DiscordEventHandler {
                 })
                 .subscribe();
 
+        // Só agora as interações retidas durante o boot são entregues
+        gateway.openBarrier();
+        readiness.markHandlersSubscribed();
         log.info("Bot Discord iniciado com sucesso!");
     }
 
@@ -96,76 +126,100 @@ public class DiscordEventHandler {
         log.info("Cache de comandos inicializado com {} comandos", commandCache.size());
     }
     private void registerCommands() {
-        // Usar flatMap para evitar blocking e melhor tratamento reativo
-        gatewayDiscordClient.getRestClient().getApplicationId()
-                .flatMap(applicationId -> {
-                    // Usar List.of para melhor performance de memória que ArrayList
-                    List<ApplicationCommandRequest> commands = List.of(
-                            // Comando para criar escala
-                            ApplicationCommandRequest.builder()
-                                    .name("criar-escala")
-                                    .description("Cria uma nova escala de voo")
-                                    .addOption(ApplicationCommandOptionData.builder()
-                                            .name("titulo")
-                                            .description("Título da escala")
-                                            .type(3)
-                                            .required(true)
-                                            .build())
-                                    .addOption(ApplicationCommandOptionData.builder()
-                                            .name("aeronave")
-                                            .description("Tipo de aeronave")
-                                            .type(3)
-                                            .required(true)
-                                            .addAllChoices(createAircraftChoices())
-                                            .build())
-                                    .addOption(ApplicationCommandOptionData.builder()
-                                            .name("missao")
-                                            .description("Tipo de missão")
-                                            .type(3)
-                                            .required(true)
-                                            .addAllChoices(createMissionTypeChoices())
-                                            .build())
-                                    .build(),
-
-                            // Comando para listar escalas ativas
-                            ApplicationCommandRequest.builder()
-                                    .name("escalas-ativas")
-                                    .description("Lista todas as escalas de voo ativas")
-                                    .build(),
-
-                            // Comando para configurar o sistema de escalas fixo
-                            ApplicationCommandRequest.builder()
-                                    .name("setup-escala")
-                                    .description("Configura o sistema de escalas de voo no canal atual")
-                                    .build(),
-
-                                // Comando para configurar canal de logs
-                                ApplicationCommandRequest.builder()
-                                        .name("setup-log-channel")
-                                        .description("Configura o canal atual como um canal de logs de escala")
-                                        .addOption(ApplicationCommandOptionData.builder()
-                                                .name("tipo")
-                                                .description("Tipo de missão para este canal de logs")
-                                                .type(3)
-                                                .required(false)
-                                                .addAllChoices(createLogChannelChoices())
-                                                .build())
-                                        .build(),
-
-                                // Comando para testar stand-by
-                                ApplicationCommandRequest.builder()
-                                        .name("standby-status")
-                                        .description("Mostra o status do sistema de stand-by do bot")
-                                        .build()
-                    );
-
-                    // Registra comandos globalmente
-                    return restClient.getApplicationService()
-                            .bulkOverwriteGlobalApplicationCommand(applicationId, commands)
-                            .doOnNext(cmd -> log.info("Comando registrado: {}", cmd.name()))
-                            .then();
-                })
-                .subscribe();
+        // Só registra se a definição mudou desde o último deploy
+        commandRegistrar.sync(commandDefinitions())
+                .subscribe(null, e -> log.error("Erro ao registrar comandos: {}", e.getMessage(), e));
+    }
+
+    // Definição dos slash commands; o hash dela decide se o registro precisa ser refeito
+    List<ApplicationCommandRequest> commandDefinitions() {
+        // Usar List.of para melhor performance de memória que ArrayList
+        return List.of(
+                // Comando para criar escala
+                ApplicationCommandRequest.builder()
+                        .name("criar-escala")
+                        .description("Cria uma nova escala de voo")
+                        .addOption(ApplicationCommandOptionData.builder()
+                                .name("titulo")
+                                .description("Título da escala")
+                                .type(3)
+                                .required(true)
+                                .build())
+                        .addOption(ApplicationCommandOptionData.builder()
+                                .name("aeronave")
+                                .description("Tipo de aeronave")
+                                .type(3)
+                                .required(true)
+                                .addAllChoices(createAircraftChoices())
+                                .build())
+                        .addOption(ApplicationCommandOptionData.builder()
+                                .name("missao")
+                                .description("Tipo de missão")
+                                .type(3)
+                                .required(true)
+                                .addAllChoices(createMissionTypeChoices())
+                                .build())
+                        .addOption(ApplicationCommandOptionData.builder()
+                                .name("descricao")
+                                .description("Descrição da missão (obrigatória para Outros)")
+                                .type(3)
+                                .required(false)
+                                .maxLength(100)
+                                .autocomplete(true)
+                                .build())
+                        .build(),
+
+                // Comando para listar escalas ativas
+                ApplicationCommandRequest.builder()
+                        .name("escalas-ativas")
+                        .description("Lista todas as escalas de voo ativas")
+                        .build(),
+
+                // Comando para configurar o sistema de escalas fixo
+                ApplicationCommandRequest.builder()
+                        .name("setup-escala")
+                        .description("Configura o sistema de escalas de voo no canal atual")
+                        .build(),
+
+                    // Comando para configurar canal de logs
+                    ApplicationCommandRequest.builder()
+                            .name("setup-log-channel")
+                            .description("Configura o canal atual como um canal de logs de escala")
+                            .addOption(ApplicationCommandOptionData.builder()
+                                    .name("tipo")
+                                    .description("Tipo de missão para este canal de logs")
+                                    .type(3)
+                                    .required(false)
+                                    .addAllChoices(createLogChannelChoices())
+                                    .build())
+                            .addOption(ApplicationCommandOptionData.builder()
+                                    .name("modo")
+                                    .description("Como as atividades das escalas são publicadas neste canal")
+                                    .type(3)
+                                    .required(false)
+                                    .addAllChoices(LOG_MODE_CHOICES)
+                                    .build())
+                            .build(),
+
+                    // Comando para testar stand-by
+                    ApplicationCommandRequest.builder()
+                            .name("standby-status")
+                            .description("Mostra o status do sistema de stand-by do bot")
+                            .build(),
+
+                    // Busca de usuários com autocomplete
+                    ApplicationCommandRequest.builder()
+                            .name("buscar-usuario")
+                            .description("Mostra um usuário e as escalas ativas em que ele está")
+                            .addOption(ApplicationCommandOptionData.builder()
+                                    .name("usuario")
+                                    .description("Nickname ou username do usuário")
+                                    .type(3)
+                                    .required(true)
+                                    .autocomplete(true)
+                                    .build())
+                            .build()
+        );
     }
 
     // Cache estático para choices - evita recriar objetos a cada chamada
@@ -184,14 +238,15 @@ public class DiscordEventHandler {
                     .build()
     );
 
+    // Ação não entra: subtipo e título vêm do fluxo de menus do botão "Iniciar Escala"
     private static final List<ApplicationCommandOptionChoiceData> MISSION_TYPE_CHOICES = List.of(
             ApplicationCommandOptionChoiceData.builder()
                     .name("Patrulhamento")
                     .value("PATROL")
                     .build(),
             ApplicationCommandOptionChoiceData.builder()
-                    .name("Ação")
-                    .value("ACTION")
+                    .name("Outros")
+                    .value("OUTROS")
                     .build()
     );
 
@@ -218,6 +273,13 @@ public class DiscordEventHandler {
         return MISSION_TYPE_CHOICES; // Retorna cache estático para melhor performance
     }
 
+    private static final List<ApplicationCommandOptionChoiceData> LOG_MODE_CHOICES = Arrays.stream(LogMode.values())
+            .map(mode -> (ApplicationCommandOptionChoiceData) ApplicationCommandOptionChoiceData.builder()
+                    .name(mode.getDisplayName())
+                    .value(mode.name())
+                    .build())
+            .toList();
+
     private List<ApplicationCommandOptionChoiceData> createLogChannelChoices() {
         return LOG_CHANNEL_CHOICES; // Retorna cache estático para melhor performance
     }
@@ -228,6 +290,7 @@ public class DiscordEventHandler {
 
         // Registrar atividade para stand-by
         standbyService.recordActivity();
+        readiness.recordInteraction();
         
         // Registrar evento Discord
         performanceMetrics.recordDiscordEvent();
@@ -255,6 +318,18 @@ public class DiscordEventHandler {
                 .withEphemeral(true);
     }
 
+    private Mono<Void> handleAutocomplete(ChatInputAutoCompleteEvent event) {
+        Command command = commandCache.get(event.getCommandName());
+        if (command == null) {
+            return Mono.empty();
+        }
+        return command.autocomplete(event)
+                .onErrorResume(e -> {
+                    log.warn("Erro no autocomplete do comando {}: {}", event.getCommandName(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
     @EventListener
     public void verifyCommands(ApplicationReadyEvent event) {
         log.info("Verificando comandos disponíveis:");
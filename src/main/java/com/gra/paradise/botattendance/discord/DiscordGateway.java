@@ -0,0 +1,101 @@
+package com.gra.paradise.botattendance.discord;
+
+import discord4j.core.GatewayDiscordClient;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+/**
+ * Conexão com o gateway do Discord aberta em segundo plano
+ * O login começa assim que o bean é criado e termina enquanto o resto do contexto (JPA, caches) sobe;
+ * quem precisa do gateway encadeia em {@link #client()}, que só emite depois do login concluído.
+ * Interações que chegarem antes dos handlers inscritos ficam retidas pela barreira e são reentregues
+ * quando {@link #openBarrier()} é chamado.
+ */
+@Slf4j
+public class DiscordGateway {
+
+    private final Mono<GatewayDiscordClient> client;
+    private final Sinks.Empty<Void> barrier;
+    private volatile GatewayDiscordClient connected;
+    private volatile Duration connectTime;
+    private volatile long startNanos;
+    private boolean standIn;
+
+    public DiscordGateway(Mono<GatewayDiscordClient> login) {
+        this(login, Sinks.empty());
+    }
+
+    /**
+     * @param barrier completado por {@link #openBarrier()}; o dispatcher do gateway para de reter eventos quando ele termina
+     */
+    public DiscordGateway(Mono<GatewayDiscordClient> login, Sinks.Empty<Void> barrier) {
+        this.barrier = barrier;
+        this.client = login
+                .doOnNext(gateway -> {
+                    connected = gateway;
+                    if (startNanos != 0) {
+                        connectTime = Duration.ofNanos(System.nanoTime() - startNanos);
+                        log.info("Gateway do Discord conectado em {}ms", connectTime.toMillis());
+                    }
+                })
+                .cache();
+    }
+
+    /**
+     * Gateway que nunca conecta, para rodar o contexto sem Discord (treino do arquivo CDS, benchmark de boot)
+     */
+    public static DiscordGateway standIn() {
+        DiscordGateway gateway = new DiscordGateway(Mono.never());
+        gateway.standIn = true;
+        return gateway;
+    }
+
+    public boolean isStandIn() {
+        return standIn;
+    }
+
+    /**
+     * Dispara o login sem bloquear; falhas aparecem no log e para quem encadear em {@link #client()}
+     */
+    public DiscordGateway start() {
+        startNanos = System.nanoTime();
+        log.info("Conectando ao gateway do Discord em segundo plano");
+        client.subscribe(null, e -> log.error("Falha ao conectar ao gateway do Discord: {}", e.getMessage(), e));
+        return this;
+    }
+
+    /**
+     * Cliente do gateway, emitido quando o login termina (imediatamente se já conectado)
+     */
+    public Mono<GatewayDiscordClient> client() {
+        return client;
+    }
+
+    /**
+     * Libera os eventos retidos; chamado quando todos os handlers de interação estão inscritos
+     */
+    public void openBarrier() {
+        barrier.tryEmitEmpty();
+    }
+
+    public boolean isConnected() {
+        return connected != null;
+    }
+
+    /**
+     * Tempo do login até a sessão pronta, ou null se ainda não conectou
+     */
+    public Duration getConnectTime() {
+        return connectTime;
+    }
+
+    public void shutdown() {
+        GatewayDiscordClient gateway = connected;
+        if (gateway != null) {
+            gateway.logout().block(Duration.ofSeconds(10));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.gra.paradise.botattendance.discord;
+
+import com.gra.paradise.botattendance.service.OtherMissionSuggestionIndex;
+import com.gra.paradise.botattendance.service.UserSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prontidão do bot para o actuator (grupo readiness, contribuidor "discordReadiness")
+ * Pronto é gateway conectado, handlers de interação inscritos e índices em memória carregados; o contexto
+ * Spring subir não basta, já que o login corre em paralelo com o JPA. Também registra, desde o início da
+ * JVM, quanto tempo levou até aceitar interações e até a primeira interação de fato chegar.
+ */
+@Slf4j
+@Component
+public class DiscordReadinessHealthIndicator implements HealthIndicator {
+
+    private final DiscordGateway gateway;
+    private final UserSearchIndex userSearchIndex;
+    private final OtherMissionSuggestionIndex missionSuggestions;
+    private final Timer readyTime;
+    private final Timer firstInteractionTime;
+    private final AtomicBoolean firstInteraction = new AtomicBoolean();
+    private volatile boolean handlersSubscribed;
+
+    public DiscordReadinessHealthIndicator(DiscordGateway gateway,
+                                           UserSearchIndex userSearchIndex,
+                                           OtherMissionSuggestionIndex missionSuggestions,
+                                           MeterRegistry meterRegistry) {
+        this.gateway = gateway;
+        this.userSearchIndex = userSearchIndex;
+        this.missionSuggestions = missionSuggestions;
+        this.readyTime = Timer.builder("discord.startup.ready")
+                .description("Time from JVM start until interaction handlers were subscribed on a connected gateway")
+                .register(meterRegistry);
+        this.firstInteractionTime = Timer.builder("discord.startup.first_interaction")
+                .description("Time from JVM start until the first interaction was received")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Chamado pelo {@link DiscordEventHandler} quando os handlers estão inscritos no gateway conectado
+     */
+    public void markHandlersSubscribed() {
+        handlersSubscribed = true;
+        Duration uptime = uptime();
+        readyTime.record(uptime);
+        log.info("Bot pronto para interações {}ms após o início da JVM (gateway conectado em {}ms)",
+                uptime.toMillis(), gateway.getConnectTime() != null ? gateway.getConnectTime().toMillis() : -1);
+    }
+
+    /**
+     * Chamado a cada interação recebida; só a primeira é medida
+     */
+    public void recordInteraction() {
+        if (!firstInteraction.get() && firstInteraction.compareAndSet(false, true)) {
+            Duration uptime = uptime();
+            firstInteractionTime.record(uptime);
+            log.info("Primeira interação recebida {}ms após o início da JVM", uptime.toMillis());
+        }
+    }
+
+    @Override
+    public Health health() {
+        boolean connected = gateway.isConnected();
+        boolean usersLoaded = userSearchIndex.isLoaded();
+        boolean suggestionsLoaded = missionSuggestions.isLoaded();
+        Health.Builder builder = connected && handlersSubscribed && usersLoaded && suggestionsLoaded
+                ? Health.up()
+                : Health.outOfService();
+        builder.withDetail("gatewayConnected", connected)
+                .withDetail("handlersSubscribed", handlersSubscribed)
+                .withDetail("userSearchIndexLoaded", usersLoaded)
+                .withDetail("missionSuggestionsLoaded", suggestionsLoaded);
+        if (gateway.getConnectTime() != null) {
+            builder.withDetail("gatewayConnectMs", gateway.getConnectTime().toMillis());
+        }
+        return builder.build();
+    }
+
+    private static Duration uptime() {
+        return Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+}
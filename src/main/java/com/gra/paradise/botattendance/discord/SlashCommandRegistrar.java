@@ -0,0 +1,169 @@
+package com.gra.paradise.botattendance.discord;
+
+import discord4j.discordjson.json.ApplicationCommandData;
+import discord4j.discordjson.json.ApplicationCommandOptionChoiceData;
+import discord4j.discordjson.json.ApplicationCommandOptionData;
+import discord4j.discordjson.json.ApplicationCommandRequest;
+import discord4j.discordjson.possible.Possible;
+import discord4j.rest.RestClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Registro dos slash commands só quando a definição muda
+ * As definições desejadas e as já registradas no Discord (buscadas uma vez por destino) são reduzidas a
+ * uma forma canônica e comparadas por hash SHA-256; o bulk overwrite, que dispara a propagação dos
+ * comandos globais, só é chamado se os hashes diferirem. Com {@code discord.commands.guild-ids}
+ * configurado o registro é feito em cada guilda (vale na hora) e os comandos globais são esvaziados
+ * para não aparecerem duplicados.
+ */
+@Slf4j
+@Component
+public class SlashCommandRegistrar {
+
+    private static final int CHAT_INPUT = 1;
+
+    private final RestClient restClient;
+    private final MeterRegistry meterRegistry;
+    private final List<String> guildIds;
+
+    public SlashCommandRegistrar(RestClient restClient,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${discord.commands.guild-ids:}") List<String> guildIds) {
+        this.restClient = restClient;
+        this.meterRegistry = meterRegistry;
+        this.guildIds = guildIds.stream().map(String::trim).filter(id -> !id.isEmpty()).toList();
+    }
+
+    /**
+     * Sincroniza os comandos registrados com {@code commands}
+     */
+    public Mono<Void> sync(List<ApplicationCommandRequest> commands) {
+        return restClient.getApplicationId().flatMap(applicationId -> {
+            if (guildIds.isEmpty()) {
+                return syncTarget("global", commands,
+                        restClient.getApplicationService().getGlobalApplicationCommands(applicationId),
+                        requests -> restClient.getApplicationService().bulkOverwriteGlobalApplicationCommand(applicationId, requests));
+            }
+            return Flux.fromIterable(guildIds)
+                    .concatMap(guildId -> syncTarget("guild " + guildId, commands,
+                            restClient.getApplicationService().getGuildApplicationCommands(applicationId, Long.parseLong(guildId)),
+                            requests -> restClient.getApplicationService()
+                                    .bulkOverwriteGuildApplicationCommand(applicationId, Long.parseLong(guildId), requests)))
+                    .then(syncTarget("global", List.of(),
+                            restClient.getApplicationService().getGlobalApplicationCommands(applicationId),
+                            requests -> restClient.getApplicationService().bulkOverwriteGlobalApplicationCommand(applicationId, requests)));
+        });
+    }
+
+    private Mono<Void> syncTarget(String target,
+                                  List<ApplicationCommandRequest> commands,
+                                  Flux<ApplicationCommandData> registered,
+                                  Function<List<ApplicationCommandRequest>, Flux<ApplicationCommandData>> overwrite) {
+        String desired = hash(commands.stream().map(SlashCommandRegistrar::canonical));
+        return registered.map(SlashCommandRegistrar::canonical)
+                .collectList()
+                .flatMap(current -> {
+                    String actual = hash(current.stream());
+                    if (desired.equals(actual)) {
+                        log.info("Comandos ({}) já atualizados, registro ignorado [{}]", target, desired.substring(0, 12));
+                        count("unchanged");
+                        return Mono.empty();
+                    }
+                    log.info("Comandos ({}) mudaram [{} -> {}], registrando {} comandos",
+                            target, actual.substring(0, 12), desired.substring(0, 12), commands.size());
+                    return overwrite.apply(commands)
+                            .doOnNext(command -> log.info("Comando registrado ({}): {}", target, command.name()))
+                            .then()
+                            .doOnSuccess(v -> count("overwritten"));
+                });
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("discord.commands.sync", "result", result).increment();
+    }
+
+    /**
+     * Hash independente da ordem dos comandos
+     */
+    static String hash(Stream<String> canonicalCommands) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            canonicalCommands.sorted().forEach(command -> {
+                digest.update(command.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            });
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    static String canonical(ApplicationCommandRequest request) {
+        return canonical(request.name(), request.description().toOptional().orElse(""),
+                request.type().toOptional().orElse(CHAT_INPUT), request.dmPermission(),
+                request.defaultMemberPermissions(), request.options());
+    }
+
+    static String canonical(ApplicationCommandData data) {
+        return canonical(data.name(), data.description(), data.type().toOptional().orElse(CHAT_INPUT),
+                data.dmPermission(), data.defaultMemberPermissions(), data.options());
+    }
+
+    // Campos com prefixo de tamanho: nenhum texto de descrição consegue imitar outro campo.
+    // Ausente e valor padrão do Discord viram a mesma coisa, já que a resposta da API os preenche.
+    private static String canonical(String name, String description, int type, Possible<Boolean> dmPermission,
+                                    Optional<String> defaultMemberPermissions, Possible<List<ApplicationCommandOptionData>> options) {
+        StringBuilder sb = new StringBuilder();
+        field(sb, name);
+        field(sb, description);
+        field(sb, type);
+        field(sb, dmPermission.toOptional().orElse(true));
+        field(sb, defaultMemberPermissions.orElse(""));
+        options(sb, options);
+        return sb.toString();
+    }
+
+    private static void options(StringBuilder sb, Possible<List<ApplicationCommandOptionData>> options) {
+        List<ApplicationCommandOptionData> list = options.toOptional().orElse(List.of());
+        sb.append('[');
+        for (ApplicationCommandOptionData option : list) {
+            field(sb, option.type());
+            field(sb, option.name());
+            field(sb, option.description());
+            field(sb, option.required().toOptional().orElse(false));
+            field(sb, option.autocomplete().toOptional().orElse(false));
+            field(sb, option.minLength().toOptional().map(String::valueOf).orElse(""));
+            field(sb, option.maxLength().toOptional().map(String::valueOf).orElse(""));
+            field(sb, option.minValue().toOptional().map(String::valueOf).orElse(""));
+            field(sb, option.maxValue().toOptional().map(String::valueOf).orElse(""));
+            field(sb, option.channelTypes().toOptional().map(String::valueOf).orElse(""));
+            sb.append('{');
+            for (ApplicationCommandOptionChoiceData choice : option.choices().toOptional().orElse(List.of())) {
+                field(sb, choice.name());
+                field(sb, String.valueOf(choice.value()));
+            }
+            sb.append('}');
+            options(sb, option.options());
+        }
+        sb.append(']');
+    }
+
+    private static void field(StringBuilder sb, Object value) {
+        String text = String.valueOf(value);
+        sb.append(text.length()).append(':').append(text);
+    }
+}
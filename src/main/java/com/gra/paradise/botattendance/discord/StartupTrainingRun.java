@@ -0,0 +1,136 @@
+package com.gra.paradise.botattendance.discord;
+
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.model.MissionType;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.service.EmbedFactory;
+import com.gra.paradise.botattendance.service.OtherMissionSuggestionIndex;
+import com.gra.paradise.botattendance.service.ScheduleManager;
+import com.gra.paradise.botattendance.service.UserSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Execução de treino do arquivo AppCDS (perfil "training", ver perfil Maven fast-startup)
+ * Com {@code startup.training=true} o bot sobe contra o gateway stand-in e o H2 em memória, passa
+ * pelos caminhos dos handlers que não dependem da rede (definição e hash dos comandos, embeds,
+ * índices de autocomplete, consultas JPA), registra tempo até pronto e RSS e encerra a JVM, que
+ * grava as classes carregadas no arquivo. O benchmark de boot usa a mesma linha de log, e o smoke test
+ * da imagem nativa (perfil Maven native) usa a mesma execução: código de saída diferente de zero é falha.
+ */
+@Slf4j
+@Component
+public class StartupTrainingRun {
+
+    private static final String GUILD_ID = "training";
+
+    private final DiscordEventHandler eventHandler;
+    private final EmbedFactory embedFactory;
+    private final UserSearchIndex userSearchIndex;
+    private final OtherMissionSuggestionIndex missionSuggestions;
+    private final ScheduleManager scheduleManager;
+    private final boolean enabled;
+
+    // Ligado por propriedade, não por @Profile: com AOT os perfis de bean ficam congelados no build
+    public StartupTrainingRun(DiscordEventHandler eventHandler,
+                              EmbedFactory embedFactory,
+                              UserSearchIndex userSearchIndex,
+                              OtherMissionSuggestionIndex missionSuggestions,
+                              ScheduleManager scheduleManager,
+                              @Value("${startup.training:false}") boolean enabled) {
+        this.eventHandler = eventHandler;
+        this.embedFactory = embedFactory;
+        this.userSearchIndex = userSearchIndex;
+        this.missionSuggestions = missionSuggestions;
+        this.scheduleManager = scheduleManager;
+        this.enabled = enabled;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        int exitCode = 0;
+        try {
+            exercise();
+        } catch (RuntimeException e) {
+            log.error("Erro na execução de treino: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+        log.info("Treino de inicialização: pronto em {}ms, RSS {}MB", readyMillis, rssMegabytes());
+        int code = exitCode;
+        System.exit(SpringApplication.exit(event.getApplicationContext(), () -> code));
+    }
+
+    private void exercise() {
+        SlashCommandRegistrar.hash(eventHandler.commandDefinitions().stream().map(SlashCommandRegistrar::canonical));
+
+        embedFactory.createSystemOverviewEmbed();
+        embedFactory.createAircraftSelectionEmbed();
+        for (MissionType missionType : MissionType.values()) {
+            embedFactory.createSchedulePublicEmbed(schedule(missionType), List.of("Tripulante"));
+        }
+
+        awaitIndexes();
+        userSearchIndex.upsert("0", "treino", "Treino");
+        userSearchIndex.search("tre", 25);
+        missionSuggestions.record("Escolta de treino", Instant.now());
+        missionSuggestions.suggest("esc", 25);
+
+        scheduleManager.getActiveSchedules(GUILD_ID);
+        scheduleManager.generateNextGraTitle(GUILD_ID);
+    }
+
+    private void awaitIndexes() {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!(userSearchIndex.isLoaded() && missionSuggestions.isLoaded()) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static Schedule schedule(MissionType missionType) {
+        Schedule schedule = new Schedule();
+        schedule.setGuildId(GUILD_ID);
+        schedule.setTitle("G.R.A - 1");
+        schedule.setAircraftType(AircraftType.EC135);
+        schedule.setMissionType(missionType);
+        schedule.setCreatedByUsername("Treino");
+        schedule.setStartTime(Instant.now());
+        schedule.setActive(true);
+        return schedule;
+    }
+
+    private static long rssMegabytes() {
+        // Linux: VmRSS em kB; fora dele o benchmark mede por fora
+        try {
+            return Files.readAllLines(Path.of("/proc/self/status")).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")) / 1024)
+                    .findFirst()
+                    .orElse(-1L);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.gra.paradise.botattendance.discord.buttons;
 
+import com.gra.paradise.botattendance.service.ScheduleAutoCloseService;
 import discord4j.core.event.domain.interaction.ButtonInteractionEvent;
 import discord4j.core.event.domain.interaction.ModalSubmitInteractionEvent;
 import discord4j.core.event.domain.interaction.SelectMenuInteractionEvent;
@@ -44,6 +45,8 @@ public class ButtonDispatcher {
             return actionHandler.handleLeaveSchedule(event);
         } else if (customId.startsWith("end_schedule:")) {
             return actionHandler.handleEndSchedule(event);
+        } else if (customId.startsWith(ScheduleAutoCloseService.KEEP_PREFIX)) {
+            return actionHandler.handleKeepSchedule(event);
         }
 
         log.warn("Botão não reconhecido: {} para usuário {}", customId, event.getInteraction().getUser().getId().asString());
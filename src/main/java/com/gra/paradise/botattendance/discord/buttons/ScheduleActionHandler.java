@@ -1,30 +1,32 @@
 package com.gra.paradise.botattendance.discord.buttons;
 
+import com.gra.paradise.botattendance.discord.rest.DiscordMessageOps;
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.discord.rest.RestLane;
 import com.gra.paradise.botattendance.exception.*;
 import com.gra.paradise.botattendance.model.Schedule;
 import com.gra.paradise.botattendance.service.EmbedFactory;
+import com.gra.paradise.botattendance.service.GuildMemberDirectory;
+import com.gra.paradise.botattendance.service.ScheduleAutoCloseService;
 import com.gra.paradise.botattendance.service.ScheduleLogManager;
 import com.gra.paradise.botattendance.service.ScheduleManager;
 import com.gra.paradise.botattendance.service.ScheduleMessageManager;
+import com.gra.paradise.botattendance.service.SqlAccountingService;
 import discord4j.common.util.Snowflake;
-import discord4j.core.GatewayDiscordClient;
 import discord4j.core.event.domain.interaction.ButtonInteractionEvent;
 import discord4j.core.object.component.ActionRow;
 import discord4j.core.object.component.Button;
-import discord4j.core.object.entity.channel.MessageChannel;
+import discord4j.core.object.entity.Message;
 import discord4j.core.spec.EmbedCreateSpec;
 import discord4j.core.spec.InteractionCallbackSpec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 @Slf4j
 @Component
@@ -35,7 +37,12 @@ public class ScheduleActionHandler {
     private final EmbedFactory embedFactory;
     private final ScheduleMessageManager scheduleMessageManager;
     private final ScheduleLogManager scheduleLogManager;
-    private final GatewayDiscordClient gateway;
+    private final GuildMemberDirectory memberDirectory;
+    private final SqlAccountingService sqlAccounting;
+    private final DiscordRestScheduler restScheduler;
+    private final DiscordMessageOps messageOps;
+    private final ScheduleAutoCloseService autoClose;
+    private final Scheduler blockingScheduler;
 
 
     private static final String BOARD_PREFIX = "board_schedule:";
@@ -69,14 +76,14 @@ public class ScheduleActionHandler {
         String userId = getUserId(event);
         String username = getUsername(event);
 
-        return event.deferReply(InteractionCallbackSpec.builder().ephemeral(true).build())
+        return deferEphemeral(event)
                 .then(Mono.fromCallable(() -> scheduleManager.findByIdAndGuildId(scheduleId, guildId).orElse(null))
-                        .subscribeOn(Schedulers.boundedElastic()))
+                        .subscribeOn(blockingScheduler))
                 .flatMap(schedule -> {
                     if (schedule == null || !schedule.isActive()) {
                         log.warn("Escala {} inexistente ou inativa.", scheduleId);
                         return disableButtonsAndRemoveMessage(event, scheduleId, guildId)
-                                .then(event.editReply("❌ A escala com ID " + scheduleId + " não está disponível."));
+                                .then(reply(event, "❌ A escala com ID " + scheduleId + " não está disponível."));
                     }
 
                     return Mono.justOrEmpty(event.getInteraction().getMember())
@@ -85,38 +92,64 @@ public class ScheduleActionHandler {
                             .flatMap(nickname ->
                                     processEndSchedule(guildId, scheduleId, userId, nickname)
                                             .flatMap(result ->
-                                                    disableButtonsAndRemoveMessage(event, scheduleId, guildId)
-                                                            .then(scheduleLogManager.createFinalScheduleLogMessage(
-                                                                    guildId, result.schedule.getId(), result.schedule.getTitle(),
-                                                                    result.schedule.getAircraftType(), result.schedule.getMissionType(),
-                                                                    result.schedule.getActionSubType(), result.schedule.getActionOption(),
-                                                                    result.schedule.getStartTime(), result.schedule.getEndTime(),
-                                                                    result.schedule.getCreatedByUsername(), nickname, result.crewNicknames))
-                                                            .then(scheduleMessageManager.updateSystemMessage(guildId))
-                                                            .then(event.editReply("Escala encerrada com sucesso!"))
+                                                    // Resposta primeiro: as edições públicas e de log vão para filas de menor prioridade
+                                                    reply(event, "Escala encerrada com sucesso!")
+                                                            // O log final (e o relatório) já sai no closeSchedule
+                                                            .flatMap(reply -> disableButtonsAndRemoveMessage(event, scheduleId, guildId)
+                                                                    .then(Mono.defer(() -> scheduleMessageManager.updateSystemMessage(guildId)))
+                                                                    .thenReturn(reply))
                                             )
                             );
                 })
                 .onErrorResume(e -> {
                     log.error("Erro ao encerrar escala {}: {}", scheduleId, e.getMessage(), e);
                     if (e instanceof OnlyCreatorCanCloseScheduleException) {
-                        return event.editReply("❌ Somente o criador pode encerrar a escala.");
+                        return reply(event, "❌ Somente o criador pode encerrar a escala.");
                     } else if (e instanceof ScheduleAlreadyClosedException) {
-                        return event.editReply("❌ Esta escala já foi encerrada.");
+                        return reply(event, "❌ Esta escala já foi encerrada.");
                     } else if (e instanceof ScheduleNotFoundException) {
-                        return event.editReply("❌ Escala não encontrada.");
+                        return reply(event, "❌ Escala não encontrada.");
                     } else {
-                        return event.editReply(String.format(ERROR_UNEXPECTED, "encerrar a escala"));
+                        return reply(event, String.format(ERROR_UNEXPECTED, "encerrar a escala"));
                     }
                 })
                 .then();
     }
 
 
+    /**
+     * Botão do lembrete de inatividade: renova o prazo de encerramento automático da escala
+     */
+    public Mono<Void> handleKeepSchedule(ButtonInteractionEvent event) {
+        Long scheduleId = parseScheduleId(event.getCustomId(), ScheduleAutoCloseService.KEEP_PREFIX);
+        if (scheduleId == null) return replyError(event, ERROR_INVALID_ID);
+
+        String guildId = getGuildId(event);
+
+        return deferEphemeral(event)
+                .then(Mono.fromCallable(() -> scheduleManager.findByIdAndGuildId(scheduleId, guildId).orElse(null))
+                        .subscribeOn(blockingScheduler))
+                .flatMap(schedule -> {
+                    if (!schedule.isActive()) {
+                        return reply(event, "❌ Esta escala já foi encerrada.");
+                    }
+                    autoClose.touch(guildId, scheduleId);
+                    return reply(event, String.format("✅ Escala mantida aberta. Ela será encerrada após %d horas sem atividade.",
+                            autoClose.getInactivity().toHours()));
+                })
+                .switchIfEmpty(Mono.defer(() -> reply(event, "❌ A escala com ID " + scheduleId + " não está disponível.")))
+                .onErrorResume(e -> {
+                    log.error("Erro ao manter escala {} aberta: {}", scheduleId, e.getMessage(), e);
+                    return reply(event, String.format(ERROR_UNEXPECTED, "manter a escala aberta"));
+                })
+                .then();
+    }
+
     private Mono<ScheduleActionResult> processEndSchedule(String guildId, Long scheduleId, String userId, String nickname) {
-        return Mono.fromCallable(() -> scheduleManager.closeSchedule(guildId, scheduleId, userId, nickname))
-                .subscribeOn(Schedulers.boundedElastic())
-                .flatMap(schedule -> getCrewNicknamesWithLiveLookup(schedule, gateway, guildId)
+        return Mono.fromCallable(() -> sqlAccounting.measure("end_schedule",
+                        () -> scheduleManager.closeSchedule(guildId, scheduleId, userId, nickname)))
+                .subscribeOn(blockingScheduler)
+                .flatMap(schedule -> getCrewNicknames(schedule, guildId)
                         .map(nicknames -> new ScheduleActionResult(schedule, nicknames)));
     }
 
@@ -134,14 +167,15 @@ public class ScheduleActionHandler {
         String userId = getUserId(event);
         String username = getUsername(event);
 
-        return event.deferReply(InteractionCallbackSpec.builder().ephemeral(true).build())
+        return deferEphemeral(event)
                 .then(
                         Mono.justOrEmpty(event.getInteraction().getMember())
+                                .doOnNext(memberDirectory::remember)
                                 .flatMap(member -> Mono.justOrEmpty(member.getNickname())
                                         .defaultIfEmpty(member.getUsername()))
                                 .defaultIfEmpty(username)
                 )
-                .flatMap(nickname -> Mono.fromCallable(() -> {
+                .flatMap(nickname -> Mono.fromCallable(() -> sqlAccounting.measure(routeOf(prefix), () -> {
                             Schedule schedule = scheduleManager.findByIdAndGuildId(scheduleId, guildId)
                                     .orElseThrow();
 
@@ -151,10 +185,10 @@ public class ScheduleActionHandler {
                             return prefix.equals(BOARD_PREFIX)
                                             ? scheduleManager.addCrewMember(guildId, scheduleId, userId, username, nickname)
                                             : scheduleManager.removeCrewMember(guildId, scheduleId, userId, nickname);
-                                })
-                                .subscribeOn(Schedulers.boundedElastic())
+                                }))
+                                .subscribeOn(blockingScheduler)
                                 .flatMap(schedule ->
-                                        getCrewNicknamesWithLiveLookup(schedule, gateway, guildId)
+                                        getCrewNicknames(schedule, guildId)
                                                 .flatMap(nicknames -> {
                                                     EmbedCreateSpec embed = embedFactory.createSchedulePublicEmbed(schedule, nicknames);
 
@@ -164,15 +198,22 @@ public class ScheduleActionHandler {
                                                             Button.secondary(END_PREFIX + schedule.getId(), "Encerrar Escala").disabled(!schedule.isActive())
                                                     );
 
-                                                    return scheduleLogManager.updateScheduleLogMessage(guildId, schedule, "Usuário " + nickname + " " + logAction)
-                                                            .then(scheduleMessageManager.updateScheduleMessage(String.valueOf(schedule.getId()), nicknames))
-                                                            .then(Mono.justOrEmpty(event.getMessage())
-                                                                    .flatMap(m -> m.edit().withEmbeds(embed).withComponents(buttons))
-                                                                    .onErrorResume(e -> {
-                                                                        log.warn("Erro ao atualizar mensagem: {}", e.getMessage());
-                                                                        return Mono.empty();
-                                                                    }))
-                                                            .then(event.editReply(action + " realizado com sucesso!"));
+                                                    // Resposta primeiro: as edições públicas e de log vão para filas de menor prioridade.
+                                                    // O log lê o histórico no banco: sai da thread do REST para o pool bloqueante
+                                                    return reply(event, action + " realizado com sucesso!")
+                                                            .flatMap(reply -> Mono.defer(() -> scheduleLogManager.updateScheduleLogMessage(guildId, schedule, "Usuário " + nickname + " " + logAction))
+                                                                    .subscribeOn(blockingScheduler)
+                                                                    .then(Mono.defer(() -> scheduleMessageManager.updateScheduleMessage(String.valueOf(schedule.getId()), nicknames)))
+                                                                    .then(Mono.justOrEmpty(event.getMessage())
+                                                                            .flatMap(m -> restScheduler.submit(RestLane.PUBLIC_EMBED,
+                                                                                    DiscordRestScheduler.channelMessagesRoute(m.getChannelId().asString()),
+                                                                                    ScheduleMessageManager.embedSupersedeKey(String.valueOf(schedule.getId())),
+                                                                                    m.edit().withEmbeds(embed).withComponents(buttons)))
+                                                                            .onErrorResume(e -> {
+                                                                                log.warn("Erro ao atualizar mensagem: {}", e.getMessage());
+                                                                                return Mono.empty();
+                                                                            }))
+                                                                    .thenReturn(reply));
                                                 })
                                 )
                 )
@@ -180,21 +221,21 @@ public class ScheduleActionHandler {
                     log.error("Erro ao realizar {} na escala {}: {}", action, scheduleId, e.getMessage(), e);
 
                     if (e instanceof UserNotBoardedException) {
-                        return event.editReply("❌ Você não está embarcado nesta escala.");
+                        return reply(event, "❌ Você não está embarcado nesta escala.");
                     } else if (e instanceof CreatorCannotLeaveException) {
-                        return event.editReply("❌ O criador da escala não pode desembarcar.");
+                        return reply(event, "❌ O criador da escala não pode desembarcar.");
                     } else if (e instanceof IllegalStateException && e.getMessage().contains("Criador")) {
-                        return event.editReply("❌ O criador da escala não pode desembarcar.");
+                        return reply(event, "❌ O criador da escala não pode desembarcar.");
                     } else if (e instanceof IllegalStateException && e.getMessage().contains("encerrar")) {
-                        return event.editReply("❌ Somente o criador pode encerrar a escala.");
+                        return reply(event, "❌ Somente o criador pode encerrar a escala.");
                     } else if (e instanceof OnlyCreatorCanCloseScheduleException) {
-                        return event.editReply("❌ Somente o criador pode encerrar a escala.");
+                        return reply(event, "❌ Somente o criador pode encerrar a escala.");
                     } else if (e instanceof PilotCannotBeCrewException) {
-                        return event.editReply("❌ O piloto não pode ser tripulante.");
+                        return reply(event, "❌ O piloto não pode ser tripulante.");
                     } else if (e instanceof UserAlreadyBoardedException) {
-                        return event.editReply("❌ Você já está embarcado nesta escala.");
+                        return reply(event, "❌ Você já está embarcado nesta escala.");
                     } else {
-                        return event.editReply(String.format(ERROR_UNEXPECTED, action.toLowerCase()));
+                        return reply(event, String.format(ERROR_UNEXPECTED, action.toLowerCase()));
                     }
                 })
                 .then();
@@ -210,6 +251,10 @@ public class ScheduleActionHandler {
         }
     }
 
+    private String routeOf(String prefix) {
+        return prefix.substring(0, prefix.length() - 1);
+    }
+
     private String getGuildId(ButtonInteractionEvent event) {
         return event.getInteraction().getGuildId().map(Snowflake::asString)
                 .orElseThrow(() -> new IllegalStateException("Comando deve ser usado em servidor"));
@@ -227,13 +272,8 @@ public class ScheduleActionHandler {
         return Mono.justOrEmpty(scheduleManager.findByIdAndGuildId(scheduleId, guildId))
                 .flatMap(schedule -> Mono.justOrEmpty(schedule.getChannelId())
                         .flatMap(channelId -> Mono.justOrEmpty(schedule.getMessageId())
-                                .flatMap(messageId -> event.getClient().getChannelById(Snowflake.of(channelId))
-                                        .ofType(MessageChannel.class)
-                                        .flatMap(channel -> channel.getMessageById(Snowflake.of(messageId))
-                                                .flatMap(message -> message.delete()
-                                                        .then(Mono.empty())
-                                                )
-                                        )
+                                .flatMap(messageId -> restScheduler.submit(RestLane.PUBLIC_EMBED, DiscordRestScheduler.channelMessagesRoute(channelId),
+                                                messageOps.delete(channelId, messageId, "Escala encerrada"))
                                         .onErrorResume(e -> {
                                             log.warn("Erro ao excluir mensagem da escala {}: {}", scheduleId, e.getMessage());
                                             return Mono.empty();
@@ -248,27 +288,18 @@ public class ScheduleActionHandler {
                 });
     }
 
-    public Mono<List<String>> getCrewNicknamesWithLiveLookup(Schedule schedule, GatewayDiscordClient gateway, String guildId) {
-        if (schedule.getInitializedCrewMembers() == null || schedule.getInitializedCrewMembers().isEmpty()) {
-            return Mono.just(Collections.emptyList());
-        }
-
-        Snowflake guildSnowflake = Snowflake.of(guildId);
-
-        List<Mono<String>> nicknameMonos = schedule.getInitializedCrewMembers().stream()
-                .map(user -> gateway.getGuildById(guildSnowflake)
-                        .flatMap(guild -> guild.getMemberById(Snowflake.of(user.getDiscordId())))
-                        .map(member -> member.getNickname().orElse(member.getUsername())) // extrai nickname ou username do Member
-                        .defaultIfEmpty(Optional.ofNullable(user.getNickname()).orElse(user.getUsername())) // caso Member não encontrado
-                        .onErrorResume(e -> Mono.just(Optional.ofNullable(user.getNickname()).orElse(user.getUsername()))) // fallback em erro
-                )
-                .toList();
-
-        return Flux.merge(nicknameMonos).collectList();
+    public Mono<List<String>> getCrewNicknames(Schedule schedule, String guildId) {
+        return memberDirectory.resolveDisplayNames(guildId, schedule.getInitializedCrewMembers());
     }
 
+    private Mono<Void> deferEphemeral(ButtonInteractionEvent event) {
+        return restScheduler.submit(RestLane.INTERACTION, DiscordRestScheduler.INTERACTIONS_ROUTE,
+                event.deferReply(InteractionCallbackSpec.builder().ephemeral(true).build()));
+    }
 
-
+    private Mono<Message> reply(ButtonInteractionEvent event, String content) {
+        return restScheduler.submit(RestLane.INTERACTION, DiscordRestScheduler.INTERACTIONS_ROUTE, event.editReply(content));
+    }
 
     private Mono<Void> replyError(ButtonInteractionEvent event, String message) {
         return event.createFollowup(message).withEphemeral(true).then();
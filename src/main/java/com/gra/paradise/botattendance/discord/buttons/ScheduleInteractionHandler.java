@@ -8,6 +8,8 @@ import com.gra.paradise.botattendance.service.EmbedFactory;
 import com.gra.paradise.botattendance.service.ScheduleManager;
 import com.gra.paradise.botattendance.service.ScheduleMessageManager;
 import com.gra.paradise.botattendance.service.ScheduleMessagePublisher;
+import com.gra.paradise.botattendance.service.SqlAccountingService;
+import com.gra.paradise.botattendance.service.TimerService;
 import discord4j.common.util.Snowflake;
 import discord4j.core.event.domain.interaction.ButtonInteractionEvent;
 import discord4j.core.event.domain.interaction.SelectMenuInteractionEvent;
@@ -24,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -32,9 +35,6 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.Arrays;
 import java.util.ArrayList;
@@ -48,37 +48,14 @@ public class ScheduleInteractionHandler {
     private final ScheduleMessageManager scheduleMessageManager;
     private final EmbedFactory embedFactory;
     private final ScheduleMessagePublisher messagePublisher;
+    private final SqlAccountingService sqlAccounting;
+    private final TimerService timerService;
 
-    // Cache com TTL para evitar memory leak - auto cleanup após 10 minutos
+    // Descrições de OUTROS entre o modal e a confirmação; cada sessão expira sozinha na roda de tempo
+    private static final Duration SESSION_TTL = Duration.ofMinutes(10);
     private final Map<String, CacheEntry> outrosDescriptionCache = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService cacheCleanupExecutor = Executors.newScheduledThreadPool(1);
 
-    // Classe interna para cache entry com timestamp para TTL
-    private static class CacheEntry {
-        final String description;
-        final long timestamp;
-        
-        CacheEntry(String description) {
-            this.description = description;
-            this.timestamp = System.currentTimeMillis();
-        }
-        
-        boolean isExpired(long ttlMs) {
-            return System.currentTimeMillis() - timestamp > ttlMs;
-        }
-    }
-
-    // Cleanup automático do cache a cada 5 minutos
-    {
-        cacheCleanupExecutor.scheduleWithFixedDelay(this::cleanupExpiredCacheEntries, 
-                5, 5, TimeUnit.MINUTES);
-    }
-
-    private void cleanupExpiredCacheEntries() {
-        long ttl = TimeUnit.MINUTES.toMillis(10); // TTL de 10 minutos
-        outrosDescriptionCache.entrySet().removeIf(entry -> 
-                entry.getValue().isExpired(ttl));
-        log.debug("Cache cleanup executado. Entradas restantes: {}", outrosDescriptionCache.size());
+    private record CacheEntry(String description) {
     }
 
     private static final List<String> FUGA_OPTIONS = List.of(
@@ -353,7 +330,9 @@ public class ScheduleInteractionHandler {
         if (existing != null) {
             log.warn("Conflito de sessionId {} para usuário {}. Limpando cache antigo.", sessionId, event.getInteraction().getUser().getId().asString());
         }
-        outrosDescriptionCache.put(sessionId, new CacheEntry(description));
+        CacheEntry entry = new CacheEntry(description);
+        outrosDescriptionCache.put(sessionId, entry);
+        timerService.schedule("wizard-session-expiry", SESSION_TTL, () -> outrosDescriptionCache.remove(sessionId, entry));
 
         Button confirmButton = Button.success("confirm_schedule:" + aircraftTypeStr + ":OUTROS:" + title + ":" + sessionId, "Confirmar");
         Button cancelButton = Button.danger("cancel_schedule", "Cancelar");
@@ -525,7 +504,7 @@ public class ScheduleInteractionHandler {
         } else if (missionTypeStr.equals("OUTROS") && parts.length == 5) {
             String sessionId = parts[4];
             CacheEntry cacheEntry = outrosDescriptionCache.get(sessionId);
-            actionOption = cacheEntry != null ? cacheEntry.description : null;
+            actionOption = cacheEntry != null ? cacheEntry.description() : null;
             if (actionOption == null || actionOption.trim().isEmpty()) {
                 log.error("Descrição não encontrada ou inválida para sessionId {} para usuário {}. Cache: {}", sessionId, event.getInteraction().getUser().getId().asString(), outrosDescriptionCache.size());
                 return event.createFollowup("❌ Descrição da missão OUTROS não encontrada ou inválida. Reinicie o processo.").withEphemeral(true).then();
@@ -576,7 +555,8 @@ public class ScheduleInteractionHandler {
 
         return event.deferEdit()
                 .then(event.deleteReply())
-                .then(Mono.fromCallable(() -> scheduleService.createSchedule(guildId, title, aircraftType, missionType, userId, nickname, finalActionSubType, finalActionOption)))
+                .then(Mono.fromCallable(() -> sqlAccounting.measure("create_schedule",
+                        () -> scheduleService.createSchedule(guildId, title, aircraftType, missionType, userId, nickname, finalActionSubType, finalActionOption))))
                 .doOnSuccess(schedule -> log.info("Escala criada com sucesso para scheduleId: {}", schedule.getId()))
                 .doOnError(e -> log.error("Erro ao criar escala: {}", e.getMessage(), e))
                 .flatMap(schedule -> messagePublisher.createSchedulePublicMessage(event, schedule)
@@ -637,7 +617,8 @@ public class ScheduleInteractionHandler {
                 .map(Snowflake::asString)
                 .orElseThrow(() -> new IllegalStateException("Comando deve ser executado em um servidor"));
 
-        return Mono.fromCallable(() -> scheduleService.addCrewMember(guildId, scheduleId, userId, username, nickname))
+        return Mono.fromCallable(() -> sqlAccounting.measure("board_schedule",
+                        () -> scheduleService.addCrewMember(guildId, scheduleId, userId, username, nickname)))
                 .flatMap(schedule -> scheduleMessageManager.updateScheduleMessage(String.valueOf(schedule.getId()), schedule.getCrewMembers().stream().map(User::getNickname).toList()))
                 .then(event.createFollowup("✅ Você embarcou na escala com sucesso! (Hora: " + LocalDateTime.now(ZoneId.of("America/Fortaleza")).format(DATE_TIME_FORMATTER) + ")").withEphemeral(true))
                 .onErrorResume(e -> {
@@ -681,7 +662,8 @@ public class ScheduleInteractionHandler {
                 .map(Snowflake::asString)
                 .orElseThrow(() -> new IllegalStateException("Comando deve ser executado em um servidor"));
 
-        return Mono.fromCallable(() -> scheduleService.removeCrewMember(guildId, scheduleId, userId, nickname))
+        return Mono.fromCallable(() -> sqlAccounting.measure("leave_schedule",
+                        () -> scheduleService.removeCrewMember(guildId, scheduleId, userId, nickname)))
                 .flatMap(schedule -> scheduleMessageManager.updateScheduleMessage(String.valueOf(schedule.getId()), schedule.getCrewMembers().stream().map(User::getNickname).toList()))
                 .then(event.createFollowup("✅ Você desembarcou da escala com sucesso! (Hora: " + LocalDateTime.now(ZoneId.of("America/Fortaleza")).format(DATE_TIME_FORMATTER) + ")").withEphemeral(true))
                 .onErrorResume(e -> {
@@ -725,7 +707,8 @@ public class ScheduleInteractionHandler {
                 .map(Snowflake::asString)
                 .orElseThrow(() -> new IllegalStateException("Comando deve ser executado em um servidor"));
 
-        return Mono.fromCallable(() -> scheduleService.closeSchedule(guildId, scheduleId, userId, nickname))
+        return Mono.fromCallable(() -> sqlAccounting.measure("end_schedule",
+                        () -> scheduleService.closeSchedule(guildId, scheduleId, userId, nickname)))
                 .flatMap(schedule -> {
                     if (schedule == null) {
                         // Force close scenario - schedule was not found in DB but user has special role
@@ -0,0 +1,106 @@
+package com.gra.paradise.botattendance.discord.commands;
+
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.discord.rest.RestLane;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.repository.ScheduleRepository;
+import com.gra.paradise.botattendance.service.UserSearchIndex;
+import com.gra.paradise.botattendance.service.UserSearchIndex.Match;
+import discord4j.core.event.domain.interaction.ChatInputAutoCompleteEvent;
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.core.object.command.ApplicationCommandInteractionOption;
+import discord4j.core.object.command.ApplicationCommandInteractionOptionValue;
+import discord4j.discordjson.json.ApplicationCommandOptionChoiceData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Comando para localizar um usuário pelo nickname ou username
+ * As sugestões vêm do {@link UserSearchIndex}; só a resposta final consulta o banco.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BuscarUsuarioCommand implements Command {
+
+    private static final int MAX_CHOICE_LENGTH = 100; // Limite do Discord para nome e valor da sugestão
+
+    private final UserSearchIndex searchIndex;
+    private final ScheduleRepository scheduleRepository;
+    private final DiscordRestScheduler restScheduler;
+    private final Scheduler blockingScheduler;
+
+    @Override
+    public String getName() {
+        return "buscar-usuario";
+    }
+
+    @Override
+    public Mono<Void> autocomplete(ChatInputAutoCompleteEvent event) {
+        String term = event.getFocusedOption().getValue()
+                .map(ApplicationCommandInteractionOptionValue::getRaw)
+                .orElse("");
+        List<ApplicationCommandOptionChoiceData> choices = searchIndex.search(term, UserSearchIndex.MAX_RESULTS).stream()
+                .map(match -> (ApplicationCommandOptionChoiceData) ApplicationCommandOptionChoiceData.builder()
+                        .name(truncate(match.label()))
+                        .value(truncate(match.discordId()))
+                        .build())
+                .toList();
+        return restScheduler.submit(RestLane.INTERACTION, DiscordRestScheduler.INTERACTIONS_ROUTE,
+                event.respondWithSuggestions(choices));
+    }
+
+    @Override
+    public Mono<Void> handle(ChatInputInteractionEvent event) {
+        String guildId = event.getInteraction().getGuildId().map(id -> id.asString()).orElse(null);
+        String value = event.getOption("usuario")
+                .flatMap(ApplicationCommandInteractionOption::getValue)
+                .map(ApplicationCommandInteractionOptionValue::asString)
+                .orElse("");
+
+        // Quem escolhe a sugestão envia o ID; quem digita e confirma envia o texto
+        Optional<Match> match = searchIndex.find(value)
+                .or(() -> searchIndex.search(value, 1).stream().findFirst());
+
+        if (guildId == null || match.isEmpty()) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("❌ Nenhum usuário encontrado para \"" + value + "\".");
+        }
+
+        Match user = match.get();
+        return Mono.fromCallable(() -> scheduleRepository.findActiveSchedulesByUser(guildId, user.discordId()))
+                .subscribeOn(blockingScheduler)
+                .flatMap(schedules -> event.reply()
+                        .withEphemeral(true)
+                        .withContent(describe(user, schedules)))
+                .onErrorResume(e -> {
+                    log.error("Erro ao buscar escalas do usuário {}: {}", user.discordId(), e.getMessage(), e);
+                    return event.reply()
+                            .withEphemeral(true)
+                            .withContent("❌ Erro ao buscar o usuário: " + e.getMessage());
+                });
+    }
+
+    private String describe(Match user, List<Schedule> schedules) {
+        StringBuilder content = new StringBuilder()
+                .append("👤 **").append(user.label()).append("** (<@").append(user.discordId()).append(">)\n");
+        if (schedules.isEmpty()) {
+            return content.append("Não está em nenhuma escala ativa.").toString();
+        }
+        content.append("Escalas ativas:\n");
+        schedules.forEach(schedule -> content.append("• ").append(schedule.getTitle())
+                .append(" - ").append(schedule.getAircraftType().getDisplayName()).append('\n'));
+        return content.toString();
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_CHOICE_LENGTH ? value : value.substring(0, MAX_CHOICE_LENGTH);
+    }
+}
@@ -1,9 +1,19 @@
 package com.gra.paradise.botattendance.discord.commands;
 
+import discord4j.core.event.domain.interaction.ChatInputAutoCompleteEvent;
 import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface Command {
     String getName();
     Mono<Void> handle(ChatInputInteractionEvent event);
+
+    /**
+     * Sugestões para opções com autocomplete. Chamado a cada tecla: não deve consultar o banco.
+     */
+    default Mono<Void> autocomplete(ChatInputAutoCompleteEvent event) {
+        return event.respondWithSuggestions(List.of());
+    }
 }
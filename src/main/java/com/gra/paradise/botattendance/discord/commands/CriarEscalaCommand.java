@@ -0,0 +1,133 @@
+package com.gra.paradise.botattendance.discord.commands;
+
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.discord.rest.RestLane;
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.model.MissionType;
+import com.gra.paradise.botattendance.service.OtherMissionSuggestionIndex;
+import com.gra.paradise.botattendance.service.ScheduleManager;
+import com.gra.paradise.botattendance.service.ScheduleMessageManager;
+import com.gra.paradise.botattendance.service.ScheduleMessagePublisher;
+import com.gra.paradise.botattendance.service.SqlAccountingService;
+import discord4j.common.util.Snowflake;
+import discord4j.core.event.domain.interaction.ChatInputAutoCompleteEvent;
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.core.object.command.ApplicationCommandInteractionOption;
+import discord4j.core.object.command.ApplicationCommandInteractionOptionValue;
+import discord4j.discordjson.json.ApplicationCommandOptionChoiceData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Comando para criar uma escala direto pelo slash command
+ * Em missões OUTROS a descrição vem da opção "descricao", com autocomplete das descrições mais usadas:
+ * sem o modal, a criação é uma única interação. Missões de ação não são aceitas aqui: o subtipo e o
+ * título saem do fluxo de menus do botão "Iniciar Escala".
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CriarEscalaCommand implements Command {
+
+    private final ScheduleManager scheduleService;
+    private final ScheduleMessagePublisher messagePublisher;
+    private final ScheduleMessageManager scheduleMessageManager;
+    private final SqlAccountingService sqlAccounting;
+    private final OtherMissionSuggestionIndex missionSuggestions;
+    private final DiscordRestScheduler restScheduler;
+    private final Scheduler blockingScheduler;
+
+    @Override
+    public String getName() {
+        return "criar-escala";
+    }
+
+    @Override
+    public Mono<Void> autocomplete(ChatInputAutoCompleteEvent event) {
+        if (!"descricao".equals(event.getFocusedOption().getName())) {
+            return event.respondWithSuggestions(List.of());
+        }
+        String prefix = event.getFocusedOption().getValue()
+                .map(ApplicationCommandInteractionOptionValue::getRaw)
+                .orElse("");
+        List<ApplicationCommandOptionChoiceData> choices = missionSuggestions
+                .suggest(prefix, OtherMissionSuggestionIndex.MAX_RESULTS).stream()
+                .map(text -> (ApplicationCommandOptionChoiceData) ApplicationCommandOptionChoiceData.builder()
+                        .name(text)
+                        .value(text)
+                        .build())
+                .toList();
+        return restScheduler.submit(RestLane.INTERACTION, DiscordRestScheduler.INTERACTIONS_ROUTE,
+                event.respondWithSuggestions(choices));
+    }
+
+    @Override
+    public Mono<Void> handle(ChatInputInteractionEvent event) {
+        Optional<String> guildIdOpt = event.getInteraction().getGuildId().map(Snowflake::asString);
+        if (guildIdOpt.isEmpty()) {
+            return event.reply().withEphemeral(true).withContent("❌ Este comando deve ser executado em um servidor.");
+        }
+        String guildId = guildIdOpt.get();
+        String title = stringOption(event, "titulo").orElse("");
+        String description = stringOption(event, "descricao").map(String::trim).orElse(null);
+
+        AircraftType aircraftType;
+        MissionType missionType;
+        try {
+            aircraftType = AircraftType.valueOf(stringOption(event, "aeronave").orElse(""));
+            missionType = MissionType.valueOf(stringOption(event, "missao").orElse(""));
+        } catch (IllegalArgumentException e) {
+            return event.reply().withEphemeral(true).withContent("❌ Aeronave ou tipo de missão inválido.");
+        }
+
+        if (missionType == MissionType.ACTION) {
+            // O fluxo de menus regera o título e não tem como carregar o informado aqui
+            return event.reply().withEphemeral(true)
+                    .withContent("❌ Escalas de ação são criadas pelo botão \"Iniciar Escala\", que pede o subtipo e a opção de ação.");
+        }
+
+        if (missionType == MissionType.OUTROS && (description == null || description.isEmpty())) {
+            return event.reply().withEphemeral(true)
+                    .withContent("❌ Informe a descrição da missão na opção \"descricao\" (as mais usadas aparecem enquanto você digita).");
+        }
+        if (description != null && description.length() > OtherMissionSuggestionIndex.MAX_DESCRIPTION_LENGTH) {
+            return event.reply().withEphemeral(true)
+                    .withContent("❌ A descrição pode ter no máximo " + OtherMissionSuggestionIndex.MAX_DESCRIPTION_LENGTH + " caracteres.");
+        }
+
+        String userId = event.getInteraction().getUser().getId().asString();
+        String nickname = event.getInteraction().getMember()
+                .map(member -> member.getNickname().orElse(event.getInteraction().getUser().getUsername()))
+                .orElse(event.getInteraction().getUser().getUsername());
+        String actionOption = missionType == MissionType.OUTROS ? description : null;
+
+        return event.deferReply().withEphemeral(true)
+                .then(Mono.fromCallable(() -> sqlAccounting.measure("create_schedule",
+                                () -> scheduleService.createSchedule(guildId, title, aircraftType, missionType, userId, nickname, null, actionOption)))
+                        .subscribeOn(blockingScheduler))
+                .doOnSuccess(schedule -> log.info("Escala criada via comando para scheduleId: {}", schedule.getId()))
+                .flatMap(schedule -> messagePublisher.createSchedulePublicMessage(event, schedule))
+                .then(scheduleMessageManager.updateSystemMessage(guildId))
+                .then(event.editReply("✅ Escala criada com sucesso!"))
+                .onErrorResume(e -> {
+                    log.error("Erro ao criar escala via comando para usuário {}: {}", userId, e.getMessage(), e);
+                    String errorMessage = e instanceof IllegalArgumentException
+                            ? "❌ Erro ao criar escala: " + e.getMessage()
+                            : "❌ Erro ao criar escala. Tente novamente ou contate o suporte.";
+                    return event.editReply(errorMessage);
+                })
+                .then();
+    }
+
+    private static Optional<String> stringOption(ChatInputInteractionEvent event, String name) {
+        return event.getOption(name)
+                .flatMap(ApplicationCommandInteractionOption::getValue)
+                .map(ApplicationCommandInteractionOptionValue::asString);
+    }
+}
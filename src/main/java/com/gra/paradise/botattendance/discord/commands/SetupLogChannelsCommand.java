@@ -1,6 +1,7 @@
 package com.gra.paradise.botattendance.discord.commands;
 
 import com.gra.paradise.botattendance.model.GuildConfig;
+import com.gra.paradise.botattendance.model.LogMode;
 import com.gra.paradise.botattendance.model.MissionType;
 import com.gra.paradise.botattendance.repository.GuildConfigRepository;
 import discord4j.common.util.Snowflake;
@@ -63,6 +64,12 @@ public class SetupLogChannelsCommand implements Command {
                     .withContent("❌ Tipo de missão inválido ou não especificado. Valores permitidos: ACTION, PATROL, OUTROS");
         }
 
+        // Modo de publicação: só muda quando a opção é informada
+        Optional<LogMode> logMode = event.getOption("modo")
+                .flatMap(ApplicationCommandInteractionOption::getValue)
+                .map(ApplicationCommandInteractionOptionValue::asString)
+                .map(LogMode::valueOf);
+
         // Configurar o canal no banco de dados
         return Mono.fromCallable(() -> {
             GuildConfig config = guildConfigRepository.findById(guildId)
@@ -70,10 +77,13 @@ public class SetupLogChannelsCommand implements Command {
             config.setGuildId(guildId);
             if (missionType == MissionType.ACTION) {
                 config.setActionLogChannelId(channelId);
+                logMode.ifPresent(config::setActionLogMode);
             } else if (missionType == MissionType.PATROL) {
                 config.setPatrolLogChannelId(channelId);
+                logMode.ifPresent(config::setPatrolLogMode);
             } else if (missionType == MissionType.OUTROS) {
                 config.setOutrosLogChannelId(channelId);
+                logMode.ifPresent(config::setOutrosLogMode);
             }
             guildConfigRepository.save(config);
             return config;
@@ -81,7 +91,8 @@ public class SetupLogChannelsCommand implements Command {
             log.info("Canal de log configurado para guilda {}: {} para {}", guildId, channelId, logTypeMessage);
             return event.reply()
                     .withEphemeral(true)
-                    .withContent("✅ Este canal foi configurado como canal de logs para " + logTypeMessage + ".");
+                    .withContent("✅ Este canal foi configurado como canal de logs para " + logTypeMessage
+                            + logMode.map(mode -> " (" + mode.getDisplayName() + ")").orElse("") + ".");
         }).onErrorResume(e -> {
             log.error("Erro ao configurar canal de logs para guilda {}: {}", guildId, e.getMessage(), e);
             return event.reply()
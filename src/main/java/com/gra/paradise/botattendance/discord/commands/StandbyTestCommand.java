@@ -57,7 +57,7 @@ public class StandbyTestCommand implements Command {
                     .description(description)
                     .color(isStandby ? Color.RED : Color.GREEN)
                     .addField("⏰ Configuração", "Stand-by após 3 minutos de inatividade", false)
-                    .addField("🔄 Verificação", "A cada 1 minuto", false)
+                    .addField("🔄 Verificação", "Prazo reiniciado a cada interação", false)
                     .addField("💾 Cache", "TTL de 5 minutos", false)
                     .build();
         });
@@ -0,0 +1,35 @@
+package com.gra.paradise.botattendance.discord.rest;
+
+import discord4j.core.spec.MessageCreateSpec;
+import discord4j.core.spec.MessageEditSpec;
+import discord4j.discordjson.json.MessageData;
+import reactor.core.publisher.Mono;
+
+/**
+ * Operações de mensagem direto pelos IDs de canal e mensagem
+ * Cada operação é uma única chamada REST; nada é buscado antes de editar ou excluir.
+ */
+public interface DiscordMessageOps {
+
+    Mono<MessageData> create(String channelId, MessageCreateSpec spec);
+
+    Mono<MessageData> edit(String channelId, String messageId, MessageEditSpec spec);
+
+    /**
+     * Edita a mensagem; se ela não existir mais (404), cria outra no mesmo canal.
+     * Quem chama compara o ID devolvido para saber se a mensagem foi recriada.
+     */
+    Mono<MessageData> editOrRecreate(String channelId, String messageId, MessageEditSpec edit, MessageCreateSpec recreate);
+
+    /**
+     * Exclui a mensagem; uma mensagem que já não existe (404) conta como excluída
+     */
+    Mono<Void> delete(String channelId, String messageId, String reason);
+
+    Mono<Boolean> exists(String channelId, String messageId);
+
+    /**
+     * Abre um tópico público a partir da mensagem e devolve o ID do tópico (que também é um canal)
+     */
+    Mono<String> startThread(String channelId, String messageId, String name);
+}
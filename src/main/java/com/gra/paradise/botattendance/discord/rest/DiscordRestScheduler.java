@@ -0,0 +1,270 @@
+package com.gra.paradise.botattendance.discord.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Agendador das escritas REST no Discord
+ * Cada chamada entra na fila da sua prioridade (RestLane) e só sai quando o bucket da rota tem token,
+ * espelhando os buckets do Discord. Assim um acúmulo de edições de log nunca atrasa a resposta de uma
+ * interação. Edições ainda na fila com a mesma chave de substituição são descartadas pela mais nova.
+ */
+@Slf4j
+@Component
+public class DiscordRestScheduler {
+
+    /** Bucket global das respostas de interação (webhooks de interação não competem com os canais) */
+    public static final String INTERACTIONS_ROUTE = "interactions";
+
+    private static final RouteLimit INTERACTION_LIMIT = new RouteLimit(50, Duration.ofSeconds(1));
+    // Bucket de criação/edição de mensagens por canal: 5 requisições a cada 5 segundos
+    private static final RouteLimit CHANNEL_MESSAGES_LIMIT = new RouteLimit(5, Duration.ofSeconds(5));
+
+    private final int maxInFlight;
+    private final Scheduler wakeScheduler = Schedulers.parallel();
+    private final Map<RestLane, Deque<Task<?>>> lanes = new EnumMap<>(RestLane.class);
+    private final Map<String, Task<?>> queuedBySupersedeKey = new HashMap<>();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private Disposable pendingWake;
+    private long pendingWakeAt;
+
+    private final Map<RestLane, Counter> shedCounters = new EnumMap<>(RestLane.class);
+    private final Map<RestLane, Timer> queueWaitTimers = new EnumMap<>(RestLane.class);
+
+    public DiscordRestScheduler(MeterRegistry meterRegistry,
+                                @Value("${discord.rest.max-in-flight:4}") int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        for (RestLane lane : RestLane.values()) {
+            Deque<Task<?>> queue = new ArrayDeque<>();
+            lanes.put(lane, queue);
+            Gauge.builder("discord.rest.lane.depth", this, scheduler -> scheduler.depth(lane))
+                    .description("Discord REST calls waiting in the lane")
+                    .tag("lane", lane.name())
+                    .register(meterRegistry);
+            shedCounters.put(lane, Counter.builder("discord.rest.shed")
+                    .description("Queued Discord edits dropped because a newer edit superseded them")
+                    .tag("lane", lane.name())
+                    .register(meterRegistry));
+            queueWaitTimers.put(lane, Timer.builder("discord.rest.queue.wait")
+                    .description("Time a Discord REST call waited for its lane and route bucket")
+                    .tag("lane", lane.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Bucket de mensagens de um canal (criar e editar mensagens)
+     */
+    public static String channelMessagesRoute(String channelId) {
+        return "channels/" + channelId + "/messages";
+    }
+
+    public <T> Mono<T> submit(RestLane lane, String route, Mono<T> call) {
+        return submit(lane, route, null, call);
+    }
+
+    /**
+     * Agenda a chamada. Em filas descartáveis, uma chamada ainda não iniciada com a mesma
+     * supersedeKey é descartada e completa vazia; a nova assume o lugar dela.
+     */
+    public <T> Mono<T> submit(RestLane lane, String route, String supersedeKey, Mono<T> call) {
+        return Mono.create(sink -> {
+            Task<T> task = new Task<>(lane, route, lane.isSheddable() ? supersedeKey : null, call, sink, System.nanoTime());
+            sink.onCancel(() -> cancel(task));
+            enqueue(task);
+            drain();
+        });
+    }
+
+    public int depth(RestLane lane) {
+        synchronized (lanes) {
+            return lanes.get(lane).size();
+        }
+    }
+
+    private void enqueue(Task<?> task) {
+        Task<?> superseded = null;
+        synchronized (lanes) {
+            if (task.supersedeKey != null) {
+                superseded = queuedBySupersedeKey.put(task.supersedeKey, task);
+                if (superseded != null) {
+                    lanes.get(superseded.lane).remove(superseded);
+                }
+            }
+            lanes.get(task.lane).addLast(task);
+        }
+        if (superseded != null) {
+            shedCounters.get(superseded.lane).increment();
+            log.debug("Edição {} descartada na fila {}: substituída por uma mais nova", superseded.supersedeKey, superseded.lane);
+            superseded.sink.success();
+        }
+    }
+
+    private void cancel(Task<?> task) {
+        synchronized (lanes) {
+            if (lanes.get(task.lane).remove(task) && task.supersedeKey != null) {
+                queuedBySupersedeKey.remove(task.supersedeKey, task);
+            }
+        }
+    }
+
+    private void drain() {
+        int missed = wip.incrementAndGet();
+        if (missed != 1) {
+            return;
+        }
+        do {
+            for (Task<?> task : pollReady()) {
+                task.start();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private List<Task<?>> pollReady() {
+        List<Task<?>> ready = new ArrayList<>();
+        long now = System.nanoTime();
+        long nextTokenNanos = Long.MAX_VALUE;
+
+        synchronized (lanes) {
+            for (RestLane lane : RestLane.values()) {
+                Iterator<Task<?>> iterator = lanes.get(lane).iterator();
+                while (iterator.hasNext() && inFlight.get() < maxInFlight) {
+                    Task<?> task = iterator.next();
+                    TokenBucket bucket = bucket(task.route);
+                    // Uma rota sem token não bloqueia as demais rotas da mesma fila
+                    if (!bucket.tryAcquire(now)) {
+                        nextTokenNanos = Math.min(nextTokenNanos, bucket.nanosUntilToken(now));
+                        continue;
+                    }
+                    iterator.remove();
+                    if (task.supersedeKey != null) {
+                        queuedBySupersedeKey.remove(task.supersedeKey, task);
+                    }
+                    inFlight.incrementAndGet();
+                    ready.add(task);
+                }
+            }
+            if (nextTokenNanos != Long.MAX_VALUE && inFlight.get() < maxInFlight) {
+                scheduleWake(nextTokenNanos);
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * Mantém um único wake armado, sempre no prazo mais cedo: uma rota com token em 20ms
+     * não pode esperar pelo wake de um canal que só repõe token daqui a 1s
+     */
+    private void scheduleWake(long delayNanos) {
+        long delay = Math.max(delayNanos, 1);
+        long wakeAt = System.nanoTime() + delay;
+        if (pendingWake != null && !pendingWake.isDisposed()) {
+            if (pendingWakeAt - wakeAt <= 0) {
+                return;
+            }
+            pendingWake.dispose();
+        }
+        pendingWakeAt = wakeAt;
+        pendingWake = wakeScheduler.schedule(this::drain, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void onTaskFinished() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private TokenBucket bucket(String route) {
+        return buckets.computeIfAbsent(route, key -> new TokenBucket(
+                INTERACTIONS_ROUTE.equals(key) ? INTERACTION_LIMIT : CHANNEL_MESSAGES_LIMIT));
+    }
+
+    private final class Task<T> {
+        private final RestLane lane;
+        private final String route;
+        private final String supersedeKey;
+        private final Mono<T> call;
+        private final MonoSink<T> sink;
+        private final long enqueuedAt;
+
+        private Task(RestLane lane, String route, String supersedeKey, Mono<T> call, MonoSink<T> sink, long enqueuedAt) {
+            this.lane = lane;
+            this.route = route;
+            this.supersedeKey = supersedeKey;
+            this.call = call;
+            this.sink = sink;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private void start() {
+            queueWaitTimers.get(lane).record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            // Cancelar quem pediu cancela a chamada em andamento e libera o slot
+            Disposable subscription = call.doFinally(signal -> onTaskFinished())
+                    .subscribe(sink::success, sink::error, sink::success);
+            sink.onDispose(subscription);
+        }
+    }
+
+    private record RouteLimit(int capacity, Duration period) {}
+
+    /**
+     * Token bucket com reposição contínua: capacity tokens a cada period
+     */
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double nanosPerToken;
+        private double tokens;
+        private long lastRefill;
+
+        private TokenBucket(RouteLimit limit) {
+            this.capacity = limit.capacity();
+            this.nanosPerToken = (double) limit.period().toNanos() / limit.capacity();
+            this.tokens = limit.capacity();
+            this.lastRefill = System.nanoTime();
+        }
+
+        private boolean tryAcquire(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        private long nanosUntilToken(long now) {
+            refill(now);
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerToken);
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.gra.paradise.botattendance.discord.rest;
+
+import discord4j.core.spec.MessageCreateSpec;
+import discord4j.core.spec.MessageEditSpec;
+import discord4j.discordjson.json.MessageData;
+import discord4j.rest.RestClient;
+import discord4j.rest.http.client.ClientException;
+import discord4j.rest.request.Router;
+import discord4j.rest.route.Route;
+import discord4j.rest.service.ChannelService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * DiscordMessageOps sobre o ChannelService do RestClient
+ * Antes, cada escrita fazia getChannelById + getMessageById antes de editar (até 3 chamadas);
+ * aqui é uma chamada por operação, contada em discord.rest.calls{op}.
+ */
+@Slf4j
+@Component
+public class RestDiscordMessageOps implements DiscordMessageOps {
+
+    private static final int NOT_FOUND = 404;
+    private static final int MAX_THREAD_NAME_LENGTH = 100;
+    private static final int THREAD_AUTO_ARCHIVE_MINUTES = 1440;
+    // O ChannelService desta versão do Discord4J não expõe tópicos; a rota vai direto pelo Router
+    private static final Route START_THREAD_FROM_MESSAGE = Route.post("/channels/{channel.id}/messages/{message.id}/threads");
+
+    private final ChannelService channelService;
+    private final Router router;
+    private final Counter creates;
+    private final Counter edits;
+    private final Counter deletes;
+    private final Counter reads;
+    private final Counter threads;
+
+    public RestDiscordMessageOps(RestClient restClient, MeterRegistry meterRegistry) {
+        this.channelService = restClient.getChannelService();
+        this.router = restClient.getRestResources().getRouter();
+        this.creates = callCounter(meterRegistry, "create");
+        this.edits = callCounter(meterRegistry, "edit");
+        this.deletes = callCounter(meterRegistry, "delete");
+        this.reads = callCounter(meterRegistry, "get");
+        this.threads = callCounter(meterRegistry, "thread");
+    }
+
+    @Override
+    public Mono<MessageData> create(String channelId, MessageCreateSpec spec) {
+        return Mono.defer(() -> {
+            creates.increment();
+            return channelService.createMessage(id(channelId), spec.asRequest());
+        });
+    }
+
+    @Override
+    public Mono<MessageData> edit(String channelId, String messageId, MessageEditSpec spec) {
+        return Mono.defer(() -> {
+            edits.increment();
+            return channelService.editMessage(id(channelId), id(messageId), spec.asRequest());
+        });
+    }
+
+    @Override
+    public Mono<MessageData> editOrRecreate(String channelId, String messageId, MessageEditSpec edit, MessageCreateSpec recreate) {
+        return edit(channelId, messageId, edit)
+                .onErrorResume(ClientException.isStatusCode(NOT_FOUND), e -> {
+                    log.warn("Mensagem {} não existe mais no canal {}. Criando nova mensagem.", messageId, channelId);
+                    return create(channelId, recreate);
+                });
+    }
+
+    @Override
+    public Mono<Void> delete(String channelId, String messageId, String reason) {
+        return Mono.defer(() -> {
+                    deletes.increment();
+                    return channelService.deleteMessage(id(channelId), id(messageId), reason);
+                })
+                .onErrorResume(ClientException.isStatusCode(NOT_FOUND), e -> Mono.empty());
+    }
+
+    @Override
+    public Mono<Boolean> exists(String channelId, String messageId) {
+        return Mono.defer(() -> {
+                    reads.increment();
+                    return channelService.getMessage(id(channelId), id(messageId));
+                })
+                .map(message -> true)
+                .onErrorResume(ClientException.isStatusCode(NOT_FOUND), e -> Mono.just(false));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Mono<String> startThread(String channelId, String messageId, String name) {
+        String threadName = name.length() > MAX_THREAD_NAME_LENGTH ? name.substring(0, MAX_THREAD_NAME_LENGTH) : name;
+        return Mono.defer(() -> {
+                    threads.increment();
+                    return START_THREAD_FROM_MESSAGE.newRequest(id(channelId), id(messageId))
+                            .body(Map.of("name", threadName, "auto_archive_duration", THREAD_AUTO_ARCHIVE_MINUTES))
+                            .exchange(router)
+                            .bodyToMono(Map.class);
+                })
+                .map(thread -> String.valueOf(((Map<String, Object>) thread).get("id")));
+    }
+
+    private static long id(String snowflake) {
+        return Long.parseUnsignedLong(snowflake);
+    }
+
+    private static Counter callCounter(MeterRegistry registry, String op) {
+        return Counter.builder("discord.rest.calls")
+                .description("Discord REST calls issued for message writes")
+                .tag("op", op)
+                .register(registry);
+    }
+}
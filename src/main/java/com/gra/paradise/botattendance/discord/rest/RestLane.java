@@ -0,0 +1,29 @@
+package com.gra.paradise.botattendance.discord.rest;
+
+/**
+ * Filas de prioridade das escritas REST no Discord, da mais para a menos urgente
+ */
+public enum RestLane {
+
+    /** Respostas de interação: o usuário está esperando (e o token expira em 15 minutos) */
+    INTERACTION(false),
+    /** Embed público da escala, visto por toda a tripulação */
+    PUBLIC_EMBED(true),
+    /** Mensagens do canal de logs */
+    LOG(true),
+    /** Mensagem de status do sistema (lista de escalas ativas) */
+    SYSTEM_STATUS(true);
+
+    private final boolean sheddable;
+
+    RestLane(boolean sheddable) {
+        this.sheddable = sheddable;
+    }
+
+    /**
+     * Se uma edição ainda na fila pode ser descartada quando outra mais nova do mesmo alvo chega
+     */
+    public boolean isSheddable() {
+        return sheddable;
+    }
+}
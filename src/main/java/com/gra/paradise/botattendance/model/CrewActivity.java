@@ -1,35 +1,48 @@
 package com.gra.paradise.botattendance.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.Setter;
 
 import java.time.LocalDateTime;
 
+/**
+ * Evento de embarque/desembarque de um tripulante.
+ * Tabela somente de inserção: nenhuma coluna é atualizável depois de gravada.
+ */
 @Entity
-@Table(name = "crew_activities")
+@Table(name = "crew_activities", indexes = {
+        @Index(name = "idx_crew_activities_schedule_time", columnList = "schedule_id, timestamp")
+})
 @Getter
-@Setter
-@NoArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class CrewActivity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "crew_activities_seq")
+    @SequenceGenerator(name = "crew_activities_seq", sequenceName = "crew_activities_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "schedule_id", nullable = false)
+    @JoinColumn(name = "schedule_id", nullable = false, updatable = false)
     private Schedule schedule;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, updatable = false)
     private User user;
 
     @Enumerated(EnumType.STRING)
-    @Column(name = "action_type", nullable = false)
+    @Column(name = "action_type", nullable = false, updatable = false)
     private CrewActivityType actionType;
 
-    @Column(name = "timestamp", nullable = false)
+    @Column(name = "timestamp", nullable = false, updatable = false)
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+
+    public CrewActivity(Schedule schedule, User user, CrewActivityType actionType, LocalDateTime timestamp) {
+        this.schedule = schedule;
+        this.user = user;
+        this.actionType = actionType;
+        this.timestamp = timestamp;
+    }
+}
@@ -1,11 +1,19 @@
 package com.gra.paradise.botattendance.model;
 
+import com.gra.paradise.botattendance.config.CaffeineRegionFactory;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CaffeineRegionFactory.GUILD_CONFIGS_REGION)
 public class GuildConfig {
     @Id
     private String guildId; // Discord guild ID
@@ -13,4 +21,10 @@ public class GuildConfig {
     private String actionLogChannelId; // Channel ID for ACTION mission logs
     private String patrolLogChannelId; // Channel ID for PATROL mission logs
     private String outrosLogChannelId; // Channel ID for OUTROS mission logs
+    @Enumerated(EnumType.STRING)
+    private LogMode actionLogMode; // How ACTION logs are published (null = EMBED)
+    @Enumerated(EnumType.STRING)
+    private LogMode patrolLogMode; // How PATROL logs are published
+    @Enumerated(EnumType.STRING)
+    private LogMode outrosLogMode; // How OUTROS logs are published
 }
\ No newline at end of file
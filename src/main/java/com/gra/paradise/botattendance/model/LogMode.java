@@ -0,0 +1,19 @@
+package com.gra.paradise.botattendance.model;
+
+import lombok.Getter;
+
+/**
+ * Como as atividades de uma escala são publicadas no canal de logs
+ */
+@Getter
+public enum LogMode {
+    EMBED("Embed por escala"),      // Um embed por escala, reeditado com o histórico completo
+    DIGEST("Resumo periódico"),     // Uma edição consolidada por guilda a cada intervalo
+    THREAD("Tópico por escala");    // Cabeçalho por escala e cada atividade como mensagem no tópico
+
+    private final String displayName;
+
+    LogMode(String displayName) {
+        this.displayName = displayName;
+    }
+}
@@ -1,7 +1,11 @@
     package com.gra.paradise.botattendance.model;
 
+    import com.gra.paradise.botattendance.config.CaffeineRegionFactory;
     import jakarta.persistence.*;
     import lombok.Data;
+    import lombok.EqualsAndHashCode;
+    import org.hibernate.annotations.Cache;
+    import org.hibernate.annotations.CacheConcurrencyStrategy;
     import org.hibernate.annotations.Fetch;
     import org.hibernate.annotations.FetchMode;
 
@@ -9,20 +13,46 @@
     import java.util.ArrayList;
     import java.util.List;
 
+    /**
+     * Escala de voo
+     * Planos de busca (entity graphs) por caso de uso:
+     * {@link #GRAPH_HEADER} só o cabeçalho, {@link #GRAPH_CREW} cabeçalho + tripulação.
+     * Logs nunca entram no mesmo JOIN da tripulação (produto cartesiano tripulação × logs);
+     * os mais recentes vêm de uma query separada em lote (ScheduleLogRepository.findRecentLogs).
+     * A tripulação guarda a ordem de embarque na coluna crew_order de schedule_crew.
+     */
     @Data
+    @EqualsAndHashCode(onlyExplicitlyIncluded = true)
     @Entity
-    @Table(name = "schedules")
+    @Cacheable
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CaffeineRegionFactory.SCHEDULES_REGION)
+    @NamedEntityGraph(name = Schedule.GRAPH_HEADER)
+    @NamedEntityGraph(name = Schedule.GRAPH_CREW, attributeNodes = @NamedAttributeNode("crewMembers"))
+    @Table(name = "schedules", indexes = {
+            @Index(name = "idx_schedules_guild_active", columnList = "guild_id, active"),
+            @Index(name = "idx_schedules_id_guild", columnList = "id, guild_id"),
+            @Index(name = "idx_schedules_end_time", columnList = "end_time"),
+            @Index(name = "idx_schedules_message_channel", columnList = "message_id, channel_id")
+    })
     public class Schedule {
+        public static final String GRAPH_HEADER = "Schedule.header";
+        public static final String GRAPH_CREW = "Schedule.crew";
+
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @EqualsAndHashCode.Include
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedules_seq")
+        @SequenceGenerator(name = "schedules_seq", sequenceName = "schedules_seq", allocationSize = 50)
         private Long id;
 
+        @Column(name = "guild_id")
         private String guildId;
         private String title;
         private String createdById;
         private String createdByUsername;
         private Instant startTime;
+        @Column(name = "end_time")
         private Instant endTime;
+        @Column(name = "active")
         private boolean active = true;
 
         @Enumerated(EnumType.STRING)
@@ -45,17 +75,29 @@
         @JoinTable(
                 name = "schedule_crew",
                 joinColumns = @JoinColumn(name = "schedule_id"),
-                inverseJoinColumns = @JoinColumn(name = "user_discord_id")
+                inverseJoinColumns = @JoinColumn(name = "user_discord_id"),
+                indexes = {
+                        @Index(name = "idx_schedule_crew_schedule", columnList = "schedule_id"),
+                        @Index(name = "idx_schedule_crew_user", columnList = "user_discord_id")
+                }
         )
+        // Default 0 só para o ddl-auto=update conseguir criar a coluna em tabelas com linhas; o CrewOrderBackfill renumera
+        @OrderColumn(name = "crew_order", columnDefinition = "integer default 0")
         @Fetch(FetchMode.SUBSELECT)
         private List<User> crewMembers = new ArrayList<>();
 
         @OneToMany(mappedBy = "schedule", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
         @Fetch(FetchMode.SUBSELECT)
+        @OrderBy("timestamp ASC")
         private List<ScheduleLog> logs = new ArrayList<>();
 
+        @Column(name = "message_id")
         private String messageId;
+        @Column(name = "channel_id")
         private String channelId;
+        // Tópico de log da escala no modo THREAD
+        @Column(name = "log_thread_id")
+        private String logThreadId;
 
         private transient int crewMembersCount = -1;
         private transient List<User> initializedCrewMembers = null;
@@ -64,6 +106,9 @@
             if (crewMembers == null) {
                 crewMembers = new ArrayList<>();
             }
+            if (crewMembers.contains(user)) {
+                return;
+            }
             crewMembers.add(user);
             user.getSchedules().add(this);
             initializeCrewMembers(); // Update transient fields after modification
@@ -113,6 +158,7 @@
                     ", outrosDescription='" + outrosDescription + '\'' +
                     ", messageId='" + messageId + '\'' +
                     ", channelId='" + channelId + '\'' +
+                    ", logThreadId='" + logThreadId + '\'' +
                     '}';
         }
     }
\ No newline at end of file
@@ -8,16 +8,20 @@ import java.time.ZoneId;
 
 @Data
 @Entity
-@Table(name = "schedule_logs")
+@Table(name = "schedule_logs", indexes = {
+        @Index(name = "idx_schedule_logs_schedule_time", columnList = "schedule_id, timestamp")
+})
 public class ScheduleLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_logs_seq")
+    @SequenceGenerator(name = "schedule_logs_seq", sequenceName = "schedule_logs_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "schedule_id")
     private Schedule schedule;
 
+    @Column(name = "timestamp")
     private LocalDateTime timestamp;
     private String action;
     private String userId;
@@ -1,11 +1,17 @@
 package com.gra.paradise.botattendance.model;
 
+import com.gra.paradise.botattendance.config.CaffeineRegionFactory;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CaffeineRegionFactory.SYSTEM_MESSAGES_REGION)
 public class SystemMessage {
     @Id
     private String guildId; // Guild ID as the primary key
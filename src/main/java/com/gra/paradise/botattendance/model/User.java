@@ -1,24 +1,38 @@
 package com.gra.paradise.botattendance.model;
 
+import com.gra.paradise.botattendance.config.CaffeineRegionFactory;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
-@Table(name = "aviation_users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CaffeineRegionFactory.USERS_REGION)
+@Table(name = "aviation_users", indexes = {
+        @Index(name = "idx_aviation_users_username", columnList = "username")
+})
 public class User {
     @Id
+    @EqualsAndHashCode.Include
     private String discordId;
 
     private String username;
     private String nickname;
 
+    @ToString.Exclude
     @ManyToMany(mappedBy = "crewMembers")
     private List<Schedule> schedules = new ArrayList<>();
 
@@ -9,4 +9,4 @@ import java.util.List;
 @Repository
 public interface CrewActivityRepository extends JpaRepository<CrewActivity, Long> {
     List<CrewActivity> findAllByScheduleIdOrderByTimestamp(Long scheduleId);
-}
\ No newline at end of file
+}
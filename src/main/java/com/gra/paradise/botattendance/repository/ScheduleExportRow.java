@@ -0,0 +1,15 @@
+package com.gra.paradise.botattendance.repository;
+
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.model.MissionType;
+
+import java.time.Instant;
+
+/**
+ * Linha de exportação de escala: projeção sem entidade gerenciada, para o contexto de persistência
+ * não crescer durante exportações longas
+ */
+public record ScheduleExportRow(Long id, String title, AircraftType aircraftType, MissionType missionType,
+                                String createdById, String createdByUsername, Instant startTime, Instant endTime,
+                                boolean active, int crewSize) {
+}
@@ -0,0 +1,10 @@
+package com.gra.paradise.botattendance.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha de exportação de log de escala (projeção, sem entidade gerenciada)
+ */
+public record ScheduleLogExportRow(Long id, Long scheduleId, String scheduleTitle, LocalDateTime timestamp,
+                                   String action, String userId, String username, String details) {
+}
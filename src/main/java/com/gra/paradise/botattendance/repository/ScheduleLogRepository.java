@@ -2,8 +2,11 @@ package com.gra.paradise.botattendance.repository;
 
 import com.gra.paradise.botattendance.model.ScheduleLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +14,15 @@ public interface ScheduleLogRepository extends JpaRepository<ScheduleLog, Long>
     List<ScheduleLog> findByScheduleIdOrderByTimestampAsc(Long scheduleId);
 
     void deleteByScheduleId(Long scheduleId);
+
+    /**
+     * Últimos {@code limit} logs de cada escala, em uma única query para todas as escalas
+     * Ordenados por escala e horário (mais antigo primeiro)
+     */
+    @Query(value = "SELECT r.id, r.schedule_id, r.timestamp, r.action, r.user_id, r.username, r.details FROM (" +
+            "SELECT l.*, ROW_NUMBER() OVER (PARTITION BY l.schedule_id ORDER BY l.timestamp DESC, l.id DESC) AS rn " +
+            "FROM schedule_logs l WHERE l.schedule_id IN (:scheduleIds)) r " +
+            "WHERE r.rn <= :limit ORDER BY r.schedule_id, r.timestamp, r.id", nativeQuery = true)
+    List<ScheduleLog> findRecentLogs(@Param("scheduleIds") Collection<Long> scheduleIds, @Param("limit") int limit);
+
 }
\ No newline at end of file
@@ -1,11 +1,17 @@
 package com.gra.paradise.botattendance.repository;
 
+import com.gra.paradise.botattendance.config.CaffeineRegionFactory;
+import com.gra.paradise.botattendance.model.AircraftType;
 import com.gra.paradise.botattendance.model.Schedule;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,7 +29,14 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
 
     // Consultas básicas otimizadas
     List<Schedule> findByActiveTrue();
+
+    // Cache de query do Hibernate: invalidado automaticamente a cada escrita em schedules
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CaffeineRegionFactory.SCHEDULE_QUERIES_REGION)
+    })
     List<Schedule> findByActiveTrueAndGuildId(String guildId);
+
     long countByActiveTrueAndGuildId(String guildId);
     Optional<Schedule> findByMessageIdAndChannelId(String messageId, String channelId);
 
@@ -42,9 +55,31 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
     @Query("SELECT s FROM Schedule s WHERE s.endTime IS NOT NULL AND s.endTime < :threshold")
     List<Schedule> findByEndTimeBefore(@Param("threshold") Instant threshold);
 
+    /**
+     * Lote da reconciliação com o Discord, por keyset (id > afterId). Só escalas anteriores ao boot:
+     * as criadas depois já passaram pelo fluxo normal de publicação.
+     */
+    @Query("SELECT s FROM Schedule s WHERE s.active = true AND s.id > :afterId AND s.startTime < :startedBefore ORDER BY s.id")
+    List<Schedule> findActiveForReconciliation(@Param("afterId") long afterId,
+                                               @Param("startedBefore") Instant startedBefore,
+                                               Limit limit);
+
+    @Query("SELECT u.nickname FROM Schedule s JOIN s.crewMembers u WHERE s.id = :scheduleId ORDER BY INDEX(u)")
+    List<String> findCrewNicknames(@Param("scheduleId") Long scheduleId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Schedule s SET s.messageId = :messageId WHERE s.id = :scheduleId")
+    int updateMessageId(@Param("scheduleId") Long scheduleId, @Param("messageId") String messageId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Schedule s SET s.logThreadId = :threadId WHERE s.id = :scheduleId")
+    int updateLogThreadId(@Param("scheduleId") Long scheduleId, @Param("threadId") String threadId);
+
     // Consultas por aeronave com cache
     @Query("SELECT s FROM Schedule s LEFT JOIN FETCH s.crewMembers WHERE s.active = true AND s.guildId = :guildId AND s.aircraftType = :aircraftType")
-    List<Schedule> findActiveSchedulesByAircraftType(@Param("guildId") String guildId, @Param("aircraftType") String aircraftType);
+    List<Schedule> findActiveSchedulesByAircraftType(@Param("guildId") String guildId, @Param("aircraftType") AircraftType aircraftType);
 
     // Consultas por usuário
     @Query("SELECT DISTINCT s FROM Schedule s LEFT JOIN FETCH s.crewMembers WHERE s.active = true AND s.guildId = :guildId AND EXISTS (SELECT 1 FROM s.crewMembers u WHERE u.discordId = :discordId)")
@@ -63,7 +98,7 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
 
     // Consultas de estatísticas
     @Query("SELECT COUNT(s) FROM Schedule s WHERE s.active = true AND s.guildId = :guildId AND s.aircraftType = :aircraftType")
-    long countActiveSchedulesByAircraftType(@Param("guildId") String guildId, @Param("aircraftType") String aircraftType);
+    long countActiveSchedulesByAircraftType(@Param("guildId") String guildId, @Param("aircraftType") AircraftType aircraftType);
 
     @Query("SELECT s.aircraftType, COUNT(s) FROM Schedule s WHERE s.active = true AND s.guildId = :guildId GROUP BY s.aircraftType")
     List<Object[]> getAircraftTypeStatistics(@Param("guildId") String guildId);
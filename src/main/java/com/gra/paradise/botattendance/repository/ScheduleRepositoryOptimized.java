@@ -1,6 +1,8 @@
 package com.gra.paradise.botattendance.repository;
 
+import com.gra.paradise.botattendance.model.AircraftType;
 import com.gra.paradise.botattendance.model.Schedule;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,25 +19,28 @@ import java.util.Optional;
 public interface ScheduleRepositoryOptimized extends JpaRepository<Schedule, Long> {
 
     /**
-     * Busca escalas ativas com crew members em uma única query
-     * Evita N+1 queries usando JOIN FETCH
+     * Busca escalas ativas com crew members em uma única query (plano Schedule.crew)
+     * Logs ficam de fora: buscar tripulação e logs no mesmo JOIN gera tripulação × logs linhas
      */
-    @Query("SELECT DISTINCT s FROM Schedule s " +
-           "LEFT JOIN FETCH s.crewMembers " +
-           "LEFT JOIN FETCH s.logs " +
-           "WHERE s.active = true AND s.guildId = :guildId")
+    @EntityGraph(Schedule.GRAPH_CREW)
+    @Query("SELECT s FROM Schedule s WHERE s.active = true AND s.guildId = :guildId")
     List<Schedule> findActiveSchedulesWithCrew(@Param("guildId") String guildId);
 
     /**
-     * Busca escala específica com todos os relacionamentos
-     * Uma única query ao invés de múltiplas
+     * Busca escala específica com a tripulação (plano Schedule.crew)
+     * Os logs recentes vêm de ScheduleLogRepository.findRecentLogs, em uma query separada
      */
-    @Query("SELECT s FROM Schedule s " +
-           "LEFT JOIN FETCH s.crewMembers " +
-           "LEFT JOIN FETCH s.logs " +
-           "WHERE s.id = :id AND s.guildId = :guildId")
+    @EntityGraph(Schedule.GRAPH_CREW)
+    @Query("SELECT s FROM Schedule s WHERE s.id = :id AND s.guildId = :guildId")
     Optional<Schedule> findByIdAndGuildIdWithRelations(@Param("id") Long id, @Param("guildId") String guildId);
 
+    /**
+     * Busca só o cabeçalho da escala (plano Schedule.header), sem coleções
+     */
+    @EntityGraph(Schedule.GRAPH_HEADER)
+    @Query("SELECT s FROM Schedule s WHERE s.id = :id AND s.guildId = :guildId")
+    Optional<Schedule> findHeaderByIdAndGuildId(@Param("id") Long id, @Param("guildId") String guildId);
+
     /**
      * Conta escalas ativas sem carregar dados desnecessários
      * Query otimizada para contagem
@@ -51,7 +56,7 @@ public interface ScheduleRepositoryOptimized extends JpaRepository<Schedule, Lon
            "LEFT JOIN FETCH s.crewMembers " +
            "WHERE s.active = true AND s.guildId = :guildId AND s.aircraftType = :aircraftType")
     List<Schedule> findActiveSchedulesByAircraftType(@Param("guildId") String guildId, 
-                                                     @Param("aircraftType") String aircraftType);
+                                                     @Param("aircraftType") AircraftType aircraftType);
 
     /**
      * Busca escalas por período com otimização de data
@@ -68,7 +73,10 @@ public interface ScheduleRepositoryOptimized extends JpaRepository<Schedule, Lon
     /**
      * Busca escalas que expiram em breve
      * Otimizada para notificações automáticas
+     * @deprecated escala ativa não tem endTime, então a consulta nunca encontra nada; o prazo de
+     * inatividade de cada escala fica no {@link com.gra.paradise.botattendance.service.ScheduleAutoCloseService}
      */
+    @Deprecated
     @Query("SELECT s FROM Schedule s " +
            "WHERE s.active = true AND s.endTime <= :expirationTime")
     List<Schedule> findSchedulesExpiringSoon(@Param("expirationTime") java.time.Instant expirationTime);
@@ -20,7 +20,11 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     // Consultas básicas otimizadas
     Optional<User> findByDiscordId(String discordId);
+    /** @deprecated LIKE sem índice varre a tabela; use {@link com.gra.paradise.botattendance.service.UserSearchIndex} */
+    @Deprecated
     List<User> findByUsernameContainingIgnoreCase(String username);
+    /** @deprecated LIKE sem índice varre a tabela; use {@link com.gra.paradise.botattendance.service.UserSearchIndex} */
+    @Deprecated
     List<User> findByNicknameContainingIgnoreCase(String nickname);
 
     // Consultas com paginação
@@ -39,6 +43,8 @@ public interface UserRepository extends JpaRepository<User, String> {
     long countActiveUsersByGuild(@Param("guildId") String guildId);
 
     // Consultas para busca
+    /** @deprecated LIKE sem índice varre a tabela; use {@link com.gra.paradise.botattendance.service.UserSearchIndex} */
+    @Deprecated
     @Query("SELECT u FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(u.nickname) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<User> searchUsers(@Param("searchTerm") String searchTerm);
 
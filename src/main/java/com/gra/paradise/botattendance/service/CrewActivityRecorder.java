@@ -0,0 +1,96 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.model.CrewActivity;
+import com.gra.paradise.botattendance.model.CrewActivityType;
+import com.gra.paradise.botattendance.repository.CrewActivityRepository;
+import com.gra.paradise.botattendance.repository.ScheduleRepository;
+import com.gra.paradise.botattendance.repository.UserRepository;
+import com.gra.paradise.botattendance.utils.WriteBehindBuffer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static com.gra.paradise.botattendance.config.DiscordConfig.FORTALEZA_ZONE;
+
+/**
+ * Gravador do histórico de embarques (CrewActivity)
+ * Os eventos só entram no buffer após o commit da transação que os originou
+ * e são inseridos em lote, aproveitando o hibernate.jdbc.batch_size.
+ */
+@Slf4j
+@Service
+public class CrewActivityRecorder {
+
+    private static final int BATCH_SIZE = 20;
+
+    private final CrewActivityRepository crewActivityRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteBehindBuffer<PendingActivity> buffer;
+
+    public CrewActivityRecorder(CrewActivityRepository crewActivityRepository,
+                                ScheduleRepository scheduleRepository,
+                                UserRepository userRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.crewActivityRepository = crewActivityRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.buffer = new WriteBehindBuffer<>("crew-activities", BATCH_SIZE, taskExecutor, this::persist);
+    }
+
+    public void record(Long scheduleId, String userId, CrewActivityType type) {
+        PendingActivity activity = new PendingActivity(scheduleId, userId, type, LocalDateTime.now(FORTALEZA_ZONE));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    buffer.add(activity);
+                }
+            });
+        } else {
+            buffer.add(activity);
+        }
+    }
+
+    public void recordAll(Long scheduleId, Collection<String> userIds, CrewActivityType type) {
+        userIds.forEach(userId -> record(scheduleId, userId, type));
+    }
+
+    public void flush() {
+        buffer.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int flushed = buffer.flush();
+        if (flushed > 0) {
+            log.info("{} eventos de tripulação gravados no encerramento", flushed);
+        }
+    }
+
+    private void persist(List<PendingActivity> batch) {
+        transactionTemplate.executeWithoutResult(status -> crewActivityRepository.saveAll(
+                batch.stream()
+                        .map(pending -> new CrewActivity(
+                                scheduleRepository.getReferenceById(pending.scheduleId()),
+                                userRepository.getReferenceById(pending.userId()),
+                                pending.type(),
+                                pending.timestamp()))
+                        .toList()));
+    }
+
+    private record PendingActivity(Long scheduleId, String userId, CrewActivityType type, LocalDateTime timestamp) {
+    }
+}
@@ -0,0 +1,308 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.discord.rest.DiscordMessageOps;
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.discord.rest.RestLane;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.repository.ScheduleRepository;
+import discord4j.rest.http.client.ClientException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reconciliação do estado do banco com as mensagens no Discord, em segundo plano depois do boot
+ * Confere as mensagens de sistema e, em lotes por keyset, a mensagem pública de cada escala ativa:
+ * mensagem existente volta para os mapas do {@link ScheduleMessageManager}, mensagem apagada é publicada
+ * de novo no mesmo canal e escala cujo canal não existe mais é encerrada como órfã (canal sem permissão
+ * de acesso só é pulado). As chamadas vão na fila de menor prioridade, com paralelismo limitado; se as
+ * filas de escrita estiverem cheias o lote espera,
+ * e um lote com erro é repetido a partir do último id concluído. Uma escala que falha em
+ * {@value #MAX_ATTEMPTS} tentativas é pulada, para não prender a reconciliação no mesmo lote.
+ */
+@Slf4j
+@Service
+public class DiscordStateReconciler {
+
+    private static final int BATCH_SIZE = 25;
+    private static final int PARALLELISM = 4;
+    private static final int MAX_QUEUED_WRITES = 20; // Acima disso o tráfego dos usuários tem a vez
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ScheduleRepository scheduleRepository;
+    private final ScheduleManager scheduleManager;
+    private final ScheduleMessageManager scheduleMessageManager;
+    private final ScheduleMessagePublisher messagePublisher;
+    private final DiscordMessageOps messageOps;
+    private final DiscordRestScheduler restScheduler;
+    private final TimerService timerService;
+    private final Scheduler blockingScheduler;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration backoff;
+
+    private volatile Run current;
+
+    public DiscordStateReconciler(ScheduleRepository scheduleRepository,
+                                  ScheduleManager scheduleManager,
+                                  ScheduleMessageManager scheduleMessageManager,
+                                  ScheduleMessagePublisher messagePublisher,
+                                  DiscordMessageOps messageOps,
+                                  DiscordRestScheduler restScheduler,
+                                  TimerService timerService,
+                                  Scheduler blockingScheduler,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${discord.reconcile.enabled:true}") boolean enabled,
+                                  @Value("${discord.reconcile.backoff-seconds:5}") long backoffSeconds) {
+        this.scheduleRepository = scheduleRepository;
+        this.scheduleManager = scheduleManager;
+        this.scheduleMessageManager = scheduleMessageManager;
+        this.messagePublisher = messagePublisher;
+        this.messageOps = messageOps;
+        this.restScheduler = restScheduler;
+        this.timerService = timerService;
+        this.blockingScheduler = blockingScheduler;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.backoff = Duration.ofSeconds(backoffSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (enabled) {
+            start();
+        } else {
+            log.info("Reconciliação com o Discord desativada");
+        }
+    }
+
+    /**
+     * Inicia uma reconciliação completa
+     * @return false se já houver uma em andamento
+     */
+    public synchronized boolean start() {
+        if (current != null) {
+            return false;
+        }
+        Run run = new Run(Instant.now());
+        current = run;
+        log.info("Reconciliação com o Discord iniciada");
+        timerService.schedule("discord-reconcile", Duration.ZERO, () -> verifySystemMessages(run));
+        return true;
+    }
+
+    public boolean isRunning() {
+        return current != null;
+    }
+
+    private void verifySystemMessages(Run run) {
+        Flux.fromIterable(scheduleMessageManager.getSystemMessageGuildIds())
+                .flatMap(guildId -> counted(run, scheduleMessageManager.verifySystemMessage(guildId)), PARALLELISM)
+                .doOnNext(recreated -> {
+                    if (recreated) {
+                        run.systemMessagesRecreated.incrementAndGet();
+                        run.restCalls.incrementAndGet(); // A criação da nova mensagem
+                    }
+                })
+                .then()
+                .subscribe(null,
+                        e -> {
+                            log.warn("Erro ao verificar mensagens de sistema: {}", e.getMessage());
+                            nextBatch(run, Duration.ZERO);
+                        },
+                        () -> nextBatch(run, Duration.ZERO));
+    }
+
+    private void nextBatch(Run run, Duration delay) {
+        timerService.schedule("discord-reconcile", delay, () -> reconcileBatch(run));
+    }
+
+    private void reconcileBatch(Run run) {
+        // Respeita os limites do Discord sem competir com as escritas já na fila
+        int queued = restScheduler.depth(RestLane.PUBLIC_EMBED) + restScheduler.depth(RestLane.SYSTEM_STATUS);
+        if (queued > MAX_QUEUED_WRITES) {
+            log.debug("Reconciliação aguardando: {} escritas na fila", queued);
+            nextBatch(run, backoff);
+            return;
+        }
+
+        List<Schedule> batch;
+        try {
+            batch = scheduleRepository.findActiveForReconciliation(run.cursor, run.startedAt, Limit.of(BATCH_SIZE));
+        } catch (RuntimeException e) {
+            log.warn("Erro ao carregar lote da reconciliação após a escala {}: {}", run.cursor, e.getMessage());
+            nextBatch(run, backoff);
+            return;
+        }
+        if (batch.isEmpty()) {
+            finish(run);
+            return;
+        }
+
+        Flux.fromIterable(batch)
+                .flatMap(schedule -> reconcileSchedule(run, schedule)
+                        .onErrorResume(e -> skipAfterAttempts(run, schedule, e))
+                        .doOnNext(outcome -> run.outcomes.get(outcome).incrementAndGet()), PARALLELISM)
+                .then()
+                .subscribe(null,
+                        e -> {
+                            // O cursor só avança com o lote inteiro: o lote é repetido, e quem já foi reparado só é conferido
+                            log.warn("Erro no lote da reconciliação após a escala {}: {}. Repetindo.", run.cursor, e.getMessage());
+                            nextBatch(run, backoff);
+                        },
+                        () -> {
+                            run.cursor = batch.get(batch.size() - 1).getId();
+                            nextBatch(run, Duration.ZERO);
+                        });
+    }
+
+    private Mono<Outcome> reconcileSchedule(Run run, Schedule schedule) {
+        String scheduleId = String.valueOf(schedule.getId());
+        String channelId = schedule.getChannelId();
+        String messageId = schedule.getMessageId();
+        if (channelId == null) {
+            return closeOrphan(run, schedule);
+        }
+        if (messageId == null) {
+            return republish(run, schedule);
+        }
+
+        return counted(run, restScheduler.submit(RestLane.SYSTEM_STATUS, DiscordRestScheduler.channelMessagesRoute(channelId),
+                        messageOps.exists(channelId, messageId)))
+                .flatMap(exists -> exists
+                        ? scheduleMessageManager.registerScheduleMessage(scheduleId, channelId, messageId).thenReturn(Outcome.VERIFIED)
+                        : republish(run, schedule))
+                .onErrorResume(DiscordStateReconciler::forbidden, e -> skipForbidden(schedule));
+    }
+
+    private Mono<Outcome> republish(Run run, Schedule schedule) {
+        log.warn("Mensagem pública da escala {} não encontrada no canal {}. Publicando de novo.", schedule.getId(), schedule.getChannelId());
+        return Mono.fromCallable(() -> scheduleRepository.findCrewNicknames(schedule.getId()))
+                .subscribeOn(blockingScheduler)
+                .flatMap(crew -> counted(run, messagePublisher.republishSchedulePublicMessage(schedule, crew)))
+                .thenReturn(Outcome.REPUBLISHED)
+                .onErrorResume(DiscordStateReconciler::channelGone, e -> closeOrphan(run, schedule))
+                .onErrorResume(DiscordStateReconciler::forbidden, e -> skipForbidden(schedule));
+    }
+
+    /**
+     * Sem permissão no canal (cargo ou permissão alterados) não é canal apagado: a escala continua
+     * ativa e é conferida de novo na próxima reconciliação
+     */
+    private Mono<Outcome> skipForbidden(Schedule schedule) {
+        log.warn("Sem acesso ao canal {} da escala {}. Pulando até a próxima reconciliação.",
+                schedule.getChannelId(), schedule.getId());
+        return Mono.just(Outcome.SKIPPED);
+    }
+
+    private Mono<Outcome> closeOrphan(Run run, Schedule schedule) {
+        log.warn("Escala {} sem canal utilizável no Discord. Encerrando como órfã.", schedule.getId());
+        run.guildsToRefresh.add(schedule.getGuildId());
+        return Mono.fromCallable(() -> scheduleManager.closeOrphanSchedule(schedule.getGuildId(), schedule.getId()))
+                .subscribeOn(blockingScheduler)
+                .thenReturn(Outcome.ORPHAN_CLOSED)
+                .onErrorResume(e -> {
+                    log.warn("Não foi possível encerrar a escala órfã {}: {}", schedule.getId(), e.getMessage());
+                    return Mono.just(Outcome.SKIPPED);
+                });
+    }
+
+    private Mono<Outcome> skipAfterAttempts(Run run, Schedule schedule, Throwable error) {
+        int attempts = run.failedAttempts.computeIfAbsent(schedule.getId(), id -> new AtomicInteger()).incrementAndGet();
+        if (attempts < MAX_ATTEMPTS) {
+            return Mono.error(error);
+        }
+        log.warn("Escala {} falhou {} vezes na reconciliação ({}). Pulando.", schedule.getId(), attempts, error.getMessage());
+        return Mono.just(Outcome.SKIPPED);
+    }
+
+    private void finish(Run run) {
+        run.guildsToRefresh.forEach(guildId -> counted(run, scheduleMessageManager.updateSystemMessage(guildId))
+                .subscribe(null, e -> log.warn("Erro ao atualizar mensagem de sistema da guilda {}: {}", guildId, e.getMessage())));
+
+        long elapsedNanos = System.nanoTime() - run.startNanos;
+        Timer.builder("discord.reconcile.duration")
+                .description("Duration of the background reconciliation between the database and Discord")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("discord.reconcile.rest.calls")
+                .description("Discord REST calls issued by the reconciliation")
+                .register(meterRegistry)
+                .increment(run.restCalls.get());
+        run.outcomes.forEach((outcome, count) -> Counter.builder("discord.reconcile.schedules")
+                .description("Active schedules reconciled against Discord, by outcome")
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(meterRegistry)
+                .increment(count.get()));
+
+        log.info("Reconciliação com o Discord concluída em {}ms: {} escalas conferidas, {} republicadas, {} órfãs encerradas, " +
+                        "{} puladas, {} mensagens de sistema recriadas, {} chamadas REST",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                run.outcomes.get(Outcome.VERIFIED).get(),
+                run.outcomes.get(Outcome.REPUBLISHED).get(),
+                run.outcomes.get(Outcome.ORPHAN_CLOSED).get(),
+                run.outcomes.get(Outcome.SKIPPED).get(),
+                run.systemMessagesRecreated.get(),
+                run.restCalls.get());
+        synchronized (this) {
+            current = null;
+        }
+    }
+
+    private static <T> Mono<T> counted(Run run, Mono<T> call) {
+        return Mono.defer(() -> {
+            run.restCalls.incrementAndGet();
+            return call;
+        });
+    }
+
+    private static boolean channelGone(Throwable e) {
+        return e instanceof ClientException clientException && clientException.getStatus().code() == 404;
+    }
+
+    private static boolean forbidden(Throwable e) {
+        return e instanceof ClientException clientException && clientException.getStatus().code() == 403;
+    }
+
+    private enum Outcome { VERIFIED, REPUBLISHED, ORPHAN_CLOSED, SKIPPED }
+
+    /**
+     * Estado de uma reconciliação: o cursor é o último id de escala com o lote inteiro concluído
+     */
+    private static final class Run {
+        private final Instant startedAt;
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger restCalls = new AtomicInteger();
+        private final AtomicInteger systemMessagesRecreated = new AtomicInteger();
+        private final Map<Outcome, AtomicInteger> outcomes = new EnumMap<>(Outcome.class);
+        private final Set<String> guildsToRefresh = ConcurrentHashMap.newKeySet();
+        private final Map<Long, AtomicInteger> failedAttempts = new ConcurrentHashMap<>();
+        private volatile long cursor;
+
+        private Run(Instant startedAt) {
+            this.startedAt = startedAt;
+            for (Outcome outcome : Outcome.values()) {
+                outcomes.put(outcome, new AtomicInteger());
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.gra.paradise.botattendance.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gra.paradise.botattendance.discord.DiscordGateway;
+import com.gra.paradise.botattendance.model.User;
+import discord4j.common.util.Snowflake;
+import discord4j.core.event.domain.guild.MemberJoinEvent;
+import discord4j.core.event.domain.guild.MemberLeaveEvent;
+import discord4j.core.event.domain.guild.MemberUpdateEvent;
+import discord4j.core.object.entity.Member;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diretório de nomes de exibição dos membros por guild
+ * Mantido pelos eventos GUILD_MEMBER_ADD/UPDATE/REMOVE do gateway; membros ainda não vistos
+ * são resolvidos em lote com um único request-guild-members por escala, sem REST por tripulante.
+ * Mudanças de nome também são repassadas ao UserService, que as grava em lote.
+ */
+@Slf4j
+@Service
+public class GuildMemberDirectory {
+
+    private static final int MAX_MEMBERS_PER_GUILD = 2_000;
+    private static final int MAX_IDS_PER_REQUEST = 100; // limite do opcode REQUEST_GUILD_MEMBERS
+    private static final Duration COLD_FETCH_TIMEOUT = Duration.ofSeconds(3);
+
+    private final DiscordGateway gateway;
+    private final UserService userService;
+    private final Map<String, Cache<String, String>> guilds = new ConcurrentHashMap<>();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter batchRequests;
+
+    public GuildMemberDirectory(DiscordGateway gateway, UserService userService, MeterRegistry meterRegistry) {
+        this.gateway = gateway;
+        this.userService = userService;
+        this.hits = Counter.builder("discord.members.lookups").tag("result", "hit")
+                .description("Crew display-name lookups served from the member directory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("discord.members.lookups").tag("result", "miss")
+                .description("Crew display-name lookups that needed a gateway member request")
+                .register(meterRegistry);
+        this.batchRequests = Counter.builder("discord.members.batch.requests")
+                .description("Batched request-guild-members calls for cold crew members")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        subscriptions.add(gateway.client().flatMapMany(client -> client.on(MemberJoinEvent.class))
+                .doOnNext(event -> remember(event.getMember()))
+                .onErrorContinue((e, o) -> log.warn("Erro ao processar entrada de membro: {}", e.getMessage()))
+                .subscribe());
+        subscriptions.add(gateway.client().flatMapMany(client -> client.on(MemberUpdateEvent.class))
+                .flatMap(event -> event.getMember()
+                        .doOnNext(member -> {
+                            remember(member);
+                            if (nameChanged(event, member)) {
+                                userService.refreshNames(member.getId().asString(), member.getUsername(), displayName(member));
+                            }
+                        })
+                        .switchIfEmpty(Mono.fromRunnable(() -> forget(event.getGuildId().asString(), event.getMemberId().asString()))))
+                .onErrorContinue((e, o) -> log.warn("Erro ao processar atualização de membro: {}", e.getMessage()))
+                .subscribe());
+        subscriptions.add(gateway.client().flatMapMany(client -> client.on(MemberLeaveEvent.class))
+                .doOnNext(event -> forget(event.getGuildId().asString(), event.getUser().getId().asString()))
+                .onErrorContinue((e, o) -> log.warn("Erro ao processar saída de membro: {}", e.getMessage()))
+                .subscribe());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.dispose();
+    }
+
+    /**
+     * Registra o nome de exibição visto numa interação ou evento
+     */
+    public void remember(String guildId, String userId, String displayName) {
+        if (guildId != null && userId != null && displayName != null) {
+            guild(guildId).put(userId, displayName);
+        }
+    }
+
+    public void remember(Member member) {
+        remember(member.getGuildId().asString(), member.getId().asString(), displayName(member));
+    }
+
+    public void forget(String guildId, String userId) {
+        Cache<String, String> members = guilds.get(guildId);
+        if (members != null) {
+            members.invalidate(userId);
+        }
+    }
+
+    public Optional<String> getDisplayName(String guildId, String userId) {
+        Cache<String, String> members = guilds.get(guildId);
+        return Optional.ofNullable(members != null ? members.getIfPresent(userId) : null);
+    }
+
+    /**
+     * Resolve os nomes da tripulação na ordem recebida.
+     * Acertos no diretório são O(1); os demais vão num único request-guild-members.
+     * Quem não for encontrado (ou se o gateway não responder a tempo) usa o nickname salvo no banco.
+     */
+    public Mono<List<String>> resolveDisplayNames(String guildId, Collection<User> crew) {
+        if (crew == null || crew.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        Map<String, String> resolved = new HashMap<>();
+        Set<Snowflake> cold = new LinkedHashSet<>();
+        for (User user : crew) {
+            Optional<String> cached = getDisplayName(guildId, user.getDiscordId());
+            if (cached.isPresent()) {
+                hits.increment();
+                resolved.put(user.getDiscordId(), cached.get());
+            } else {
+                misses.increment();
+                cold.add(Snowflake.of(user.getDiscordId()));
+            }
+        }
+
+        return fetchMembers(guildId, cold)
+                .doOnNext(member -> resolved.put(member.getId().asString(), displayName(member)))
+                .then(Mono.fromSupplier(() -> {
+                    List<String> names = new ArrayList<>(crew.size());
+                    for (User user : crew) {
+                        String name = resolved.get(user.getDiscordId());
+                        names.add(name != null ? name : Optional.ofNullable(user.getNickname()).orElse(user.getUsername()));
+                    }
+                    return names;
+                }));
+    }
+
+    private Flux<Member> fetchMembers(String guildId, Set<Snowflake> userIds) {
+        if (userIds.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Snowflake> ids = new ArrayList<>(userIds);
+        List<Set<Snowflake>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_REQUEST) {
+            batches.add(new LinkedHashSet<>(ids.subList(i, Math.min(i + MAX_IDS_PER_REQUEST, ids.size()))));
+        }
+        return Flux.fromIterable(batches)
+                .doOnNext(batch -> batchRequests.increment())
+                .concatMap(batch -> gateway.client().flatMapMany(client -> client.requestMembers(Snowflake.of(guildId), batch)))
+                .doOnNext(this::remember)
+                .timeout(COLD_FETCH_TIMEOUT)
+                .onErrorResume(e -> {
+                    log.warn("Falha ao buscar {} membros da guild {}: {}", userIds.size(), guildId, e.getMessage());
+                    return Flux.empty();
+                });
+    }
+
+    private Cache<String, String> guild(String guildId) {
+        return guilds.computeIfAbsent(guildId, id -> Caffeine.newBuilder()
+                .maximumSize(MAX_MEMBERS_PER_GUILD)
+                .expireAfterAccess(Duration.ofHours(12))
+                .build());
+    }
+
+    private static boolean nameChanged(MemberUpdateEvent event, Member member) {
+        // Atualizações de cargo também chegam aqui; só nickname ou username alterados vão para o banco
+        return event.getOld()
+                .map(old -> !displayName(old).equals(displayName(member)) || !old.getUsername().equals(member.getUsername()))
+                .orElse(true);
+    }
+
+    private static String displayName(Member member) {
+        return member.getNickname().orElse(member.getUsername());
+    }
+}
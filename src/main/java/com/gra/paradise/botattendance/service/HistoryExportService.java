@@ -0,0 +1,181 @@
+package com.gra.paradise.botattendance.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.repository.ScheduleExportRow;
+import com.gra.paradise.botattendance.repository.ScheduleLogExportRow;
+import com.gra.paradise.botattendance.utils.CsvWriter;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.gra.paradise.botattendance.config.DiscordConfig.FORTALEZA_ZONE;
+
+/**
+ * Exportação do histórico de escalas e logs (NDJSON ou CSV)
+ * As linhas vêm de um Stream JPA com fetch size e vão direto para a resposta, página por página
+ * via keyset (id > after): a memória fica constante mesmo exportando meses de dados.
+ */
+@Slf4j
+@Service
+public class HistoryExportService {
+
+    public static final int DEFAULT_LIMIT = 1000;
+    public static final int MAX_LIMIT = 10000;
+    private static final LocalDate EARLIEST = LocalDate.of(2020, 1, 1);
+
+    static final String SCHEDULES_HEADER = "id,titulo,aeronave,missao,piloto_id,piloto,inicio,fim,ativa,tripulantes";
+    static final String LOGS_HEADER = "id,escala_id,escala,horario,acao,usuario_id,usuario,detalhes";
+
+    public enum Format { NDJSON, CSV }
+
+    /**
+     * Filtros da exportação. Datas em horário de Fortaleza, {@code to} inclusivo; {@code after} é o último id recebido.
+     */
+    public record Filter(String guildId, LocalDate from, LocalDate to, AircraftType aircraftType, String userId,
+                         long after, int limit) {
+        public Filter {
+            from = from != null ? from : EARLIEST;
+            to = to != null ? to : LocalDate.now(FORTALEZA_ZONE);
+            limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        }
+    }
+
+    // Mesmo critério de antes nos repositórios; o filtro de usuário cobre quem criou a escala e quem embarcou nela
+    private static final String SCHEDULES_QUERY =
+            "SELECT new com.gra.paradise.botattendance.repository.ScheduleExportRow(" +
+            "s.id, s.title, s.aircraftType, s.missionType, s.createdById, s.createdByUsername, " +
+            "s.startTime, s.endTime, s.active, SIZE(s.crewMembers)) " +
+            "FROM Schedule s " +
+            "WHERE s.guildId = :guildId AND s.id > :afterId AND s.startTime >= :from AND s.startTime < :to " +
+            "AND (:aircraftType IS NULL OR s.aircraftType = :aircraftType) " +
+            "AND (:userId IS NULL OR s.createdById = :userId " +
+            "OR EXISTS (SELECT 1 FROM s.crewMembers u WHERE u.discordId = :userId)) " +
+            "ORDER BY s.id";
+    private static final String LOGS_QUERY =
+            "SELECT new com.gra.paradise.botattendance.repository.ScheduleLogExportRow(" +
+            "l.id, s.id, s.title, l.timestamp, l.action, l.userId, l.username, l.details) " +
+            "FROM ScheduleLog l JOIN l.schedule s " +
+            "WHERE s.guildId = :guildId AND l.id > :afterId AND l.timestamp >= :from AND l.timestamp < :to " +
+            "AND (:aircraftType IS NULL OR s.aircraftType = :aircraftType) " +
+            "AND (:userId IS NULL OR l.userId = :userId) " +
+            "ORDER BY l.id";
+    private static final int FETCH_SIZE = 500;
+
+    private final SessionFactory sessionFactory;
+    private final DataSource backgroundDataSource;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public HistoryExportService(EntityManagerFactory entityManagerFactory,
+                                @Qualifier("backgroundDataSource") DataSource backgroundDataSource,
+                                ObjectMapper objectMapper) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.backgroundDataSource = backgroundDataSource;
+        // Cursor e transação no pool de background, como no ScheduleReportService: uma exportação longa
+        // não segura conexão do pool das interações
+        this.readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(backgroundDataSource));
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return número de escalas escritas; menos que o limite indica a última página
+     */
+    public long exportSchedules(Filter filter, Format format, OutputStream out) throws IOException {
+        return export(format, out, SCHEDULES_HEADER,
+                session -> page(session.createQuery(SCHEDULES_QUERY, ScheduleExportRow.class), filter,
+                        filter.from().atStartOfDay(FORTALEZA_ZONE).toInstant(),
+                        filter.to().plusDays(1).atStartOfDay(FORTALEZA_ZONE).toInstant()),
+                row -> new Object[]{row.id(), row.title(), row.aircraftType(), row.missionType(), row.createdById(),
+                        row.createdByUsername(), row.startTime(), row.endTime(), row.active(), row.crewSize()},
+                filter.guildId());
+    }
+
+    /**
+     * @return número de logs escritos; menos que o limite indica a última página
+     */
+    public long exportLogs(Filter filter, Format format, OutputStream out) throws IOException {
+        return export(format, out, LOGS_HEADER,
+                session -> page(session.createQuery(LOGS_QUERY, ScheduleLogExportRow.class), filter,
+                        filter.from().atStartOfDay(),
+                        filter.to().plusDays(1).atStartOfDay()),
+                row -> new Object[]{row.id(), row.scheduleId(), row.scheduleTitle(), row.timestamp(), row.action(),
+                        row.userId(), row.username(), row.details()},
+                filter.guildId());
+    }
+
+    private static <T> Stream<T> page(Query<T> query, Filter filter, Object from, Object to) {
+        return query.setParameter("guildId", filter.guildId())
+                .setParameter("afterId", filter.after())
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("aircraftType", filter.aircraftType())
+                .setParameter("userId", filter.userId())
+                .setMaxResults(filter.limit())
+                .setFetchSize(FETCH_SIZE)
+                .setReadOnly(true)
+                .getResultStream();
+    }
+
+    private <T> long export(Format format, OutputStream out, String csvHeader, Function<Session, Stream<T>> query,
+                            Function<T, Object[]> csvColumns, String guildId) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(csvHeader);
+            writer.write('\n');
+        }
+        Long written;
+        try {
+            written = readOnlyTransaction.execute(status -> {
+                long[] count = {0};
+                // Sessão sem contexto compartilhado sobre a conexão da transação de background; o PostgreSQL
+                // só usa cursor (fetch size) dentro de uma transação
+                Connection connection = DataSourceUtils.getConnection(backgroundDataSource);
+                try (Session session = sessionFactory.withOptions().connection(connection).openSession();
+                     Stream<T> rows = query.apply(session)) {
+                    rows.forEach(row -> {
+                        try {
+                            if (format == Format.CSV) {
+                                CsvWriter.writeRow(writer, csvColumns.apply(row));
+                            } else {
+                                writer.write(objectMapper.writeValueAsString(row));
+                                writer.write('\n');
+                            }
+                            count[0]++;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+                return count[0];
+            });
+        } catch (UncheckedIOException e) {
+            // Cliente desconectou no meio da exportação
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exportação {} da guilda {}: {} linhas", format, guildId, written);
+        return written != null ? written : 0;
+    }
+}
@@ -0,0 +1,175 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.model.OtherMissionSuggestions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import static com.gra.paradise.botattendance.utils.SearchText.normalize;
+
+/**
+ * Sugestões de descrição para missões OUTROS, ordenadas por uso recente
+ * Trie de prefixos (da descrição inteira e de cada palavra) semeada com {@link OtherMissionSuggestions}
+ * e com o histórico das escalas. A pontuação usa decaimento "para frente": cada uso soma
+ * 2^((t - início)/meia-vida), então pontuações só crescem e cada nó pode guardar o seu top-K pronto.
+ * A consulta é descer o prefixo e devolver a lista do nó.
+ */
+@Slf4j
+@Component
+public class OtherMissionSuggestionIndex {
+
+    public static final int MAX_RESULTS = 25; // Limite de sugestões do autocomplete do Discord
+    public static final int MAX_DESCRIPTION_LENGTH = 100; // Mesmo limite do modal de descrição
+
+    private static final int MAX_DEPTH = 40; // Ninguém digita mais que isso antes de escolher
+    private static final String LOAD_HISTORY =
+            "SELECT outros_description, start_time FROM schedules " +
+            "WHERE mission_type = 'OUTROS' AND outros_description IS NOT NULL AND start_time < ?";
+    private static final Comparator<Suggestion> BY_SCORE =
+            Comparator.comparingDouble(Suggestion::score).reversed().thenComparing(Suggestion::text);
+
+    private final Node root = new Node();
+    private final Map<String, Suggestion> suggestions = new ConcurrentHashMap<>();
+    private final long epochMillis = System.currentTimeMillis();
+    private final double halfLifeMillis;
+
+    private final JdbcTemplate backgroundJdbcTemplate;
+    private final Executor taskExecutor;
+    private volatile boolean loaded;
+
+    public OtherMissionSuggestionIndex(@Qualifier("backgroundDataSource") DataSource backgroundDataSource,
+                                       @Qualifier("taskExecutor") Executor taskExecutor,
+                                       @Value("${schedule.outros.suggestions.half-life-days:30}") long halfLifeDays) {
+        this.backgroundJdbcTemplate = new JdbcTemplate(backgroundDataSource);
+        this.taskExecutor = taskExecutor;
+        this.halfLifeMillis = Duration.ofDays(halfLifeDays).toMillis();
+        // Sugestões fixas valem meio uso de hoje: aparecem de início, mas o uso real passa na frente
+        Instant seedTime = Instant.ofEpochMilli(epochMillis - (long) halfLifeMillis);
+        OtherMissionSuggestions.getSuggestions().forEach(text -> record(text, seedTime));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        taskExecutor.execute(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                // Escalas criadas depois do boot já foram contadas por record()
+                backgroundJdbcTemplate.query(LOAD_HISTORY, rs -> {
+                    record(rs.getString("outros_description"), rs.getTimestamp("start_time").toInstant());
+                }, new Timestamp(epochMillis));
+                log.info("Sugestões de missões OUTROS carregadas: {} descrições em {}ms", suggestions.size(), System.currentTimeMillis() - start);
+            } finally {
+                // Mesmo com falha na carga o índice segue sendo alimentado em tempo real: não segura a prontidão
+                loaded = true;
+            }
+        });
+    }
+
+    /**
+     * Conta um uso da descrição no instante informado (criação da escala)
+     */
+    public synchronized void record(String description, Instant when) {
+        if (description == null || description.isBlank()) {
+            return;
+        }
+        String text = description.trim();
+        String normalized = normalize(text);
+        Suggestion suggestion = suggestions.computeIfAbsent(normalized, key -> new Suggestion(text));
+        suggestion.text = text; // Mantém a grafia mais recente
+        suggestion.score += Math.pow(2, (when.toEpochMilli() - epochMillis) / halfLifeMillis);
+
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || (normalized.charAt(i - 1) == ' ' && normalized.charAt(i) != ' ')) {
+                promote(normalized.substring(i), suggestion);
+            }
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        Node node = root;
+        String normalized = normalize(prefix);
+        for (int i = 0; i < Math.min(normalized.length(), MAX_DEPTH) && node != null; i++) {
+            node = node.children.get(normalized.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        List<Suggestion> top = node.top;
+        List<String> result = new ArrayList<>(Math.min(limit, top.size()));
+        for (int i = 0; i < top.size() && result.size() < limit; i++) {
+            // Prefixos além da profundidade da trie são conferidos aqui
+            if (normalized.length() <= MAX_DEPTH || normalize(top.get(i).text).contains(normalized)) {
+                result.add(top.get(i).text);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Carga inicial concluída; usado pela prontidão do bot
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return suggestions.size();
+    }
+
+    private void promote(String key, Suggestion suggestion) {
+        Node node = root;
+        node.offer(suggestion);
+        for (int i = 0; i < Math.min(key.length(), MAX_DEPTH); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            node.offer(suggestion);
+        }
+    }
+
+    private static final class Suggestion {
+        private volatile String text;
+        private volatile double score;
+
+        private Suggestion(String text) {
+            this.text = text;
+        }
+
+        private double score() {
+            return score;
+        }
+
+        private String text() {
+            return text;
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        // Top-K da subárvore; trocado inteiro a cada escrita para leituras sem lock
+        private volatile List<Suggestion> top = List.of();
+
+        private void offer(Suggestion suggestion) {
+            List<Suggestion> updated = new ArrayList<>(top.size() + 1);
+            updated.addAll(top);
+            if (!updated.contains(suggestion)) {
+                updated.add(suggestion);
+            }
+            updated.sort(BY_SCORE);
+            top = List.copyOf(updated.subList(0, Math.min(updated.size(), MAX_RESULTS)));
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.discord.rest.DiscordMessageOps;
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.discord.rest.RestLane;
+import com.gra.paradise.botattendance.exception.ScheduleAlreadyClosedException;
+import com.gra.paradise.botattendance.exception.ScheduleNotFoundException;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.utils.HierarchicalTimingWheel.Timeout;
+import discord4j.core.object.component.ActionRow;
+import discord4j.core.object.component.Button;
+import discord4j.core.spec.MessageCreateSpec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import static com.gra.paradise.botattendance.config.DiscordConfig.FORTALEZA_ZONE;
+
+/**
+ * Encerramento automático de escalas esquecidas
+ * Cada escala ativa tem um prazo de inatividade na roda de tempo do {@link TimerService}, renovado a cada
+ * criação, embarque ou desembarque. Antes do prazo sai um lembrete no canal da escala com um botão para
+ * mantê-la aberta; se ninguém interagir, a escala é encerrada pelo mesmo caminho do botão "Encerrar Escala".
+ * Os prazos são reconstruídos do banco no boot a partir da última atividade registrada.
+ */
+@Slf4j
+@Service
+public class ScheduleAutoCloseService {
+
+    public static final String KEEP_PREFIX = "keep_schedule:";
+
+    private static final String LOAD_ACTIVE =
+            "SELECT s.id, s.guild_id, s.start_time, MAX(c.timestamp) AS last_activity " +
+            "FROM schedules s LEFT JOIN crew_activities c ON c.schedule_id = s.id " +
+            "WHERE s.active = TRUE GROUP BY s.id, s.guild_id, s.start_time";
+
+    private final ObjectProvider<ScheduleManager> scheduleManager;
+    private final ScheduleMessageManager scheduleMessageManager;
+    private final DiscordMessageOps messageOps;
+    private final DiscordRestScheduler restScheduler;
+    private final TimerService timerService;
+    private final JdbcTemplate backgroundJdbcTemplate;
+    private final Executor taskExecutor;
+    private final boolean enabled;
+    private final Duration inactivity;
+    private final Duration reminderLead;
+    private final Counter reminders;
+    private final Counter autoClosed;
+
+    private final Map<Long, Deadline> deadlines = new ConcurrentHashMap<>();
+
+    // ObjectProvider: o ScheduleManager renova os prazos a cada ação e este serviço encerra pelo ScheduleManager.
+    // Um proxy @Lazy de classe colide com o proxy transacional gerado pelo AOT e quebra o boot com -Pfast-startup.
+    public ScheduleAutoCloseService(ObjectProvider<ScheduleManager> scheduleManager,
+                                    ScheduleMessageManager scheduleMessageManager,
+                                    DiscordMessageOps messageOps,
+                                    DiscordRestScheduler restScheduler,
+                                    TimerService timerService,
+                                    @Qualifier("backgroundDataSource") DataSource backgroundDataSource,
+                                    @Qualifier("taskExecutor") Executor taskExecutor,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${schedule.auto-close.enabled:true}") boolean enabled,
+                                    @Value("${schedule.auto-close.inactivity-minutes:240}") long inactivityMinutes,
+                                    @Value("${schedule.auto-close.reminder-minutes:30}") long reminderMinutes) {
+        this.scheduleManager = scheduleManager;
+        this.scheduleMessageManager = scheduleMessageManager;
+        this.messageOps = messageOps;
+        this.restScheduler = restScheduler;
+        this.timerService = timerService;
+        this.backgroundJdbcTemplate = new JdbcTemplate(backgroundDataSource);
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        this.inactivity = Duration.ofMinutes(inactivityMinutes);
+        this.reminderLead = Duration.ofMinutes(Math.min(reminderMinutes, inactivityMinutes));
+        this.reminders = Counter.builder("schedules.auto_close.reminders")
+                .description("Inactivity reminders posted for active schedules")
+                .register(meterRegistry);
+        this.autoClosed = Counter.builder("schedules.auto_close.closed")
+                .description("Schedules closed automatically after the inactivity deadline")
+                .register(meterRegistry);
+        Gauge.builder("schedules.auto_close.tracked", deadlines, Map::size)
+                .description("Active schedules with a pending inactivity deadline")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Encerramento automático de escalas desativado");
+            return;
+        }
+        taskExecutor.execute(() -> {
+            long start = System.currentTimeMillis();
+            int[] restored = new int[1];
+            backgroundJdbcTemplate.query(LOAD_ACTIVE, rs -> {
+                Instant lastActivity = rs.getTimestamp("start_time").toInstant();
+                Timestamp lastCrewActivity = rs.getTimestamp("last_activity");
+                if (lastCrewActivity != null) {
+                    // crew_activities grava o horário local de Fortaleza
+                    Instant crewActivity = lastCrewActivity.toLocalDateTime().atZone(FORTALEZA_ZONE).toInstant();
+                    lastActivity = crewActivity.isAfter(lastActivity) ? crewActivity : lastActivity;
+                }
+                if (restore(rs.getString("guild_id"), rs.getLong("id"), lastActivity)) {
+                    restored[0]++;
+                }
+            });
+            log.info("Prazos de inatividade restaurados para {} escalas ativas em {}ms", restored[0], System.currentTimeMillis() - start);
+        });
+    }
+
+    /**
+     * Registra atividade na escala: o prazo volta a contar a partir de agora e um lembrete pendente é apagado
+     */
+    public void touch(String guildId, Long scheduleId) {
+        if (enabled && guildId != null && scheduleId != null) {
+            arm(guildId, scheduleId, Instant.now(), true);
+        }
+    }
+
+    /**
+     * Restaura o prazo de uma escala a partir da última atividade conhecida, sem sobrescrever um prazo
+     * que já tenha sido renovado depois do boot. Escalas já vencidas recebem o lembrete na hora.
+     */
+    public boolean restore(String guildId, Long scheduleId, Instant lastActivity) {
+        return enabled && arm(guildId, scheduleId, lastActivity, false);
+    }
+
+    /**
+     * Esquece a escala (encerrada ou removida): cancela o prazo e apaga o lembrete, se houver
+     */
+    public void forget(Long scheduleId) {
+        Deadline deadline = deadlines.remove(scheduleId);
+        if (deadline != null) {
+            discard(scheduleId, deadline);
+        }
+    }
+
+    public int tracked() {
+        return deadlines.size();
+    }
+
+    public Duration getInactivity() {
+        return inactivity;
+    }
+
+    private boolean arm(String guildId, Long scheduleId, Instant lastActivity, boolean replace) {
+        Deadline deadline = new Deadline(guildId, lastActivity.plus(inactivity));
+        if (replace) {
+            Deadline previous = deadlines.put(scheduleId, deadline);
+            if (previous != null) {
+                discard(scheduleId, previous);
+            }
+        } else if (deadlines.putIfAbsent(scheduleId, deadline) != null) {
+            return false;
+        }
+        deadline.timeout = timerService.schedule("schedule-auto-close-reminder",
+                until(deadline.closeAt.minus(reminderLead)), () -> remind(scheduleId, deadline));
+        return true;
+    }
+
+    private void remind(Long scheduleId, Deadline deadline) {
+        if (deadlines.get(scheduleId) != deadline) {
+            return; // Renovado ou esquecido enquanto a tarefa esperava o executor
+        }
+        Schedule schedule = scheduleManager.getObject().findByIdAndGuildId(scheduleId, deadline.guildId).orElse(null);
+        if (schedule == null || !schedule.isActive()) {
+            deadlines.remove(scheduleId, deadline);
+            return;
+        }
+
+        // Escala que venceu com o bot fora do ar ainda ganha a antecedência inteira do lembrete
+        Instant closeAt = Instant.now().plus(reminderLead);
+        closeAt = closeAt.isAfter(deadline.closeAt) ? closeAt : deadline.closeAt;
+        deadline.timeout = timerService.schedule("schedule-auto-close", until(closeAt), () -> close(scheduleId, deadline));
+
+        String channelId = schedule.getChannelId();
+        if (channelId == null || reminderLead.isZero()) {
+            return;
+        }
+        MessageCreateSpec reminder = MessageCreateSpec.builder()
+                .content(String.format("⏰ <@%s>, a escala **%s** está sem atividade. Ela será encerrada automaticamente <t:%d:R> se ninguém interagir.",
+                        schedule.getCreatedById(), schedule.getTitle(), closeAt.getEpochSecond()))
+                .addComponent(ActionRow.of(Button.secondary(KEEP_PREFIX + scheduleId, "Manter escala aberta")))
+                .build();
+        restScheduler.submit(RestLane.PUBLIC_EMBED, DiscordRestScheduler.channelMessagesRoute(channelId),
+                        messageOps.create(channelId, reminder))
+                .subscribe(message -> {
+                    deadline.reminderChannelId = channelId;
+                    deadline.reminderMessageId = message.id().asString();
+                    reminders.increment();
+                    log.info("Lembrete de inatividade enviado para a escala {} no canal {}", scheduleId, channelId);
+                    if (deadlines.get(scheduleId) != deadline) {
+                        deleteReminder(deadline); // A escala teve atividade enquanto o lembrete era enviado
+                    }
+                }, e -> log.warn("Erro ao enviar lembrete de inatividade da escala {}: {}", scheduleId, e.getMessage()));
+    }
+
+    private void close(Long scheduleId, Deadline deadline) {
+        if (!deadlines.remove(scheduleId, deadline)) {
+            return;
+        }
+        Schedule closed;
+        try {
+            closed = scheduleManager.getObject().autoCloseSchedule(deadline.guildId, scheduleId);
+        } catch (ScheduleAlreadyClosedException | ScheduleNotFoundException e) {
+            log.debug("Escala {} já não estava ativa no prazo de inatividade", scheduleId);
+            deleteReminder(deadline);
+            return;
+        }
+        autoClosed.increment();
+        log.info("Escala {} encerrada automaticamente após {} sem atividade", scheduleId, inactivity);
+
+        // Mesma limpeza do botão "Encerrar Escala": mensagem pública, referências e mensagem de sistema
+        Mono<Void> deletePublicMessage = closed.getChannelId() == null || closed.getMessageId() == null
+                ? Mono.empty()
+                : restScheduler.submit(RestLane.PUBLIC_EMBED, DiscordRestScheduler.channelMessagesRoute(closed.getChannelId()),
+                        messageOps.delete(closed.getChannelId(), closed.getMessageId(), "Escala encerrada por inatividade"));
+        deleteReminderMono(deadline)
+                .then(deletePublicMessage)
+                .onErrorResume(e -> {
+                    log.warn("Erro ao excluir mensagens da escala {} encerrada por inatividade: {}", scheduleId, e.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.defer(() -> scheduleMessageManager.removeScheduleMessage(String.valueOf(scheduleId), deadline.guildId)))
+                .subscribe(null, e -> log.warn("Erro ao remover referência da escala {}: {}", scheduleId, e.getMessage()));
+    }
+
+    private void discard(Long scheduleId, Deadline deadline) {
+        Timeout timeout = deadline.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        if (deadline.reminderMessageId != null) {
+            log.debug("Lembrete de inatividade da escala {} descartado", scheduleId);
+            deleteReminder(deadline);
+        }
+    }
+
+    private void deleteReminder(Deadline deadline) {
+        deleteReminderMono(deadline)
+                .subscribe(null, e -> log.warn("Erro ao excluir lembrete de inatividade: {}", e.getMessage()));
+    }
+
+    private Mono<Void> deleteReminderMono(Deadline deadline) {
+        String channelId = deadline.reminderChannelId;
+        String messageId = deadline.reminderMessageId;
+        if (channelId == null || messageId == null) {
+            return Mono.empty();
+        }
+        deadline.reminderMessageId = null;
+        return restScheduler.submit(RestLane.PUBLIC_EMBED, DiscordRestScheduler.channelMessagesRoute(channelId),
+                messageOps.delete(channelId, messageId, "Lembrete de inatividade"));
+    }
+
+    private static Duration until(Instant when) {
+        Duration delay = Duration.between(Instant.now(), when);
+        return delay.isNegative() ? Duration.ZERO : delay;
+    }
+
+    /**
+     * Prazo de uma escala; a identidade do objeto diz se um disparo ainda vale (touch troca o objeto)
+     */
+    private static final class Deadline {
+        private final String guildId;
+        private final Instant closeAt;
+        private volatile Timeout timeout;
+        private volatile String reminderChannelId;
+        private volatile String reminderMessageId;
+
+        private Deadline(String guildId, Instant closeAt) {
+            this.guildId = guildId;
+            this.closeAt = closeAt;
+        }
+    }
+}
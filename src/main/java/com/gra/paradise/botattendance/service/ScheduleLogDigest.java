@@ -0,0 +1,183 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.config.DiscordConfig;
+import com.gra.paradise.botattendance.discord.rest.DiscordMessageOps;
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.discord.rest.RestLane;
+import com.gra.paradise.botattendance.model.MissionType;
+import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.core.spec.MessageCreateSpec;
+import discord4j.core.spec.MessageEditSpec;
+import discord4j.discordjson.json.MessageData;
+import discord4j.rest.util.Color;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.gra.paradise.botattendance.config.DiscordConfig.FORTALEZA_ZONE;
+
+/**
+ * Modo resumo dos logs de escala
+ * Em vez de uma escrita no canal de logs por criação, embarque, desembarque e encerramento,
+ * as atividades ficam em memória e saem numa única edição por guilda e tipo de missão a cada intervalo.
+ * O encerramento de uma escala força o envio imediato.
+ */
+@Slf4j
+@Component
+public class ScheduleLogDigest {
+
+    // Abaixo do limite de 4096 caracteres da descrição do embed
+    private static final int MAX_DESCRIPTION_LENGTH = 4000;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM HH:mm:ss")
+            .withZone(ZoneId.of("America/Sao_Paulo"));
+
+    private final DiscordConfig discordConfig;
+    private final DiscordMessageOps messageOps;
+    private final DiscordRestScheduler restScheduler;
+    private final Map<DigestKey, Digest> digests = new ConcurrentHashMap<>();
+
+    private final Counter callsSaved;
+    private final Counter flushes;
+    private final Timer staleness;
+
+    public ScheduleLogDigest(DiscordConfig discordConfig,
+                             DiscordMessageOps messageOps,
+                             DiscordRestScheduler restScheduler,
+                             MeterRegistry meterRegistry) {
+        this.discordConfig = discordConfig;
+        this.messageOps = messageOps;
+        this.restScheduler = restScheduler;
+        this.callsSaved = Counter.builder("discord.logs.digest.calls.saved")
+                .description("Log channel writes avoided by folding activity into a digest edit")
+                .register(meterRegistry);
+        this.flushes = Counter.builder("discord.logs.digest.flushes")
+                .description("Digest edits sent to log channels")
+                .register(meterRegistry);
+        this.staleness = Timer.builder("discord.logs.digest.staleness")
+                .description("Age of the oldest buffered activity when its digest was sent")
+                .register(meterRegistry);
+    }
+
+    public void record(String guildId, MissionType missionType, String activity) {
+        Digest digest = digests.computeIfAbsent(new DigestKey(guildId, missionType), key -> new Digest());
+        String line = TIME_FORMATTER.format(Instant.now()) + " - " + activity;
+        synchronized (digest) {
+            if (digest.pending.isEmpty()) {
+                digest.oldestPendingNanos = System.nanoTime();
+            }
+            digest.pending.add(line);
+        }
+        log.debug("Atividade adicionada ao resumo de logs da guilda {} ({}): {}", guildId, missionType, activity);
+    }
+
+    public void flushAll() {
+        digests.keySet().forEach(key -> flush(key).subscribe());
+    }
+
+    public Mono<Void> flushNow(String guildId, MissionType missionType) {
+        return flush(new DigestKey(guildId, missionType));
+    }
+
+    private Mono<Void> flush(DigestKey key) {
+        Digest digest = digests.get(key);
+        if (digest == null) {
+            return Mono.empty();
+        }
+        String channelId = discordConfig.getLogChannelId(key.guildId(), key.missionType());
+        if (channelId == null) {
+            log.warn("Canal de logs não configurado para guilda {} e missão {}. Resumo mantido em memória.", key.guildId(), key.missionType());
+            return Mono.empty();
+        }
+
+        List<String> batch;
+        String messageId;
+        String description;
+        synchronized (digest) {
+            // Uma escrita por resumo de cada vez; o que chegar agora sai no próximo envio
+            if (digest.pending.isEmpty() || digest.writing) {
+                return Mono.empty();
+            }
+            batch = new ArrayList<>(digest.pending);
+            digest.pending.clear();
+            digest.writing = true;
+            staleness.record(System.nanoTime() - digest.oldestPendingNanos, TimeUnit.NANOSECONDS);
+
+            String lines = String.join("\n", batch);
+            boolean startNewMessage = digest.messageId == null
+                    || digest.posted.length() + lines.length() + 1 > MAX_DESCRIPTION_LENGTH;
+            messageId = startNewMessage ? null : digest.messageId;
+            description = startNewMessage ? lines : digest.posted + "\n" + lines;
+        }
+
+        EmbedCreateSpec embed = digestEmbed(key.missionType(), description);
+        Mono<MessageData> write = messageId == null
+                ? messageOps.create(channelId, MessageCreateSpec.builder().addEmbed(embed).build())
+                : messageOps.editOrRecreate(channelId, messageId,
+                MessageEditSpec.builder().addEmbed(embed).build(),
+                MessageCreateSpec.builder().addEmbed(embed).build());
+
+        return restScheduler.submit(RestLane.LOG, DiscordRestScheduler.channelMessagesRoute(channelId), write)
+                .doOnNext(message -> {
+                    synchronized (digest) {
+                        digest.messageId = message.id().asString();
+                        digest.posted = truncateToLimit(description);
+                    }
+                    flushes.increment();
+                    callsSaved.increment(batch.size() - 1);
+                    log.info("Resumo de logs enviado para guilda {} ({}): {} atividades em uma escrita", key.guildId(), key.missionType(), batch.size());
+                })
+                .doOnError(e -> {
+                    log.error("Erro ao enviar resumo de logs da guilda {} ({}): {}", key.guildId(), key.missionType(), e.getMessage());
+                    synchronized (digest) {
+                        // Devolve as atividades para o início da fila; saem no próximo envio
+                        digest.pending.addAll(0, batch);
+                    }
+                })
+                .doFinally(signal -> {
+                    synchronized (digest) {
+                        digest.writing = false;
+                    }
+                })
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private static String truncateToLimit(String description) {
+        return description.length() <= MAX_DESCRIPTION_LENGTH
+                ? description
+                : description.substring(description.length() - MAX_DESCRIPTION_LENGTH);
+    }
+
+    private static EmbedCreateSpec digestEmbed(MissionType missionType, String description) {
+        return EmbedCreateSpec.builder()
+                .title("📋 Resumo de Escalas: " + missionType.getDisplayName())
+                .description(truncateToLimit(description))
+                .color(Color.BLUE)
+                .footer(EmbedFactory.FOOTER_TEXT, DiscordConfig.GRA_IMAGE_URL)
+                .timestamp(ZonedDateTime.now(FORTALEZA_ZONE).toInstant())
+                .build();
+    }
+
+    private record DigestKey(String guildId, MissionType missionType) {}
+
+    private static final class Digest {
+        private final List<String> pending = new ArrayList<>();
+        private long oldestPendingNanos;
+        private boolean writing;
+        private String messageId;
+        private String posted = "";
+    }
+}
@@ -1,64 +1,135 @@
 package com.gra.paradise.botattendance.service;
 
 import com.gra.paradise.botattendance.config.DiscordConfig;
+import com.gra.paradise.botattendance.discord.rest.DiscordMessageOps;
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.discord.rest.RestLane;
 import com.gra.paradise.botattendance.model.*;
 import com.gra.paradise.botattendance.repository.GuildConfigRepository;
 import com.gra.paradise.botattendance.repository.ScheduleLogRepository;
 import com.gra.paradise.botattendance.repository.ScheduleRepository;
-import discord4j.common.util.Snowflake;
-import discord4j.core.GatewayDiscordClient;
-import discord4j.core.object.entity.Message;
-import discord4j.core.object.entity.channel.MessageChannel;
 import discord4j.core.spec.EmbedCreateSpec;
 import discord4j.core.spec.MessageCreateSpec;
 import discord4j.core.spec.MessageEditSpec;
+import discord4j.discordjson.json.MessageData;
 import discord4j.rest.util.Color;
-import lombok.RequiredArgsConstructor;
+import com.gra.paradise.botattendance.utils.WriteBehindBuffer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
-import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
 
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import static com.gra.paradise.botattendance.config.DiscordConfig.FORTALEZA_ZONE;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ScheduleLogManager {
 
     private final ScheduleLogRepository scheduleLogRepository;
     private final ScheduleRepository scheduleRepository;
-    private final GatewayDiscordClient discordClient;
+    private final DiscordMessageOps messageOps;
     private final DiscordConfig discordConfig;
     private final GuildConfigRepository guildConfigRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DiscordRestScheduler restScheduler;
+    private final ScheduleLogDigest logDigest;
+    private final ScheduleReportService reportService;
+    private final WriteBehindBuffer<ScheduleLog> pendingLogs;
+    private final Scheduler blockingScheduler;
 
     private final Map<String, Map<Long, String>> scheduleLogMessages = new HashMap<>();
+    // Tópicos abertos nesta execução; o ID também fica em Schedule.logThreadId e sobrevive a um restart
+    private final Map<Long, String> scheduleLogThreads = new ConcurrentHashMap<>();
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")
             .withZone(ZoneId.of("America/Sao_Paulo"));
     private static final int MAX_FIELD_LENGTH = 1024; // Discord embed field character limit
+    private static final int LOG_BATCH_SIZE = 20; // Igual ao hibernate.jdbc.batch_size
+
+    public ScheduleLogManager(ScheduleLogRepository scheduleLogRepository,
+                              ScheduleRepository scheduleRepository,
+                              DiscordMessageOps messageOps,
+                              DiscordConfig discordConfig,
+                              GuildConfigRepository guildConfigRepository,
+                              TransactionTemplate transactionTemplate,
+                              DiscordRestScheduler restScheduler,
+                              ScheduleLogDigest logDigest,
+                              ScheduleReportService reportService,
+                              @Qualifier("taskExecutor") Executor taskExecutor,
+                              Scheduler blockingScheduler) {
+        this.scheduleLogRepository = scheduleLogRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.messageOps = messageOps;
+        this.discordConfig = discordConfig;
+        this.guildConfigRepository = guildConfigRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.restScheduler = restScheduler;
+        this.logDigest = logDigest;
+        this.reportService = reportService;
+        this.pendingLogs = new WriteBehindBuffer<>("schedule-logs", LOG_BATCH_SIZE, taskExecutor, this::persistLogs);
+        this.blockingScheduler = blockingScheduler;
+    }
 
-    @Transactional
-    @Async("taskExecutor") // Executar de forma assíncrona para não bloquear eventos Discord
+    /**
+     * Registra um log de escala em modo write-behind: o log entra no buffer e é inserido
+     * em lote junto com os logs das outras escalas, sem round trip por linha. Dentro de uma transação
+     * o log só entra no buffer após o commit: a escala já está no banco quando o lote for gravado
+     * e uma ação desfeita não deixa log.
+     */
     public void createScheduleLog(Schedule schedule, String action, String userId, String username, String details) {
-        ScheduleLog scheduleLog = new ScheduleLog(schedule, action, userId, username, details);
-        scheduleLogRepository.save(scheduleLog);
-        log.info("Log salvo: {} para escala {} por usuário {} na guilda {}", action, schedule.getId(), username, schedule.getGuildId());
+        ScheduleLog entry = new ScheduleLog(schedule, action, userId, username, details);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingLogs.add(entry);
+                }
+            });
+        } else {
+            pendingLogs.add(entry);
+        }
+        log.info("Log registrado: {} para escala {} por usuário {} na guilda {}", action, schedule.getId(), username, schedule.getGuildId());
+    }
+
+    public void flushPendingLogs() {
+        pendingLogs.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int flushed = pendingLogs.flush();
+        if (flushed > 0) {
+            log.info("{} logs de escala gravados no encerramento", flushed);
+        }
+    }
+
+    private void persistLogs(List<ScheduleLog> batch) {
+        transactionTemplate.executeWithoutResult(status -> scheduleLogRepository.saveAll(batch));
     }
 
     @Transactional
@@ -114,18 +185,41 @@ public class ScheduleLogManager {
             return Mono.empty();
         }
 
+        LogMode logMode = discordConfig.getLogMode(guildId, schedule.getMissionType());
+        if (logMode == LogMode.DIGEST) {
+            logDigest.record(guildId, schedule.getMissionType(), String.format("✅ **%s** criada por %s (%s)",
+                    schedule.getTitle(), schedule.getCreatedByUsername(), schedule.getAircraftType().getDisplayName()));
+            return Mono.empty();
+        }
+
         return sendLogEmbed(guildId, logEmbedBuilder.build(), schedule.getMissionType())
                 .doOnNext(message -> {
-                    String messageId = message.getId().asString();
+                    String messageId = message.id().asString();
                     scheduleLogMessages.computeIfAbsent(guildId, k -> new HashMap<>()).put(schedule.getId(), messageId);
                     log.info("Log de criação da escala {} registrado com mensagem ID {} na guilda {}", schedule.getId(), messageId, guildId);
                 })
+                .flatMap(message -> logMode == LogMode.THREAD
+                        ? openLogThread(schedule.getId(), schedule.getTitle(), channelId, message.id().asString())
+                        : Mono.empty())
                 .doOnError(e -> log.error("Erro ao enviar log de criação da escala {} na guilda {}: {}", schedule.getId(), guildId, e.getMessage()))
                 .then();
     }
 
     @Transactional
     public Mono<Void> updateScheduleLogMessage(String guildId, Schedule schedule, String activityMessage) {
+        LogMode logMode = discordConfig.getLogMode(guildId, schedule.getMissionType());
+        if (logMode == LogMode.DIGEST) {
+            logDigest.record(guildId, schedule.getMissionType(), "✈️ **" + schedule.getTitle() + "**: " + activityMessage);
+            return Mono.empty();
+        }
+
+        // Modo tópico: só a atividade nova sai, o cabeçalho fica intacto até o encerramento
+        String threadId = logThreadId(schedule);
+        if (logMode == LogMode.THREAD && threadId != null) {
+            return appendToLogThread(threadId, formatActivity(activityMessage, Instant.now()))
+                    .doOnError(e -> log.error("Erro ao registrar atividade no tópico da escala {} na guilda {}: {}", schedule.getId(), guildId, e.getMessage()));
+        }
+
         Hibernate.initialize(schedule);
         Hibernate.initialize(schedule.getCrewMembers());
         schedule.initializeCrewMembers();
@@ -173,18 +267,9 @@ public class ScheduleLogManager {
             updatedLogEmbedBuilder.addField(fieldTitle, activityHistoryChunks.get(i).isEmpty() ? "Nenhuma atividade registrada" : activityHistoryChunks.get(i), false);
         }
 
-        return discordClient.getChannelById(Snowflake.of(channelId))
-                .ofType(MessageChannel.class)
-                .flatMap(channel -> channel.getMessageById(Snowflake.of(messageId))
-                        .flatMap(message -> message.edit(MessageEditSpec.builder()
-                                .addEmbed(updatedLogEmbedBuilder.build())
-                                .build()))
-                        .onErrorResume(e -> {
-                            log.warn("Erro ao atualizar mensagem de log {}: {}. Criando nova mensagem.", messageId, e.getMessage());
-                            return sendLogEmbed(guildId, updatedLogEmbedBuilder.build(), schedule.getMissionType())
-                                    .doOnNext(newMessage -> scheduleLogMessages.computeIfAbsent(guildId, k -> new HashMap<>()).put(schedule.getId(), newMessage.getId().asString()));
-                        }))
-                .then()
+        // Edições ainda na fila para a mesma escala são substituídas por esta, que já traz o histórico completo
+        return restScheduler.submit(RestLane.LOG, DiscordRestScheduler.channelMessagesRoute(channelId), logSupersedeKey(schedule.getId()),
+                        editOrRepostLog(guildId, schedule.getId(), channelId, messageId, updatedLogEmbedBuilder.build()))
                 .doOnSuccess(v -> log.info("Log da escala {} atualizado com sucesso na guilda {}", schedule.getId(), guildId))
                 .doOnError(e -> log.error("Erro ao atualizar log da escala {} na guilda {}: {}", schedule.getId(), guildId, e.getMessage()));
     }
@@ -199,8 +284,17 @@ public class ScheduleLogManager {
         String crewList = crewNicknames.isEmpty() ? "Nenhum tripulante embarcou nesta escala"
                 : String.join(", ", crewNicknames);
 
-        List<String> activityHistoryChunks = splitActivityHistory(getRecentLogs(scheduleId));
-        log.info("Histórico de atividades para escala final {}: {}", scheduleId, String.join("\n", activityHistoryChunks));
+        LogMode logMode = discordConfig.getLogMode(guildId, missionType);
+        if (logMode == LogMode.DIGEST) {
+            // O encerramento não espera o intervalo: o resumo da guilda sai na hora
+            logDigest.record(guildId, missionType, String.format("🏁 **%s** encerrada por %s | Piloto: %s | Duração: %s | Tripulantes: %s",
+                    title, closedByName, pilotName, duration, crewList));
+            // O relatório em CSV sai depois do resumo, na mesma fila LOG; o Mono só roda após o commit
+            String channelId = discordConfig.getLogChannelId(guildId, missionType);
+            Mono<Void> flush = logDigest.flushNow(guildId, missionType);
+            return channelId == null ? flush
+                    : flush.then(Mono.defer(() -> publishReport(scheduleId, title, channelId)));
+        }
 
         Schedule schedule = scheduleRepository.findByIdAndGuildId(scheduleId, guildId)
                 .orElseThrow(() -> new IllegalArgumentException("Schedule não encontrado: " + scheduleId));
@@ -208,6 +302,13 @@ public class ScheduleLogManager {
         Hibernate.initialize(schedule.getCrewMembers());
         schedule.initializeCrewMembers();
 
+        // O embed final leva só o resumo; o histórico completo vai no tópico ou no relatório em anexo
+        String threadId = logThreadId(schedule);
+        scheduleLogThreads.remove(scheduleId);
+        String historySummary = threadId != null
+                ? "Histórico completo no tópico <#" + threadId + ">"
+                : "Histórico completo no relatório em anexo (CSV)";
+
         EmbedCreateSpec.Builder finalLogEmbedBuilder = EmbedCreateSpec.builder()
                 .title("🏁 Escala Encerrada: " + title)
                 .description("Esta escala de voo foi concluída")
@@ -230,35 +331,30 @@ public class ScheduleLogManager {
                 .footer(EmbedFactory.FOOTER_TEXT, DiscordConfig.GRA_IMAGE_URL)
                 .timestamp(ZonedDateTime.now(FORTALEZA_ZONE).toInstant());
 
-        // Add activity history chunks as separate fields
-        for (int i = 0; i < activityHistoryChunks.size(); i++) {
-            String fieldTitle = i == 0 ? "Histórico de Atividades" : "Histórico de Atividades (continuação " + (i + 1) + ")";
-            finalLogEmbedBuilder.addField(fieldTitle, activityHistoryChunks.get(i).isEmpty() ? "Nenhuma atividade registrada" : activityHistoryChunks.get(i), false);
-        }
+        finalLogEmbedBuilder.addField("Histórico de Atividades", historySummary, false);
 
         Map<Long, String> guildMessages = scheduleLogMessages.getOrDefault(guildId, new HashMap<>());
         String messageId = guildMessages.get(scheduleId);
         String channelId = discordConfig.getLogChannelId(guildId, missionType);
 
         Mono<Void> sendOrUpdateLog = (messageId != null && channelId != null)
-                ? discordClient.getChannelById(Snowflake.of(channelId))
-                .ofType(MessageChannel.class)
-                .flatMap(channel -> channel.getMessageById(Snowflake.of(messageId))
-                        .flatMap(message -> message.edit(MessageEditSpec.builder()
-                                .addEmbed(finalLogEmbedBuilder.build())
-                                .build()))
-                        .onErrorResume(e -> {
-                            log.warn("Erro ao atualizar mensagem de log {}: {}. Criando nova mensagem.", messageId, e.getMessage());
-                            return sendLogEmbed(guildId, finalLogEmbedBuilder.build(), missionType)
-                                    .doOnNext(newMessage -> scheduleLogMessages.computeIfAbsent(guildId, k -> new HashMap<>()).put(scheduleId, newMessage.getId().asString()));
-                        })
-                        .then())
+                // O log final substitui edições de andamento ainda na fila para a escala
+                ? restScheduler.submit(RestLane.LOG, DiscordRestScheduler.channelMessagesRoute(channelId), logSupersedeKey(scheduleId),
+                editOrRepostLog(guildId, scheduleId, channelId, messageId, finalLogEmbedBuilder.build()))
                 : (channelId != null)
                 ? sendLogEmbed(guildId, finalLogEmbedBuilder.build(), missionType)
-                .doOnNext(message -> scheduleLogMessages.computeIfAbsent(guildId, k -> new HashMap<>()).put(scheduleId, message.getId().asString()))
+                .doOnNext(message -> scheduleLogMessages.computeIfAbsent(guildId, k -> new HashMap<>()).put(scheduleId, message.id().asString()))
                 .then()
                 : Mono.empty();
 
+        if (threadId != null) {
+            sendOrUpdateLog = sendOrUpdateLog.then(appendToLogThread(threadId,
+                    formatActivity("🏁 Escala encerrada por " + closedByName + " (duração " + duration + ")", endTime)));
+        }
+        if (channelId != null) {
+            publishReportAfterCommit(scheduleId, title, threadId != null ? threadId : channelId);
+        }
+
         return sendOrUpdateLog
                 .doOnSuccess(v -> log.info("Log final da escala {} enviado com sucesso na guilda {}", scheduleId, guildId))
                 .doOnError(e -> log.error("Falha ao enviar log final da escala {} na guilda {}: {}", scheduleId, guildId, e.getMessage()));
@@ -266,12 +362,22 @@ public class ScheduleLogManager {
 
     @Transactional(readOnly = true)
     public List<ScheduleLog> getRecentLogs(Long scheduleId) {
-        List<ScheduleLog> logs = scheduleLogRepository.findByScheduleIdOrderByTimestampAsc(scheduleId);
+        // Pendentes primeiro: um log gravado entre as duas leituras aparece no banco e é descartado pelo ID
+        List<ScheduleLog> pending = pendingLogs.pending(entry -> entry.getSchedule() != null
+                && scheduleId.equals(entry.getSchedule().getId()));
+        List<ScheduleLog> logs = new ArrayList<>(scheduleLogRepository.findByScheduleIdOrderByTimestampAsc(scheduleId));
         for (ScheduleLog log : logs) {
             Hibernate.initialize(log.getSchedule());
             Hibernate.initialize(log.getSchedule().getCrewMembers());
             log.getSchedule().initializeCrewMembers();
         }
+        if (!pending.isEmpty()) {
+            Set<Long> persistedIds = logs.stream().map(ScheduleLog::getId).collect(Collectors.toSet());
+            pending.stream()
+                    .filter(entry -> entry.getId() == null || !persistedIds.contains(entry.getId()))
+                    .forEach(logs::add);
+            logs.sort(Comparator.comparing(ScheduleLog::getTimestamp));
+        }
         log.info("Logs encontrados para escala {}: {}", scheduleId, logs);
         return logs; // Return all logs without truncation
     }
@@ -353,28 +459,130 @@ public class ScheduleLogManager {
 
     private Mono<Void> sendLogMessage(String guildId, String content, MissionType missionType) {
         String channelId = discordConfig.getLogChannelId(guildId, missionType);
-        if (channelId == null || discordClient == null) {
+        if (channelId == null) {
             log.error("Canal de logs não configurado para guilda {} e missão {}.", guildId, missionType);
             return Mono.empty();
         }
 
-        return discordClient.getChannelById(Snowflake.of(channelId))
-                .ofType(MessageChannel.class)
-                .flatMap(channel -> channel.createMessage(content))
+        return restScheduler.submit(RestLane.LOG, DiscordRestScheduler.channelMessagesRoute(channelId),
+                        messageOps.create(channelId, MessageCreateSpec.builder().content(content).build()))
                 .then();
     }
 
-    private Mono<Message> sendLogEmbed(String guildId, EmbedCreateSpec embed, MissionType missionType) {
+    private Mono<MessageData> sendLogEmbed(String guildId, EmbedCreateSpec embed, MissionType missionType) {
         String channelId = discordConfig.getLogChannelId(guildId, missionType);
-        if (channelId == null || discordClient == null) {
+        if (channelId == null) {
             log.error("Canal de logs não configurado para guilda {} e missão {}.", guildId, missionType);
             return Mono.empty();
         }
 
-        return discordClient.getChannelById(Snowflake.of(channelId))
-                .ofType(MessageChannel.class)
-                .flatMap(channel -> channel.createMessage(MessageCreateSpec.builder()
-                        .addEmbed(embed)
-                        .build()));
+        return restScheduler.submit(RestLane.LOG, DiscordRestScheduler.channelMessagesRoute(channelId),
+                messageOps.create(channelId, MessageCreateSpec.builder().addEmbed(embed).build()));
+    }
+
+    /**
+     * Edita o log direto pelo ID; se a mensagem foi apagada no Discord, publica outra e passa a usar o novo ID.
+     * Roda dentro de uma chamada já agendada, por isso não reagenda.
+     */
+    private Mono<Void> editOrRepostLog(String guildId, Long scheduleId, String channelId, String messageId, EmbedCreateSpec embed) {
+        return messageOps.editOrRecreate(channelId, messageId,
+                        MessageEditSpec.builder().addEmbed(embed).build(),
+                        MessageCreateSpec.builder().addEmbed(embed).build())
+                .doOnNext(message -> {
+                    String currentId = message.id().asString();
+                    if (!currentId.equals(messageId)) {
+                        scheduleLogMessages.computeIfAbsent(guildId, k -> new HashMap<>()).put(scheduleId, currentId);
+                    }
+                })
+                .then();
+    }
+
+    private String logThreadId(Schedule schedule) {
+        String threadId = scheduleLogThreads.get(schedule.getId());
+        return threadId != null ? threadId : schedule.getLogThreadId();
+    }
+
+    /**
+     * Abre o tópico da escala sob a mensagem de log e grava o ID na escala. Se falhar, a escala segue no modo embed.
+     */
+    private Mono<Void> openLogThread(Long scheduleId, String title, String channelId, String messageId) {
+        return restScheduler.submit(RestLane.LOG, DiscordRestScheduler.channelMessagesRoute(channelId),
+                        messageOps.startThread(channelId, messageId, title))
+                .doOnNext(threadId -> {
+                    scheduleLogThreads.put(scheduleId, threadId);
+                    log.info("Tópico de log {} aberto para escala {}", threadId, scheduleId);
+                })
+                .flatMap(threadId -> Mono.fromCallable(() -> scheduleRepository.updateLogThreadId(scheduleId, threadId))
+                        .subscribeOn(blockingScheduler))
+                .onErrorResume(e -> {
+                    log.warn("Não foi possível abrir tópico de log para escala {}: {}. Usando embed.", scheduleId, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Cada atividade é uma mensagem curta no tópico: o payload não cresce com o histórico
+     */
+    private Mono<Void> appendToLogThread(String threadId, String line) {
+        return restScheduler.submit(RestLane.LOG, DiscordRestScheduler.channelMessagesRoute(threadId),
+                        messageOps.create(threadId, MessageCreateSpec.builder().content(line).build()))
+                .then();
+    }
+
+    /**
+     * O relatório sai depois do commit do encerramento, para incluir os desembarques automáticos,
+     * e fora da thread da interação: quem encerra não espera o arquivo ser gerado.
+     */
+    private void publishReportAfterCommit(Long scheduleId, String title, String channelId) {
+        Runnable publish = () -> publishReport(scheduleId, title, channelId).subscribe();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    private Mono<Void> publishReport(Long scheduleId, String title, String channelId) {
+        return Mono.fromCallable(() -> {
+                    // Logs ainda no buffer precisam estar no banco antes de o cursor abrir
+                    pendingLogs.flush();
+                    return reportService.writeReport(scheduleId);
+                })
+                .subscribeOn(blockingScheduler)
+                .flatMap(report -> Mono.using(
+                                () -> Files.newInputStream(report.file()),
+                                in -> restScheduler.submit(RestLane.LOG, DiscordRestScheduler.channelMessagesRoute(channelId),
+                                        messageOps.create(channelId, MessageCreateSpec.builder()
+                                                .content("📎 Relatório da escala **" + title + "**: " + report.rows() + " registros")
+                                                .addFile(report.fileName(), in)
+                                                .build())),
+                                in -> {
+                                    try {
+                                        in.close();
+                                    } catch (IOException e) {
+                                        log.debug("Erro ao fechar relatório da escala {}: {}", scheduleId, e.getMessage());
+                                    }
+                                })
+                        .doFinally(signal -> {
+                            try {
+                                Files.deleteIfExists(report.file());
+                            } catch (IOException e) {
+                                log.warn("Não foi possível apagar o relatório temporário {}: {}", report.file(), e.getMessage());
+                            }
+                        }))
+                .doOnNext(message -> log.info("Relatório da escala {} publicado no canal {}", scheduleId, channelId))
+                .doOnError(e -> log.error("Erro ao publicar relatório da escala {}: {}", scheduleId, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private static String logSupersedeKey(Long scheduleId) {
+        return "schedule-log:" + scheduleId;
     }
 }
@@ -2,7 +2,6 @@ package com.gra.paradise.botattendance.service;
 
 import com.gra.paradise.botattendance.exception.*;
 import com.gra.paradise.botattendance.model.*;
-import com.gra.paradise.botattendance.repository.ScheduleLogRepository;
 import com.gra.paradise.botattendance.repository.ScheduleRepository;
 import com.gra.paradise.botattendance.service.PerformanceMetricsService;
 import com.gra.paradise.botattendance.service.CacheService;
@@ -10,8 +9,10 @@ import com.gra.paradise.botattendance.utils.PerformanceUtils;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
 
 import java.time.Instant;
 import java.time.ZoneId;
@@ -26,24 +27,18 @@ import static com.gra.paradise.botattendance.config.DiscordConfig.FORTALEZA_ZONE
 public class ScheduleManager {
 
     private final ScheduleRepository scheduleRepository;
-    private final ScheduleLogRepository scheduleLogRepository;
     private final UserService userService;
     private final ScheduleLogManager logManager;
     private final DiscordService discordService;
     private final PerformanceMetricsService performanceMetrics;
     private final CacheService cacheService;
+    private final CrewActivityRecorder crewActivityRecorder;
+    private final OtherMissionSuggestionIndex missionSuggestions;
+    private final ScheduleAutoCloseService autoClose;
 
-    @org.springframework.transaction.annotation.Transactional
-    @Scheduled(cron = "0 0 0 * * ?")
-    public void cleanOldLogs() {
-        ZonedDateTime threshold = ZonedDateTime.now(FORTALEZA_ZONE).minusDays(30);
-        List<Schedule> oldSchedules = scheduleRepository.findByEndTimeBefore(threshold.toInstant());
-        for (Schedule schedule : oldSchedules) {
-            scheduleLogRepository.deleteByScheduleId(schedule.getId());
-            scheduleRepository.delete(schedule);
-            log.info("Escala {} e seus logs foram deletados (mais de 30 dias)", schedule.getId());
-        }
-    }
+    private static final String SYSTEM_USER_ID = "system";
+    private static final String AUTO_CLOSE_NAME = "Encerramento automático";
+    private static final String ORPHAN_CLOSE_NAME = "Reconciliação";
 
     private Schedule validateScheduleForModification(String guildId, Long scheduleId) {
         return scheduleRepository.findById(scheduleId)
@@ -90,7 +85,12 @@ public class ScheduleManager {
 
         Schedule saved = scheduleRepository.save(schedule);
         log.info("Escala criada: {} (ID: {})", saved.getTitle(), saved.getId());
-        logManager.sendScheduleCreationLog(guildId, saved).block();
+        if (missionType == MissionType.OUTROS) {
+            // Rollback não deve deixar a descrição pontuada no índice
+            afterCommit(() -> missionSuggestions.record(saved.getOutrosDescription(), saved.getStartTime()));
+        }
+        touchAfterCommit(saved);
+        publishAfterCommit(logManager.sendScheduleCreationLog(guildId, saved));
         return saved;
     }
 
@@ -111,10 +111,13 @@ public class ScheduleManager {
         crew.add(user);
         schedule.setCrewMembers(crew);
 
-        Schedule saved = scheduleRepository.save(schedule);
-        logManager.createScheduleLog(saved, "EMBARKED", discordId, nickname, " embarcou.");
-        logManager.updateScheduleLogMessage(guildId, saved, " embarcou.").block();
-        return saved;
+        // A escala já está gerenciada: o flush grava a linha de schedule_crew. Um save() aqui faria merge
+        // da tripulação e buscaria de novo no banco o usuário que o UserService acabou de gravar.
+        // A mensagem de log é atualizada pelo handler após o commit, na fila LOG, sem segurar a transação.
+        crewActivityRecorder.record(schedule.getId(), user.getDiscordId(), CrewActivityType.BOARD);
+        touchAfterCommit(schedule);
+        logManager.createScheduleLog(schedule, "EMBARKED", discordId, nickname, " embarcou.");
+        return schedule;
     }
 
     @Transactional
@@ -135,8 +138,9 @@ public class ScheduleManager {
         schedule.setCrewMembers(crew);
 
         Schedule saved = scheduleRepository.save(schedule);
+        crewActivityRecorder.record(saved.getId(), user.getDiscordId(), CrewActivityType.LEAVE);
+        touchAfterCommit(saved);
         logManager.createScheduleLog(saved, "DISEMBARKED", discordId, nickname, " desembarcou.");
-        logManager.updateScheduleLogMessage(guildId, saved, " desembarcou.").block();
         return saved;
     }
 
@@ -166,14 +170,45 @@ public class ScheduleManager {
             }
         }
 
+        return finishClose(schedule, guildId, "CLOSED", discordId, nickname, " encerrou a escala.");
+    }
+
+    /**
+     * Encerra a escala por inatividade (prazo do {@link ScheduleAutoCloseService}), pelo mesmo caminho do botão
+     */
+    @Transactional
+    public Schedule autoCloseSchedule(String guildId, Long scheduleId) {
+        Schedule schedule = validateScheduleForModification(guildId, scheduleId);
+        return finishClose(schedule, guildId, "AUTO_CLOSED", SYSTEM_USER_ID, AUTO_CLOSE_NAME,
+                " encerrada automaticamente por inatividade.");
+    }
+
+    /**
+     * Encerra uma escala ativa cuja mensagem pública não existe mais e não pôde ser republicada
+     * (canal apagado ou sem acesso); chamado pela reconciliação do boot
+     */
+    @Transactional
+    public Schedule closeOrphanSchedule(String guildId, Long scheduleId) {
+        Schedule schedule = validateScheduleForModification(guildId, scheduleId);
+        return finishClose(schedule, guildId, "ORPHAN_CLOSED", SYSTEM_USER_ID, ORPHAN_CLOSE_NAME,
+                " encerrada: a mensagem pública não existe mais no Discord.");
+    }
+
+    private Schedule finishClose(Schedule schedule, String guildId, String action, String closerId, String closerName,
+                                 String details) {
+        Long scheduleId = schedule.getId();
         Instant endTime = ZonedDateTime.now(FORTALEZA_ZONE).toInstant();
         schedule.setActive(false);
         schedule.setEndTime(endTime);
         schedule.setCrewMembers(Optional.ofNullable(schedule.getCrewMembers()).orElseGet(ArrayList::new));
 
         Schedule saved = scheduleRepository.save(schedule);
-        logManager.createScheduleLog(saved, "CLOSED", discordId, nickname, " encerrou a escala.");
-        logManager.createFinalScheduleLogMessage(
+        crewActivityRecorder.recordAll(saved.getId(),
+                saved.getCrewMembers().stream().map(User::getDiscordId).toList(),
+                CrewActivityType.AUTO_LEAVE);
+        afterCommit(() -> autoClose.forget(scheduleId));
+        logManager.createScheduleLog(saved, action, closerId, closerName, details);
+        publishAfterCommit(logManager.createFinalScheduleLogMessage(
                 guildId,
                 scheduleId,
                 saved.getTitle(),
@@ -184,12 +219,44 @@ public class ScheduleManager {
                 saved.getStartTime(),
                 endTime,
                 saved.getCreatedByUsername(),
-                nickname,
+                closerName,
                 saved.getCrewMembers().stream().map(User::getNickname).toList()
-        ).block();
+        ));
         return saved;
     }
 
+    /**
+     * O log no Discord é montado dentro da transação, mas só sai depois do commit e fora da thread
+     * da interação: a resposta não espera a fila LOG e uma ação desfeita não é publicada.
+     */
+    private void publishAfterCommit(Mono<Void> publication) {
+        afterCommit(() -> publication.subscribe(null,
+                e -> log.warn("Falha ao publicar log da escala após o commit: {}", e.getMessage())));
+    }
+
+    /**
+     * O prazo de inatividade só muda depois do commit: um rollback não pode adiar o fechamento
+     * automático nem tirar do agendamento uma escala que continua aberta.
+     */
+    private void touchAfterCommit(Schedule schedule) {
+        String guildId = schedule.getGuildId();
+        Long scheduleId = schedule.getId();
+        afterCommit(() -> autoClose.touch(guildId, scheduleId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     private boolean checkUserHasRole(String guildId, String discordId, String roleId) {
         return discordService.checkUserHasRole(guildId, discordId, roleId);
     }
@@ -1,23 +1,26 @@
 package com.gra.paradise.botattendance.service;
 
 import com.gra.paradise.botattendance.config.DiscordConfig;
+import com.gra.paradise.botattendance.discord.rest.DiscordMessageOps;
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.discord.rest.RestLane;
 import com.gra.paradise.botattendance.model.MissionType;
 import com.gra.paradise.botattendance.model.Schedule;
 import com.gra.paradise.botattendance.model.SystemMessage;
 import com.gra.paradise.botattendance.repository.ScheduleRepository;
 import com.gra.paradise.botattendance.repository.SystemMessageRepository;
-import discord4j.common.util.Snowflake;
-import discord4j.core.GatewayDiscordClient;
 import discord4j.core.object.component.ActionRow;
 import discord4j.core.object.component.Button;
-import discord4j.core.object.entity.channel.MessageChannel;
 import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.core.spec.MessageCreateSpec;
+import discord4j.core.spec.MessageEditSpec;
 import discord4j.rest.util.Color;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Instant;
 import java.time.ZoneId;
@@ -25,6 +28,7 @@ import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.gra.paradise.botattendance.config.DiscordConfig.*;
@@ -34,17 +38,30 @@ import static com.gra.paradise.botattendance.config.DiscordConfig.*;
 @RequiredArgsConstructor
 public class ScheduleMessageManager {
 
-    private final GatewayDiscordClient discordClient;
+    private final DiscordMessageOps messageOps;
     private final EmbedFactory embedFactory;
     private final ScheduleRepository scheduleRepository;
     private final SystemMessageRepository systemMessageRepository;
     private final DiscordConfig discordConfig;
+    private final DiscordRestScheduler restScheduler;
+    private final Scheduler blockingScheduler;
 
     private final Map<String, String> scheduleChannelMap = new HashMap<>(); // scheduleId -> channelId
     private final Map<String, String> scheduleMessageMap = new HashMap<>(); // scheduleId -> messageId
     private final Map<String, String> systemChannelMap = new HashMap<>(); // guildId -> channelId
     private final Map<String, String> systemMessageMap = new HashMap<>(); // guildId -> messageId
 
+    /**
+     * Chave de substituição do embed público de uma escala: só a edição mais recente precisa chegar ao Discord
+     */
+    public static String embedSupersedeKey(String scheduleId) {
+        return "schedule-embed:" + scheduleId;
+    }
+
+    /**
+     * Só carrega os IDs do banco; a verificação no Discord fica para o {@link DiscordStateReconciler},
+     * depois que a aplicação estiver pronta
+     */
     @PostConstruct
     public void initializeSystemMessages() {
         systemMessageRepository.findAll().forEach(systemMessage -> {
@@ -52,27 +69,39 @@ public class ScheduleMessageManager {
             systemChannelMap.put(guildId, systemMessage.getChannelId());
             systemMessageMap.put(guildId, systemMessage.getMessageId());
             log.info("Mensagem do sistema carregada do banco para guilda {}: canal {}, mensagem {}", guildId, systemMessage.getChannelId(), systemMessage.getMessageId());
-            verifySystemMessage(guildId).subscribe();
         });
     }
 
-    private Mono<Void> verifySystemMessage(String guildId) {
+    public Set<String> getSystemMessageGuildIds() {
+        return Set.copyOf(systemChannelMap.keySet());
+    }
+
+    /**
+     * Confere se a mensagem do sistema ainda existe e a recria se não existir
+     * @return true se a mensagem precisou ser recriada
+     */
+    public Mono<Boolean> verifySystemMessage(String guildId) {
         String systemChannelId = systemChannelMap.get(guildId);
         String systemMessageId = systemMessageMap.get(guildId);
 
         if (systemChannelId == null || systemMessageId == null) {
             log.warn("IDs da mensagem do sistema não disponíveis para guilda {}. Criando nova mensagem.", guildId);
-            return createSystemMessage(guildId);
+            return createSystemMessage(guildId).thenReturn(true);
         }
 
-        return discordClient.getChannelById(Snowflake.of(systemChannelId))
-                .ofType(MessageChannel.class)
-                .flatMap(channel -> channel.getMessageById(Snowflake.of(systemMessageId))
-                        .then(Mono.empty())
-                        .onErrorResume(e -> {
-                            log.warn("Mensagem do sistema não encontrada para guilda {}: {}. Criando nova mensagem.", guildId, systemMessageId);
-                            return createSystemMessage(guildId);
-                        })).then();
+        return restScheduler.submit(RestLane.SYSTEM_STATUS, DiscordRestScheduler.channelMessagesRoute(systemChannelId),
+                        messageOps.exists(systemChannelId, systemMessageId))
+                .flatMap(exists -> {
+                    if (exists) {
+                        return Mono.just(false);
+                    }
+                    log.warn("Mensagem do sistema não encontrada para guilda {}: {}. Criando nova mensagem.", guildId, systemMessageId);
+                    return createSystemMessage(guildId).thenReturn(true);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Não foi possível verificar a mensagem do sistema da guilda {}: {}", guildId, e.getMessage());
+                    return Mono.just(false);
+                });
     }
 
     public Mono<Void> createSystemMessage(String guildId) {
@@ -83,40 +112,14 @@ public class ScheduleMessageManager {
             return Mono.empty();
         }
 
-        EmbedCreateSpec embed = EmbedCreateSpec.builder()
-                .image(FOOTER_GRA_BLUE_URL)
-                .title("🚁 Sistema de Escalas G.R.A")
-                .description("Bem-vindo ao controle operacional da G.R.A! 🚨\n**Pronto para gerenciar?**")
-                .color(Color.of(0, 102, 204))
-                .addField("📋 Instruções", """
-                        • Clique em **Iniciar** para criar uma nova escala
-                        • Siga os passos para selecionar helicóptero e operação
-                        • Confirme os detalhes no final
-                        """, false)
-                .addField("🔔 Status", "Nenhuma escala ativa. Crie uma agora! 🚁", false)
-                .footer(EmbedFactory.FOOTER_TEXT, GRA_IMAGE_URL)
-                .timestamp(ZonedDateTime.now(FORTALEZA_ZONE).toInstant())
+        MessageCreateSpec message = MessageCreateSpec.builder()
+                .addEmbed(systemEmbed("Nenhuma escala ativa. Crie uma agora! 🚁"))
+                .addComponent(ActionRow.of(Button.primary("create_schedule", "Iniciar Escala")))
                 .build();
 
-        Button createButton = Button.primary("create_schedule", "Iniciar Escala");
-
-        return discordClient.getChannelById(Snowflake.of(defaultChannelId))
-                .ofType(MessageChannel.class)
-                .flatMap(channel -> channel.createMessage()
-                        .withEmbeds(embed)
-                        .withComponents(ActionRow.of(createButton))
-                        .flatMap(message -> {
-                            String messageId = message.getId().asString();
-                            systemChannelMap.put(guildId, defaultChannelId);
-                            systemMessageMap.put(guildId, messageId);
-                            SystemMessage systemMessage = new SystemMessage();
-                            systemMessage.setGuildId(guildId);
-                            systemMessage.setChannelId(defaultChannelId);
-                            systemMessage.setMessageId(messageId);
-                            systemMessageRepository.save(systemMessage);
-                            log.info("Nova mensagem do sistema criada para guilda {}: canal {}, mensagem {}", guildId, defaultChannelId, messageId);
-                            return Mono.empty();
-                        }))
+        return restScheduler.submit(RestLane.SYSTEM_STATUS, DiscordRestScheduler.channelMessagesRoute(defaultChannelId),
+                        messageOps.create(defaultChannelId, message))
+                .flatMap(created -> saveSystemMessageAsync(guildId, defaultChannelId, created.id().asString()))
                 .doOnError(e -> log.error("Erro ao criar mensagem do sistema para guilda {}: {}", guildId, e.getMessage()))
                 .then();
     }
@@ -149,12 +152,11 @@ public class ScheduleMessageManager {
             return Mono.empty();
         }
 
-        return discordClient.getChannelById(Snowflake.of(channelId))
-                .ofType(MessageChannel.class)
-                .flatMap(channel -> channel.getMessageById(Snowflake.of(messageId)))
-                .flatMap(message -> {
-                    Schedule schedule = scheduleRepository.findById(Long.parseLong(scheduleId))
-                            .orElseThrow(() -> new IllegalStateException("Escala não encontrada: " + scheduleId));
+        // A escala é lida no pool de bloqueio; na fila do Discord só entra a edição
+        return Mono.fromCallable(() -> scheduleRepository.findById(Long.parseLong(scheduleId))
+                        .orElseThrow(() -> new IllegalStateException("Escala não encontrada: " + scheduleId)))
+                .subscribeOn(blockingScheduler)
+                .flatMap(schedule -> {
                     EmbedCreateSpec embed = embedFactory.createSchedulePublicEmbed(schedule, crewNicknames);
 
                     Button boardButton = Button.success("board_schedule:" + scheduleId, "Embarcar")
@@ -164,9 +166,11 @@ public class ScheduleMessageManager {
                     Button endButton = Button.secondary("end_schedule:" + scheduleId, "Encerrar Escala")
                             .disabled(!schedule.isActive());
 
-                    return message.edit()
-                            .withEmbeds(embed)
-                            .withComponents(ActionRow.of(boardButton, leaveButton, endButton));
+                    return restScheduler.submit(RestLane.PUBLIC_EMBED, DiscordRestScheduler.channelMessagesRoute(channelId), embedSupersedeKey(scheduleId),
+                            messageOps.edit(channelId, messageId, MessageEditSpec.builder()
+                                    .addEmbed(embed)
+                                    .addComponent(ActionRow.of(boardButton, leaveButton, endButton))
+                                    .build()));
                 })
                 .doOnSuccess(v -> log.info("Mensagem da escala {} atualizada com tripulantes: {}", scheduleId, crewNicknames))
                 .doOnError(e -> log.error("Erro ao atualizar mensagem da escala {}: {}", scheduleId, e.getMessage()))
@@ -184,12 +188,10 @@ public class ScheduleMessageManager {
             return updateSystemMessage(guildId);
         }
 
-        return discordClient.getChannelById(Snowflake.of(channelId))
-                .ofType(MessageChannel.class)
-                .flatMap(channel -> channel.getMessageById(Snowflake.of(messageId))
-                        .flatMap(message -> message.delete("Escala encerrada"))
-                        .doOnSuccess(v -> log.info("Mensagem da escala {} excluída do canal {}", scheduleId, channelId))
-                        .doOnError(e -> log.error("Erro ao excluir mensagem da escala {}: {}", scheduleId, e.getMessage())))
+        return restScheduler.submit(RestLane.PUBLIC_EMBED, DiscordRestScheduler.channelMessagesRoute(channelId),
+                        messageOps.delete(channelId, messageId, "Escala encerrada")
+                                .doOnSuccess(v -> log.info("Mensagem da escala {} excluída do canal {}", scheduleId, channelId))
+                                .doOnError(e -> log.error("Erro ao excluir mensagem da escala {}: {}", scheduleId, e.getMessage())))
                 .then(Mono.fromRunnable(() -> {
                     scheduleChannelMap.remove(scheduleId);
                     scheduleMessageMap.remove(scheduleId);
@@ -207,11 +209,11 @@ public class ScheduleMessageManager {
             return createSystemMessage(guildId);
         }
 
-        return discordClient.getChannelById(Snowflake.of(systemChannelId))
-                .ofType(MessageChannel.class)
-                .flatMap(channel -> channel.getMessageById(Snowflake.of(systemMessageId)))
-                .flatMap(message -> {
-                    List<Schedule> activeSchedules = scheduleRepository.findByActiveTrueAndGuildId(guildId);
+        // As escalas ativas são lidas no pool de bloqueio; na fila do Discord só entra a edição.
+        // Só o status mais recente importa: edições ainda na fila são substituídas pela nova
+        return Mono.fromCallable(() -> scheduleRepository.findByActiveTrueAndGuildId(guildId))
+                .subscribeOn(blockingScheduler)
+                .flatMap(activeSchedules -> {
                     String statusMessage;
                     if (activeSchedules.isEmpty()) {
                         statusMessage = "Nenhuma escala ativa. Crie uma agora! 🚁";
@@ -229,35 +231,59 @@ public class ScheduleMessageManager {
                                 .collect(Collectors.joining("\n"));
                     }
 
-                    EmbedCreateSpec embed = EmbedCreateSpec.builder()
-                            .image(FOOTER_GRA_BLUE_URL)
-                            .title("🚁 Sistema de Escalas G.R.A")
-                            .description("Bem-vindo ao controle operacional da G.R.A! 🚨\n**Pronto para gerenciar?**")
-                            .color(Color.of(0, 102, 204))
-                            .addField("📋 Instruções", """
-                                    • Clique em **Iniciar** para criar uma nova escala
-                                    • Siga os passos para selecionar helicóptero e operação
-                                    • Confirme os detalhes no final
-                                    """, false)
-                            .addField("🔔 Status", statusMessage, false)
-                            .footer(EmbedFactory.FOOTER_TEXT, GRA_IMAGE_URL)
-                            .timestamp(ZonedDateTime.now(FORTALEZA_ZONE).toInstant())
-                            .build();
-
-                    Button createButton = Button.primary("create_schedule", "Iniciar Escala");
-
-                    return message.edit()
-                            .withEmbeds(embed)
-                            .withComponents(ActionRow.of(createButton));
+                    EmbedCreateSpec embed = systemEmbed(statusMessage);
+                    ActionRow buttons = ActionRow.of(Button.primary("create_schedule", "Iniciar Escala"));
+
+                    return restScheduler.submit(RestLane.SYSTEM_STATUS, DiscordRestScheduler.channelMessagesRoute(systemChannelId), "system-status:" + guildId,
+                            messageOps.editOrRecreate(systemChannelId, systemMessageId,
+                                    MessageEditSpec.builder().addEmbed(embed).addComponent(buttons).build(),
+                                    MessageCreateSpec.builder().addEmbed(embed).addComponent(buttons).build()));
                 })
-                .doOnSuccess(v -> log.info("Mensagem de sistema atualizada com escalas ativas para guilda {}", guildId))
-                .doOnError(e -> {
-                    log.error("Erro ao atualizar mensagem do sistema para guilda {}: {}. Tentando recriar.", guildId, e.getMessage());
-                    createSystemMessage(guildId).subscribe();
+                .flatMap(message -> {
+                    String messageId = message.id().asString();
+                    return messageId.equals(systemMessageId)
+                            ? Mono.<Void>empty()
+                            : saveSystemMessageAsync(guildId, systemChannelId, messageId);
                 })
+                .doOnSuccess(v -> log.info("Mensagem de sistema atualizada com escalas ativas para guilda {}", guildId))
+                .doOnError(e -> log.error("Erro ao atualizar mensagem do sistema para guilda {}: {}", guildId, e.getMessage()))
+                .then();
+    }
+
+    private Mono<Void> saveSystemMessageAsync(String guildId, String channelId, String messageId) {
+        return Mono.fromRunnable(() -> saveSystemMessage(guildId, channelId, messageId))
+                .subscribeOn(blockingScheduler)
                 .then();
     }
 
+    private void saveSystemMessage(String guildId, String channelId, String messageId) {
+        systemChannelMap.put(guildId, channelId);
+        systemMessageMap.put(guildId, messageId);
+        SystemMessage systemMessage = new SystemMessage();
+        systemMessage.setGuildId(guildId);
+        systemMessage.setChannelId(channelId);
+        systemMessage.setMessageId(messageId);
+        systemMessageRepository.save(systemMessage);
+        log.info("Nova mensagem do sistema criada para guilda {}: canal {}, mensagem {}", guildId, channelId, messageId);
+    }
+
+    private static EmbedCreateSpec systemEmbed(String statusMessage) {
+        return EmbedCreateSpec.builder()
+                .image(FOOTER_GRA_BLUE_URL)
+                .title("🚁 Sistema de Escalas G.R.A")
+                .description("Bem-vindo ao controle operacional da G.R.A! 🚨\n**Pronto para gerenciar?**")
+                .color(Color.of(0, 102, 204))
+                .addField("📋 Instruções", """
+                        • Clique em **Iniciar** para criar uma nova escala
+                        • Siga os passos para selecionar helicóptero e operação
+                        • Confirme os detalhes no final
+                        """, false)
+                .addField("🔔 Status", statusMessage, false)
+                .footer(EmbedFactory.FOOTER_TEXT, GRA_IMAGE_URL)
+                .timestamp(ZonedDateTime.now(FORTALEZA_ZONE).toInstant())
+                .build();
+    }
+
     public Mono<Map<String, String>> getScheduleMessageDetails(String scheduleId) {
         return Mono.justOrEmpty(scheduleChannelMap.get(scheduleId))
                 .map(channelId -> {
@@ -1,10 +1,12 @@
 package com.gra.paradise.botattendance.service;
 
+import com.gra.paradise.botattendance.discord.rest.DiscordMessageOps;
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.discord.rest.RestLane;
 import com.gra.paradise.botattendance.model.Schedule;
 import com.gra.paradise.botattendance.model.User;
 import com.gra.paradise.botattendance.repository.ScheduleRepository;
-import discord4j.core.GatewayDiscordClient;
-import discord4j.core.event.domain.interaction.ButtonInteractionEvent;
+import discord4j.core.event.domain.interaction.InteractionCreateEvent;
 import discord4j.core.object.component.ActionRow;
 import discord4j.core.object.component.Button;
 import discord4j.core.object.entity.channel.MessageChannel;
@@ -15,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.List;
 import java.util.Objects;
@@ -25,30 +28,23 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ScheduleMessagePublisher {
 
-    private final GatewayDiscordClient discordClient;
     private final EmbedFactory embedFactory;
     private final ScheduleMessageManager scheduleMessageManager;
     private final ScheduleRepository scheduleRepository;
+    private final DiscordMessageOps messageOps;
+    private final DiscordRestScheduler restScheduler;
+    private final Scheduler blockingScheduler;
 
-    public Mono<Void> createSchedulePublicMessage(ButtonInteractionEvent event, Schedule schedule) {
+    public Mono<Void> createSchedulePublicMessage(InteractionCreateEvent event, Schedule schedule) {
         // Usar stream ao invés de loop manual para melhor performance e legibilidade
         List<String> crewNicknames = schedule.getInitializedCrewMembers().stream()
                 .map(User::getNickname)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
-        
-        EmbedCreateSpec embed = embedFactory.createSchedulePublicEmbed(schedule, crewNicknames);
-
-        Button boardButton = Button.success("board_schedule:" + schedule.getId(), "Embarcar");
-        Button leaveButton = Button.danger("leave_schedule:" + schedule.getId(), "Desembarcar");
-        Button endButton = Button.secondary("end_schedule:" + schedule.getId(), "Encerrar Escala");
 
         return event.getInteraction().getChannel()
                 .ofType(MessageChannel.class)
-                .flatMap(channel -> channel.createMessage(MessageCreateSpec.builder()
-                        .addEmbed(embed)
-                        .addComponent(ActionRow.of(boardButton, leaveButton, endButton))
-                        .build()))
+                .flatMap(channel -> channel.createMessage(publicMessage(schedule, crewNicknames)))
                 .flatMap(message -> {
                     String messageId = message.getId().asString();
                     String channelId = message.getChannelId().asString();
@@ -61,4 +57,35 @@ public class ScheduleMessagePublisher {
                 .doOnError(e -> log.error("Erro ao criar mensagem pública para a escala {}: {}", schedule.getId(), e.getMessage()))
                 .then();
     }
-}
\ No newline at end of file
+
+    /**
+     * Publica de novo a mensagem pública de uma escala ativa cuja mensagem sumiu do Discord,
+     * no mesmo canal, e passa a usar o novo ID
+     */
+    public Mono<Void> republishSchedulePublicMessage(Schedule schedule, List<String> crewNicknames) {
+        String channelId = schedule.getChannelId();
+        return restScheduler.submit(RestLane.PUBLIC_EMBED, DiscordRestScheduler.channelMessagesRoute(channelId),
+                        messageOps.create(channelId, publicMessage(schedule, crewNicknames)))
+                .flatMap(message -> {
+                    String messageId = message.id().asString();
+                    schedule.setMessageId(messageId);
+                    return Mono.fromCallable(() -> scheduleRepository.updateMessageId(schedule.getId(), messageId))
+                            .subscribeOn(blockingScheduler)
+                            .then(scheduleMessageManager.registerScheduleMessage(String.valueOf(schedule.getId()), channelId, messageId));
+                })
+                .doOnSuccess(v -> log.info("Mensagem pública da escala {} publicada de novo no canal {} com messageId {}", schedule.getId(), channelId, schedule.getMessageId()));
+    }
+
+    private MessageCreateSpec publicMessage(Schedule schedule, List<String> crewNicknames) {
+        EmbedCreateSpec embed = embedFactory.createSchedulePublicEmbed(schedule, crewNicknames);
+
+        Button boardButton = Button.success("board_schedule:" + schedule.getId(), "Embarcar");
+        Button leaveButton = Button.danger("leave_schedule:" + schedule.getId(), "Desembarcar");
+        Button endButton = Button.secondary("end_schedule:" + schedule.getId(), "Encerrar Escala");
+
+        return MessageCreateSpec.builder()
+                .addEmbed(embed)
+                .addComponent(ActionRow.of(boardButton, leaveButton, endButton))
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.utils.CsvWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Relatório final da escala em CSV
+ * As linhas saem do cursor do banco direto para um arquivo temporário, sem montar o histórico em memória:
+ * o consumo no encerramento é o mesmo para uma escala de 10 minutos ou de 10 horas.
+ */
+@Slf4j
+@Service
+public class ScheduleReportService {
+
+    static final String HEADER = "tipo,horario,usuario_id,usuario,acao,detalhes";
+
+    // Histórico de atividades e linha do tempo da tripulação num único cursor, em ordem cronológica
+    private static final String REPORT_ROWS =
+            "SELECT 'LOG' AS kind, l.timestamp AS ts, l.user_id, l.username AS name, l.action, l.details " +
+            "FROM schedule_logs l WHERE l.schedule_id = ? " +
+            "UNION ALL " +
+            // action_type é enum no H2: sem o cast o UNION assume o tipo enum e rejeita as ações dos logs
+            "SELECT 'TRIPULACAO', c.timestamp, c.user_id, COALESCE(u.nickname, u.username), CAST(c.action_type AS VARCHAR(50)), NULL " +
+            "FROM crew_activities c LEFT JOIN aviation_users u ON u.discord_id = c.user_id WHERE c.schedule_id = ? " +
+            "ORDER BY ts";
+    private static final int FETCH_SIZE = 200;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CrewActivityRecorder crewActivityRecorder;
+
+    public ScheduleReportService(@Qualifier("backgroundDataSource") DataSource backgroundDataSource,
+                                 CrewActivityRecorder crewActivityRecorder) {
+        this.jdbcTemplate = new JdbcTemplate(backgroundDataSource);
+        // Sem o fetch size o driver do PostgreSQL traz o resultado inteiro de uma vez
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(backgroundDataSource));
+        this.transactionTemplate.setReadOnly(true);
+        this.crewActivityRecorder = crewActivityRecorder;
+    }
+
+    /**
+     * Gera o relatório num arquivo temporário. Quem recebe é responsável por apagar o arquivo.
+     */
+    public Report writeReport(Long scheduleId) throws IOException {
+        // Os eventos de tripulação ainda no buffer entram no relatório
+        crewActivityRecorder.flush();
+
+        Path file = Files.createTempFile("escala-" + scheduleId + "-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.write('\n');
+            long[] rows = {0};
+            // O PostgreSQL só usa cursor (fetch size) dentro de uma transação
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(REPORT_ROWS, rs -> {
+                try {
+                    Timestamp ts = rs.getTimestamp("ts");
+                    CsvWriter.writeRow(writer,
+                            rs.getString("kind"),
+                            ts != null ? TIME_FORMATTER.format(ts.toLocalDateTime()) : "",
+                            rs.getString("user_id"),
+                            rs.getString("name"),
+                            rs.getString("action"),
+                            rs.getString("details"));
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, scheduleId, scheduleId));
+            log.info("Relatório da escala {} gerado com {} linhas", scheduleId, rows[0]);
+            return new Report(file, "escala-" + scheduleId + ".csv", rows[0]);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    public record Report(Path file, String fileName, long rows) {
+    }
+}
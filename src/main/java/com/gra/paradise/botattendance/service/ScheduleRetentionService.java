@@ -0,0 +1,67 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.config.CaffeineRegionFactory;
+import com.gra.paradise.botattendance.model.Schedule;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+
+import static com.gra.paradise.botattendance.config.DiscordConfig.FORTALEZA_ZONE;
+
+/**
+ * Limpeza de escalas antigas (mais de 30 dias)
+ * Roda no pool de background com deletes em conjunto, sem carregar entidades
+ * nem ocupar conexões do pool das interações.
+ */
+@Slf4j
+@Service
+public class ScheduleRetentionService {
+
+    private static final int RETENTION_DAYS = 30;
+    private static final String EXPIRED_IDS = "SELECT id FROM schedules WHERE end_time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CrewActivityRecorder crewActivityRecorder;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ScheduleRetentionService(@Qualifier("backgroundDataSource") DataSource backgroundDataSource,
+                                    CrewActivityRecorder crewActivityRecorder,
+                                    EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = new JdbcTemplate(backgroundDataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(backgroundDataSource));
+        this.crewActivityRecorder = crewActivityRecorder;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void cleanOldLogs() {
+        Timestamp threshold = Timestamp.from(ZonedDateTime.now(FORTALEZA_ZONE).minusDays(RETENTION_DAYS).toInstant());
+        // Eventos de tripulação ainda no buffer precisam existir antes do delete em conjunto
+        crewActivityRecorder.flush();
+
+        Integer deleted = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM schedule_logs WHERE schedule_id IN (" + EXPIRED_IDS + ")", threshold);
+            jdbcTemplate.update("DELETE FROM crew_activities WHERE schedule_id IN (" + EXPIRED_IDS + ")", threshold);
+            jdbcTemplate.update("DELETE FROM schedule_crew WHERE schedule_id IN (" + EXPIRED_IDS + ")", threshold);
+            return jdbcTemplate.update("DELETE FROM schedules WHERE end_time < ?", threshold);
+        });
+        if (deleted != null && deleted > 0) {
+            // Deletes via JDBC não passam pelo Hibernate nem atualizam os timestamps das tabelas:
+            // as escalas removidas e os resultados de query que ainda as citam saem do cache L2 aqui
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            cache.evict(Schedule.class);
+            cache.evictQueryRegion(CaffeineRegionFactory.SCHEDULE_QUERIES_REGION);
+            log.info("{} escalas e seus logs foram deletados (mais de {} dias)", deleted, RETENTION_DAYS);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.gra.paradise.botattendance.service;
 
+import com.gra.paradise.botattendance.model.AircraftType;
 import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.model.ScheduleLog;
+import com.gra.paradise.botattendance.repository.ScheduleLogRepository;
 import com.gra.paradise.botattendance.repository.ScheduleRepositoryOptimized;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
@@ -11,9 +14,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Serviço Otimizado para Schedule
@@ -25,11 +33,12 @@ import java.util.concurrent.CompletableFuture;
 public class ScheduleServiceOptimized {
 
     private final ScheduleRepositoryOptimized scheduleRepository;
+    private final ScheduleLogRepository scheduleLogRepository;
     private final PerformanceMetricsService performanceMetrics;
     private final CacheService cacheService;
 
     /**
-     * Busca escalas ativas com cache inteligente
+     * Busca escalas ativas (cabeçalho + tripulação) com cache inteligente
      */
     @Cacheable(value = "activeSchedules", key = "#guildId")
     public List<Schedule> getActiveSchedules(String guildId) {
@@ -44,7 +53,7 @@ public class ScheduleServiceOptimized {
     }
 
     /**
-     * Busca escala específica com cache
+     * Busca escala específica (cabeçalho + tripulação) com cache
      */
     @Cacheable(value = "schedule", key = "#id + '_' + #guildId")
     public Optional<Schedule> getScheduleById(Long id, String guildId) {
@@ -58,6 +67,40 @@ public class ScheduleServiceOptimized {
         }
     }
 
+    /**
+     * Busca só o cabeçalho da escala, sem tripulação nem logs
+     */
+    public Optional<Schedule> getScheduleHeader(Long id, String guildId) {
+        Timer.Sample sample = performanceMetrics.startDatabaseTimer();
+        try {
+            Optional<Schedule> schedule = scheduleRepository.findHeaderByIdAndGuildId(id, guildId);
+            performanceMetrics.recordDatabaseQuery();
+            return schedule;
+        } finally {
+            performanceMetrics.recordDatabaseQueryTime(sample);
+        }
+    }
+
+    /**
+     * Busca os logs mais recentes de várias escalas em uma única query
+     * Complementa getActiveSchedules/getScheduleById sem multiplicar as linhas da tripulação
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<ScheduleLog>> getRecentLogs(Collection<Long> scheduleIds, int limitPerSchedule) {
+        if (scheduleIds == null || scheduleIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Timer.Sample sample = performanceMetrics.startDatabaseTimer();
+        try {
+            List<ScheduleLog> logs = scheduleLogRepository.findRecentLogs(scheduleIds, limitPerSchedule);
+            performanceMetrics.recordDatabaseQuery();
+            return logs.stream().collect(Collectors.groupingBy(
+                    entry -> entry.getSchedule().getId(), LinkedHashMap::new, Collectors.toList()));
+        } finally {
+            performanceMetrics.recordDatabaseQueryTime(sample);
+        }
+    }
+
     /**
      * Conta escalas ativas de forma otimizada
      */
@@ -80,7 +123,7 @@ public class ScheduleServiceOptimized {
         return CompletableFuture.supplyAsync(() -> {
             Timer.Sample sample = performanceMetrics.startDatabaseTimer();
             try {
-                List<Schedule> schedules = scheduleRepository.findActiveSchedulesByAircraftType(guildId, aircraftType);
+                List<Schedule> schedules = scheduleRepository.findActiveSchedulesByAircraftType(guildId, AircraftType.valueOf(aircraftType));
                 performanceMetrics.recordDatabaseQuery();
                 return schedules;
             } finally {
@@ -106,7 +149,9 @@ public class ScheduleServiceOptimized {
 
     /**
      * Busca escalas que expiram em breve
+     * @deprecated ver {@link ScheduleAutoCloseService}
      */
+    @Deprecated
     public List<Schedule> getSchedulesExpiringSoon() {
         Timer.Sample sample = performanceMetrics.startDatabaseTimer();
         try {
@@ -0,0 +1,92 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.utils.SqlRouteContext;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contabilidade SQL por rota de interação
+ * Mede statements, entidades carregadas, coleções inicializadas e tempo de conexão
+ * de cada rota (board_schedule, end_schedule...) e exporta como distribuições no Micrometer.
+ * Coleções inicializadas sob demanda em quantidade proporcional aos dados indicam N+1.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SqlAccountingService {
+
+    private final MeterRegistry meterRegistry;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_LOAD,
+                (PostLoadEventListener) event -> SqlRouteContext.onEntityLoaded());
+        // Antes do listener padrão, que marca a coleção como inicializada
+        registry.prependListeners(EventType.INIT_COLLECTION,
+                (InitializeCollectionEventListener) event -> {
+                    if (!event.getCollection().wasInitialized()) {
+                        SqlRouteContext.onCollectionFetched();
+                    }
+                });
+        log.info("Contabilidade SQL por rota habilitada");
+    }
+
+    /**
+     * Executa o trabalho contabilizando o SQL na rota informada.
+     * Deve rodar na mesma thread que acessa o banco (ex.: dentro do Mono.fromCallable).
+     */
+    public <T> T measure(String route, Callable<T> work) throws Exception {
+        if (!SqlRouteContext.begin(route)) {
+            return work.call();
+        }
+        try {
+            return work.call();
+        } finally {
+            record(SqlRouteContext.end());
+        }
+    }
+
+    private void record(SqlRouteContext.Stats stats) {
+        summary("db.route.statements", "JDBC statements executed per interaction", stats.getRoute())
+                .record(stats.getStatements());
+        summary("db.route.entity.loads", "Entities loaded per interaction", stats.getRoute())
+                .record(stats.getEntityLoads());
+        summary("db.route.collection.fetches", "Lazy collections initialized per interaction", stats.getRoute())
+                .record(stats.getCollectionFetches());
+        Timer.builder("db.route.connection.hold")
+                .description("Time a JDBC connection was held per interaction")
+                .tag("route", stats.getRoute())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(stats.getConnectionHoldNanos(), TimeUnit.NANOSECONDS);
+
+        log.debug("SQL da rota {}", stats);
+    }
+
+    private DistributionSummary summary(String name, String description, String route) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("route", route)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -1,10 +1,11 @@
 package com.gra.paradise.botattendance.service;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -21,6 +22,7 @@ public class StandbyService {
 
     private final PerformanceMetricsService performanceMetrics;
     private final CacheService cacheService;
+    private final TimerService timerService;
     
     private final AtomicBoolean isStandby = new AtomicBoolean(false);
     private final AtomicLong lastActivity = new AtomicLong(System.currentTimeMillis());
@@ -28,7 +30,12 @@ public class StandbyService {
     
     // Configurações de stand-by
     private static final long STANDBY_TIMEOUT = 3 * 60 * 1000; // 3 minutos
-    private static final long ACTIVITY_CHECK_INTERVAL = 1 * 60 * 1000; // 1 minuto
+    private static final String STANDBY_TIMER = "standby";
+
+    @PostConstruct
+    public void startStandbyTimer() {
+        armStandbyTimer();
+    }
 
     /**
      * Registra atividade do usuário
@@ -38,12 +45,12 @@ public class StandbyService {
         if (isStandby.get()) {
             exitStandby();
         }
+        armStandbyTimer();
     }
 
     /**
      * Verifica se deve entrar em modo stand-by
      */
-    @Scheduled(fixedRate = ACTIVITY_CHECK_INTERVAL)
     public void checkStandbyCondition() {
         long currentTime = System.currentTimeMillis();
         long timeSinceLastActivity = currentTime - lastActivity.get();
@@ -55,6 +62,11 @@ public class StandbyService {
         }
     }
 
+    // Cada atividade reinicia o prazo na roda de tempo: a verificação roda uma vez, quando o bot fica ocioso
+    private void armStandbyTimer() {
+        timerService.debounce(STANDBY_TIMER, Duration.ofMillis(STANDBY_TIMEOUT + 1), this::checkStandbyCondition);
+    }
+
     /**
      * Entra em modo stand-by
      */
@@ -0,0 +1,164 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.utils.HierarchicalTimingWheel;
+import com.gra.paradise.botattendance.utils.HierarchicalTimingWheel.Timeout;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Ponto único para todo trabalho disparado por tempo: timeouts, debounce, expiração e jobs periódicos
+ * Tudo passa por uma {@link HierarchicalTimingWheel} com uma thread; as tarefas rodam no taskExecutor.
+ * O atraso entre o prazo e o início real de cada tarefa é exportado em timers.task.lag{job}.
+ */
+@Slf4j
+@Service
+public class TimerService {
+
+    private final HierarchicalTimingWheel wheel;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timeout> debounced = new ConcurrentHashMap<>();
+
+    public TimerService(@Qualifier("taskExecutor") Executor taskExecutor,
+                        MeterRegistry meterRegistry,
+                        @Value("${timers.tick-ms:100}") long tickMs) {
+        this.wheel = new HierarchicalTimingWheel("timing-wheel", Duration.ofMillis(tickMs), taskExecutor);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("timers.pending", wheel, HierarchicalTimingWheel::pending)
+                .description("Timeouts waiting in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a tarefa uma vez, depois de {@code delay}
+     */
+    public Timeout schedule(String job, Duration delay, Runnable task) {
+        return wheel.schedule(delay, measured(job, System.nanoTime() + delay.toNanos(), task));
+    }
+
+    /**
+     * Executa a tarefa a cada {@code delay}, contado a partir do fim da execução anterior (como fixedDelay)
+     */
+    public Timeout scheduleWithFixedDelay(String job, Duration initialDelay, Duration delay, Runnable task) {
+        return new Periodic(job, task, () -> delay).start(initialDelay);
+    }
+
+    /**
+     * Executa a tarefa todo dia no horário informado; o próximo prazo é recalculado a cada execução
+     */
+    public Timeout scheduleDaily(String job, LocalTime time, ZoneId zone, Runnable task) {
+        Supplier<Duration> untilNext = () -> {
+            ZonedDateTime now = ZonedDateTime.now(zone);
+            ZonedDateTime next = now.with(time);
+            return Duration.between(now, next.isAfter(now) ? next : next.plusDays(1));
+        };
+        return new Periodic(job, task, untilNext).start(untilNext.get());
+    }
+
+    /**
+     * Agenda a tarefa para daqui a {@code window}, substituindo a anterior com a mesma chave ainda pendente
+     */
+    public Timeout debounce(String key, Duration window, Runnable task) {
+        Timeout[] scheduled = new Timeout[1];
+        scheduled[0] = schedule(key, window, () -> {
+            debounced.remove(key, scheduled[0]);
+            task.run();
+        });
+        Timeout previous = debounced.put(key, scheduled[0]);
+        if (previous != null) {
+            previous.cancel();
+        }
+        return scheduled[0];
+    }
+
+    public int pending() {
+        return wheel.pending();
+    }
+
+    /**
+     * A roda em si, para utilitários fora do Spring (ex.: {@link com.gra.paradise.botattendance.utils.CacheUtils})
+     */
+    public HierarchicalTimingWheel getWheel() {
+        return wheel;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.close();
+    }
+
+    private Runnable measured(String job, long deadlineNanos, Runnable task) {
+        return () -> {
+            Timer.builder("timers.task.lag")
+                    .description("Delay between a timer deadline and the start of its task")
+                    .tag("job", job)
+                    .register(meterRegistry)
+                    .record(Math.max(0, System.nanoTime() - deadlineNanos), TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Erro na tarefa agendada {}: {}", job, e.getMessage(), e);
+            }
+        };
+    }
+
+    /**
+     * Job periódico: reagenda a si mesmo ao terminar; cancelar interrompe as próximas execuções
+     */
+    private final class Periodic implements Timeout {
+        private final String job;
+        private final Runnable task;
+        private final Supplier<Duration> nextDelay;
+        private volatile Timeout current;
+        private volatile boolean cancelled;
+
+        private Periodic(String job, Runnable task, Supplier<Duration> nextDelay) {
+            this.job = job;
+            this.task = task;
+            this.nextDelay = nextDelay;
+        }
+
+        private Periodic start(Duration delay) {
+            current = schedule(job, delay, () -> {
+                try {
+                    task.run();
+                } finally {
+                    if (!cancelled) {
+                        start(nextDelay.get());
+                    }
+                }
+            });
+            return this;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            current.cancel();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.gra.paradise.botattendance.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+import static com.gra.paradise.botattendance.utils.SearchText.normalize;
+
+/**
+ * Índice em memória de nicknames e usernames para busca e autocomplete
+ * Carregado uma vez do banco e mantido pelo diretório de usuários; buscas por digitação
+ * nunca chegam ao H2. Termos com 3+ caracteres usam trigramas (contém), termos curtos
+ * usam prefixo do nome ou de uma das palavras dele.
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    public static final int MAX_RESULTS = 25; // Limite de sugestões do autocomplete do Discord
+
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String LOAD_USERS = "SELECT discord_id, username, nickname FROM aviation_users";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<String>> prefixes = new ConcurrentSkipListMap<>();
+
+    private final JdbcTemplate backgroundJdbcTemplate;
+    private final Executor taskExecutor;
+    private final Timer lookups;
+    private volatile boolean loaded;
+
+    public UserSearchIndex(@Qualifier("backgroundDataSource") DataSource backgroundDataSource,
+                           @Qualifier("taskExecutor") Executor taskExecutor,
+                           MeterRegistry meterRegistry) {
+        this.backgroundJdbcTemplate = new JdbcTemplate(backgroundDataSource);
+        this.taskExecutor = taskExecutor;
+        this.lookups = Timer.builder("users.search.latency")
+                .description("In-memory user search lookups")
+                .register(meterRegistry);
+        Gauge.builder("users.search.index.size", entries, Map::size)
+                .description("Users held in the in-memory search index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        taskExecutor.execute(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                // Quem já entrou pelo diretório desde o boot tem o nome mais novo: a carga não sobrescreve
+                backgroundJdbcTemplate.query(LOAD_USERS, rs -> {
+                    String discordId = rs.getString("discord_id");
+                    if (!entries.containsKey(discordId)) {
+                        upsert(discordId, rs.getString("username"), rs.getString("nickname"));
+                    }
+                });
+                log.info("Índice de busca de usuários carregado: {} usuários em {}ms", entries.size(), System.currentTimeMillis() - start);
+            } finally {
+                // Mesmo com falha na carga o índice segue sendo alimentado em tempo real: não segura a prontidão
+                loaded = true;
+            }
+        });
+    }
+
+    /**
+     * Inclui ou atualiza o usuário no índice
+     */
+    public synchronized void upsert(String discordId, String username, String nickname) {
+        Entry updated = new Entry(discordId, username, nickname);
+        Entry previous = entries.put(discordId, updated);
+        if (updated.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            previous.keys().forEach(key -> unindex(key, discordId));
+        }
+        updated.keys().forEach(key -> index(key, discordId));
+    }
+
+    /**
+     * Atualiza o nome só de quem já está no índice (membros vistos pelo gateway podem não existir no banco)
+     */
+    public void refresh(String discordId, String username, String nickname) {
+        if (entries.containsKey(discordId)) {
+            upsert(discordId, username, nickname);
+        }
+    }
+
+    public List<Match> search(String term, int limit) {
+        return lookups.record(() -> doSearch(normalize(term), Math.min(limit, MAX_RESULTS)));
+    }
+
+    public Optional<Match> find(String discordId) {
+        return Optional.ofNullable(entries.get(discordId))
+                .map(entry -> new Match(entry.discordId(), entry.username(), entry.nickname()));
+    }
+
+    /**
+     * Carga inicial concluída; usado pela prontidão do bot
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private List<Match> doSearch(String term, int limit) {
+        Set<String> ids = new LinkedHashSet<>();
+        // Prefixos primeiro: são o que a pessoa está digitando
+        NavigableMap<String, Set<String>> byPrefix = prefixes.subMap(term, true, term + Character.MAX_VALUE, false);
+        for (Set<String> prefixIds : byPrefix.values()) {
+            for (String id : prefixIds) {
+                ids.add(id);
+                if (ids.size() >= limit) {
+                    return toMatches(ids);
+                }
+            }
+        }
+        if (term.length() >= 3) {
+            for (String id : containing(term)) {
+                ids.add(id);
+                if (ids.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return toMatches(ids);
+    }
+
+    private Set<String> containing(String term) {
+        // Começa pelo trigrama mais raro e confere o "contém" só nos candidatos dele
+        Set<String> smallest = null;
+        for (String gram : trigramsOf(term)) {
+            Set<String> posting = trigrams.get(gram);
+            if (posting == null) {
+                return Set.of();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        Set<String> result = new LinkedHashSet<>();
+        if (smallest == null) {
+            return result;
+        }
+        for (String id : smallest) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.contains(term)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private List<Match> toMatches(Set<String> ids) {
+        List<Match> matches = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                matches.add(new Match(entry.discordId(), entry.username(), entry.nickname()));
+            }
+        }
+        return matches;
+    }
+
+    private void index(Key key, String discordId) {
+        Map<String, Set<String>> target = key.prefix() ? prefixes : trigrams;
+        target.computeIfAbsent(key.value(), k -> ConcurrentHashMap.newKeySet()).add(discordId);
+    }
+
+    private void unindex(Key key, String discordId) {
+        Map<String, Set<String>> target = key.prefix() ? prefixes : trigrams;
+        target.computeIfPresent(key.value(), (k, ids) -> {
+            ids.remove(discordId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Set<String> trigramsOf(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    public record Match(String discordId, String username, String nickname) {
+        public String label() {
+            if (nickname == null || nickname.equals(username)) {
+                return username != null ? username : discordId;
+            }
+            return nickname + " (" + username + ")";
+        }
+    }
+
+    private record Key(String value, boolean prefix) {}
+
+    private record Entry(String discordId, String username, String nickname) {
+        private Set<Key> keys() {
+            Set<Key> keys = new HashSet<>();
+            for (String name : new String[]{normalize(username), normalize(nickname)}) {
+                if (name.isEmpty()) {
+                    continue;
+                }
+                keys.add(new Key(name, true));
+                for (String word : WORD_SEPARATORS.split(name)) {
+                    if (!word.isEmpty()) {
+                        keys.add(new Key(word, true));
+                    }
+                }
+                trigramsOf(name).forEach(gram -> keys.add(new Key(gram, false)));
+            }
+            return keys;
+        }
+
+        private boolean contains(String term) {
+            return normalize(username).contains(term) || normalize(nickname).contains(term);
+        }
+    }
+}
@@ -1,26 +1,178 @@
 package com.gra.paradise.botattendance.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.gra.paradise.botattendance.model.User;
-import com.gra.paradise.botattendance.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.gra.paradise.botattendance.utils.WriteBehindBuffer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Optional;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
 
+/**
+ * Diretório de usuários
+ * Um cache em memória guarda quem já existe no banco. Usuários novos (ou vistos pela primeira vez
+ * desde o boot) são gravados com um único MERGE; mudanças de nickname vão para um buffer e são
+ * gravadas em lote, então embarcar nunca custa mais de um statement para o usuário.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserService {
 
-    private final UserRepository userRepository;
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_KNOWN_USERS = 5_000;
 
+    // MERGE padrão SQL:2003, aceito pelo H2 (modo PostgreSQL) e pelo PostgreSQL 15+
+    private static final String UPSERT = """
+            MERGE INTO aviation_users u
+            USING (SELECT CAST(:discordId AS VARCHAR(255)) AS discord_id,
+                          CAST(:username AS VARCHAR(255)) AS username,
+                          CAST(:nickname AS VARCHAR(255)) AS nickname) v
+            ON u.discord_id = v.discord_id
+            WHEN MATCHED AND (u.username IS DISTINCT FROM v.username OR u.nickname IS DISTINCT FROM v.nickname)
+                THEN UPDATE SET username = v.username, nickname = v.nickname
+            WHEN NOT MATCHED
+                THEN INSERT (discord_id, username, nickname) VALUES (v.discord_id, v.username, v.nickname)
+            """;
+    private static final String UPDATE_NAMES = """
+            UPDATE aviation_users SET username = ?, nickname = ?
+            WHERE discord_id = ? AND (username IS DISTINCT FROM ? OR nickname IS DISTINCT FROM ?)
+            """;
+    // Espaço de query sem tabela: impede o Hibernate de invalidar a região "users" inteira a cada MERGE
+    private static final String NO_QUERY_SPACE = "";
+
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate backgroundJdbcTemplate;
+    private final Cache<String, UserNames> knownUsers = Caffeine.newBuilder()
+            .maximumSize(MAX_KNOWN_USERS)
+            .expireAfterAccess(Duration.ofHours(12))
+            .build();
+    private final WriteBehindBuffer<UserNames> dirtyNames;
+    private final UserSearchIndex searchIndex;
+
+    public UserService(EntityManager entityManager,
+                       EntityManagerFactory entityManagerFactory,
+                       @Qualifier("backgroundDataSource") DataSource backgroundDataSource,
+                       @Qualifier("taskExecutor") Executor taskExecutor,
+                       UserSearchIndex searchIndex) {
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.searchIndex = searchIndex;
+        this.backgroundJdbcTemplate = new JdbcTemplate(backgroundDataSource);
+        this.dirtyNames = new WriteBehindBuffer<>("user-names", BATCH_SIZE, taskExecutor, this::writeNames);
+    }
+
+    /**
+     * Garante que o usuário exista e devolve uma referência por ID para a tripulação.
+     * A instância devolvida não é gerenciada: a coleção crewMembers só grava a chave
+     * na tabela de junção, e o nickname já vem preenchido para as mensagens.
+     */
     @Transactional
     public User getOrCreateUser(String discordId, String username, String nickname) {
-        Optional<User> existingUser = userRepository.findById(discordId);
+        UserNames names = new UserNames(discordId, username, nickname);
+        UserNames known = knownUsers.getIfPresent(discordId);
+
+        if (known == null) {
+            entityManager.createNativeQuery(UPSERT)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace(NO_QUERY_SPACE)
+                    .setParameter("discordId", discordId)
+                    .setParameter("username", username)
+                    .setParameter("nickname", nickname)
+                    .executeUpdate();
+            entityManagerFactory.getCache().evict(User.class, discordId);
+            afterCommit(() -> {
+                knownUsers.put(discordId, names);
+                searchIndex.upsert(discordId, username, nickname);
+            });
+        } else if (!known.equals(names)) {
+            knownUsers.put(discordId, names);
+            searchIndex.upsert(discordId, username, nickname);
+            dirtyNames.add(names);
+        }
+
+        return new User(discordId, username, nickname);
+    }
+
+    /**
+     * Atualiza o nome de um membro visto pelo gateway (evento GUILD_MEMBER_UPDATE).
+     * Só enfileira se o nome mudou; usuários que não existem no banco são ignorados no flush.
+     */
+    public void refreshNames(String discordId, String username, String nickname) {
+        UserNames names = new UserNames(discordId, username, nickname);
+        UserNames known = knownUsers.getIfPresent(discordId);
+        if (known != null && known.equals(names)) {
+            return;
+        }
+        if (known != null) {
+            knownUsers.put(discordId, names);
+        }
+        searchIndex.refresh(discordId, username, nickname);
+        dirtyNames.add(names);
+    }
+
+    public void flushPendingNames() {
+        dirtyNames.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int flushed = dirtyNames.flush();
+        if (flushed > 0) {
+            log.info("{} nomes de usuário gravados no encerramento", flushed);
+        }
+    }
+
+    private void writeNames(List<UserNames> batch) {
+        // Só o último nome de cada usuário no lote importa
+        Map<String, UserNames> latest = new LinkedHashMap<>();
+        batch.forEach(names -> latest.put(names.discordId(), names));
+
+        List<Object[]> args = latest.values().stream()
+                .map(n -> new Object[]{n.username(), n.nickname(), n.discordId(), n.username(), n.nickname()})
+                .toList();
+        int[] updated = backgroundJdbcTemplate.batchUpdate(UPDATE_NAMES, args);
+
+        int i = 0;
+        for (String discordId : latest.keySet()) {
+            if (i < updated.length && updated[i++] != 0) {
+                entityManagerFactory.getCache().evict(User.class, discordId);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 
-        return existingUser.orElseGet(() -> {
-            User newUser = new User(discordId, username, nickname);
-            return userRepository.save(newUser);
-        });
+    private record UserNames(String discordId, String username, String nickname) {
+        UserNames {
+            Objects.requireNonNull(discordId, "discordId");
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,37 +5,28 @@ import lombok.extern.slf4j.Slf4j;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
  * Utilitários de Cache
- * Implementação de cache otimizado com TTL e limpeza automática
+ * Implementação de cache otimizado com TTL; cada entrada expira no seu prazo pela roda de tempo
  */
 @Slf4j
 public class CacheUtils {
 
-    private static final ScheduledExecutorService cleanupExecutor = 
-            Executors.newScheduledThreadPool(1, r -> {
-                Thread t = new Thread(r, "cache-cleanup");
-                t.setDaemon(true);
-                return t;
-            });
-
     /**
-     * Cache com TTL e limpeza automática
+     * Cache com TTL e expiração por entrada
      */
     public static class TTLCache<K, V> {
         private final ConcurrentHashMap<K, CacheEntry<V>> cache = new ConcurrentHashMap<>();
         private final Duration ttl;
         private final int maxSize;
+        private final HierarchicalTimingWheel wheel;
 
-        public TTLCache(Duration ttl, int maxSize) {
+        public TTLCache(Duration ttl, int maxSize, HierarchicalTimingWheel wheel) {
             this.ttl = ttl;
             this.maxSize = maxSize;
-            scheduleCleanup();
+            this.wheel = wheel;
         }
 
         public V get(K key) {
@@ -45,7 +36,7 @@ public class CacheUtils {
             }
             
             if (entry.isExpired()) {
-                cache.remove(key);
+                remove(key);
                 return null;
             }
             
@@ -58,8 +49,16 @@ public class CacheUtils {
                 evictOldest();
             }
             
-            CacheEntry<V> entry = new CacheEntry<>(value, Instant.now());
-            cache.put(key, entry);
+            CacheEntry<V> entry = new CacheEntry<>(value, Instant.now(), ttl);
+            entry.expiry = wheel.schedule(ttl, () -> {
+                if (cache.remove(key, entry)) {
+                    log.debug("Removed expired cache entry: {}", key);
+                }
+            });
+            CacheEntry<V> previous = cache.put(key, entry);
+            if (previous != null) {
+                previous.expiry.cancel();
+            }
             return value;
         }
 
@@ -77,10 +76,14 @@ public class CacheUtils {
         }
 
         public void remove(K key) {
-            cache.remove(key);
+            CacheEntry<V> entry = cache.remove(key);
+            if (entry != null) {
+                entry.expiry.cancel();
+            }
         }
 
         public void clear() {
+            cache.values().forEach(entry -> entry.expiry.cancel());
             cache.clear();
         }
 
@@ -96,22 +99,7 @@ public class CacheUtils {
             cache.entrySet().stream()
                     .min((e1, e2) -> e1.getValue().getLastAccessTime()
                             .compareTo(e2.getValue().getLastAccessTime()))
-                    .ifPresent(entry -> cache.remove(entry.getKey()));
-        }
-
-        private void scheduleCleanup() {
-            cleanupExecutor.scheduleAtFixedRate(this::cleanup, 1, 1, TimeUnit.MINUTES);
-        }
-
-        private void cleanup() {
-            Instant now = Instant.now();
-            cache.entrySet().removeIf(entry -> {
-                boolean expired = entry.getValue().isExpired(now);
-                if (expired) {
-                    log.debug("Removed expired cache entry: {}", entry.getKey());
-                }
-                return expired;
-            });
+                    .ifPresent(entry -> remove(entry.getKey()));
         }
     }
 
@@ -123,12 +111,13 @@ public class CacheUtils {
         private final Instant creationTime;
         private Instant lastAccessTime;
         private final Duration ttl;
+        private HierarchicalTimingWheel.Timeout expiry;
 
-        public CacheEntry(V value, Instant creationTime) {
+        public CacheEntry(V value, Instant creationTime, Duration ttl) {
             this.value = value;
             this.creationTime = creationTime;
             this.lastAccessTime = creationTime;
-            this.ttl = Duration.ofMinutes(30); // TTL padrão
+            this.ttl = ttl;
         }
 
         public V getValue() {
@@ -159,8 +148,8 @@ public class CacheUtils {
         private long hits = 0;
         private long misses = 0;
 
-        public StatisticsCache(Duration ttl, int maxSize) {
-            super(ttl, maxSize);
+        public StatisticsCache(Duration ttl, int maxSize, HierarchicalTimingWheel wheel) {
+            super(ttl, maxSize, wheel);
         }
 
         @Override
@@ -199,8 +188,8 @@ public class CacheUtils {
     public static class PatternCache<K, V> extends TTLCache<K, V> {
         private final Function<K, Boolean> invalidationPattern;
 
-        public PatternCache(Duration ttl, int maxSize, Function<K, Boolean> invalidationPattern) {
-            super(ttl, maxSize);
+        public PatternCache(Duration ttl, int maxSize, HierarchicalTimingWheel wheel, Function<K, Boolean> invalidationPattern) {
+            super(ttl, maxSize, wheel);
             this.invalidationPattern = invalidationPattern;
         }
 
@@ -217,15 +206,15 @@ public class CacheUtils {
     /**
      * Cria cache otimizado
      */
-    public static <K, V> TTLCache<K, V> createCache(Duration ttl, int maxSize) {
-        return new TTLCache<>(ttl, maxSize);
+    public static <K, V> TTLCache<K, V> createCache(Duration ttl, int maxSize, HierarchicalTimingWheel wheel) {
+        return new TTLCache<>(ttl, maxSize, wheel);
     }
 
     /**
      * Cria cache com estatísticas
      */
-    public static <K, V> StatisticsCache<K, V> createStatisticsCache(Duration ttl, int maxSize) {
-        return new StatisticsCache<>(ttl, maxSize);
+    public static <K, V> StatisticsCache<K, V> createStatisticsCache(Duration ttl, int maxSize, HierarchicalTimingWheel wheel) {
+        return new StatisticsCache<>(ttl, maxSize, wheel);
     }
 
     /**
@@ -233,8 +222,9 @@ public class CacheUtils {
      */
     public static <K, V> PatternCache<K, V> createPatternCache(
             Duration ttl, 
-            int maxSize, 
+            int maxSize,
+            HierarchicalTimingWheel wheel,
             Function<K, Boolean> invalidationPattern) {
-        return new PatternCache<>(ttl, maxSize, invalidationPattern);
+        return new PatternCache<>(ttl, maxSize, wheel, invalidationPattern);
     }
 }
@@ -0,0 +1,34 @@
+package com.gra.paradise.botattendance.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escrita de linhas CSV (RFC 4180) direto no Writer, sem montar o arquivo em memória
+ */
+public final class CsvWriter {
+
+    private CsvWriter() {
+    }
+
+    public static void writeRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    public static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString().trim();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
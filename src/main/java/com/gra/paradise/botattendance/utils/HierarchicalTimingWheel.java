@@ -0,0 +1,234 @@
+package com.gra.paradise.botattendance.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Roda de tempo hierárquica (Varghese &amp; Lauck) com uma única thread
+ * Cinco níveis de 64 posições: com tick de 100ms cobre de 100ms a ~3 anos. Agendar e cancelar são O(1)
+ * (inserção/remoção numa lista duplamente ligada); a thread da roda só avança o relógio, desce
+ * timeouts de nível quando uma posição superior vence e entrega os vencidos ao executor.
+ */
+@Slf4j
+public class HierarchicalTimingWheel implements AutoCloseable {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 5;
+    private static final long MAX_SPAN_TICKS = 1L << (WHEEL_BITS * LEVELS);
+
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final Executor dispatcher;
+    private final Bucket[][] wheels = new Bucket[LEVELS][WHEEL_SIZE];
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long currentTick; // Protegido pelo monitor da roda
+
+    public HierarchicalTimingWheel(String name, Duration tick, Executor dispatcher) {
+        this.tickNanos = tick.toNanos();
+        this.dispatcher = dispatcher;
+        for (Bucket[] wheel : wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new Bucket();
+            }
+        }
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Agenda a tarefa para daqui a {@code delay}. A precisão é de um tick; a tarefa roda no executor.
+     */
+    public Timeout schedule(Duration delay, Runnable task) {
+        Entry entry = new Entry(task, ticksUntil(System.nanoTime() + Math.max(0, delay.toNanos())));
+        pending.incrementAndGet();
+        synchronized (this) {
+            place(entry);
+        }
+        return entry;
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private long ticksUntil(long deadlineNanos) {
+        // Arredonda para cima: nunca vence antes do prazo
+        long elapsed = deadlineNanos - startNanos;
+        return (elapsed + tickNanos - 1) / tickNanos;
+    }
+
+    private void place(Entry entry) {
+        long deadline = Math.max(entry.deadlineTick, currentTick + 1);
+        long delta = Math.min(deadline - currentTick, MAX_SPAN_TICKS - 1);
+        int level = 0;
+        while (level < LEVELS - 1 && (delta >>> (WHEEL_BITS * (level + 1))) != 0) {
+            level++;
+        }
+        // Prazos além da última roda ficam na posição mais distante e são reposicionados na descida
+        long slotTick = delta == MAX_SPAN_TICKS - 1 ? currentTick + delta : deadline;
+        wheels[level][(int) ((slotTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)].add(entry);
+    }
+
+    private void run() {
+        List<Entry> expired = new ArrayList<>();
+        while (running) {
+            long target = (System.nanoTime() - startNanos) / tickNanos;
+            try {
+                synchronized (this) {
+                    while (currentTick < target) {
+                        advance(expired);
+                    }
+                }
+                expired.forEach(this::dispatch);
+            } catch (RuntimeException e) {
+                log.error("Erro ao avançar a roda de tempo: {}", e.getMessage(), e);
+            }
+            expired.clear();
+
+            long nextTickNanos = startNanos + (target + 1) * tickNanos;
+            LockSupport.parkNanos(this, nextTickNanos - System.nanoTime());
+        }
+    }
+
+    private void advance(List<Entry> expired) {
+        currentTick++;
+        // Desce primeiro os níveis superiores cujas posições acabaram de vencer
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                wheels[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)].drainTo(this::place);
+            }
+        }
+        wheels[0][(int) (currentTick & WHEEL_MASK)].drainTo(entry -> {
+            if (entry.deadlineTick > currentTick) {
+                place(entry);
+            } else {
+                entry.expired = true;
+                expired.add(entry);
+            }
+        });
+    }
+
+    private void dispatch(Entry entry) {
+        pending.decrementAndGet();
+        try {
+            dispatcher.execute(entry.task);
+        } catch (RejectedExecutionException e) {
+            pending.incrementAndGet();
+            // Executor cheio: tenta de novo no próximo tick em vez de perder a tarefa
+            log.debug("Executor cheio, tarefa da roda de tempo adiada em um tick");
+            synchronized (this) {
+                entry.expired = false;
+                entry.deadlineTick = currentTick + 1;
+                place(entry);
+            }
+        }
+    }
+
+    /**
+     * Referência para cancelar uma tarefa agendada
+     */
+    public interface Timeout {
+        /**
+         * @return false se a tarefa já tinha vencido ou sido cancelada
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+    }
+
+    private final class Entry implements Timeout {
+        private final Runnable task;
+        private long deadlineTick;
+        private Bucket bucket;
+        private Entry prev;
+        private Entry next;
+        private boolean expired;
+        private volatile boolean cancelled;
+
+        private Entry(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        @Override
+        public boolean cancel() {
+            synchronized (HierarchicalTimingWheel.this) {
+                if (cancelled || expired || bucket == null) {
+                    return false;
+                }
+                bucket.remove(this);
+                cancelled = true;
+            }
+            pending.decrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Posição da roda: lista duplamente ligada intrusiva, sem alocação por inserção
+     */
+    private final class Bucket {
+        private Entry head;
+
+        private void add(Entry entry) {
+            entry.bucket = this;
+            entry.prev = null;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            head = entry;
+        }
+
+        private void remove(Entry entry) {
+            if (entry.prev != null) {
+                entry.prev.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            }
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+
+        private void drainTo(Consumer<Entry> consumer) {
+            Entry entry = head;
+            head = null;
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.bucket = null;
+                entry.prev = null;
+                entry.next = null;
+                consumer.accept(entry);
+                entry = next;
+            }
+        }
+    }
+}
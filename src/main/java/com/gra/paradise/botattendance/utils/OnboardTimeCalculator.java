@@ -0,0 +1,62 @@
+package com.gra.paradise.botattendance.utils;
+
+import com.gra.paradise.botattendance.model.CrewActivity;
+import com.gra.paradise.botattendance.model.CrewActivityType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Calculadora de tempo a bordo por tripulante.
+ * Consome o histórico de CrewActivity já ordenado por timestamp em uma única passada,
+ * guardando apenas o horário do embarque em aberto de cada tripulante.
+ */
+public class OnboardTimeCalculator implements Consumer<CrewActivity> {
+
+    private final Map<String, LocalDateTime> boardedAt = new HashMap<>();
+    private final Map<String, Duration> totals = new LinkedHashMap<>();
+
+    public static Map<String, Duration> calculate(Stream<CrewActivity> orderedActivities, LocalDateTime until) {
+        OnboardTimeCalculator calculator = new OnboardTimeCalculator();
+        orderedActivities.forEachOrdered(calculator);
+        return calculator.result(until);
+    }
+
+    @Override
+    public void accept(CrewActivity activity) {
+        accept(activity.getUser().getDiscordId(), activity.getActionType(), activity.getTimestamp());
+    }
+
+    public void accept(String userId, CrewActivityType type, LocalDateTime timestamp) {
+        if (type == CrewActivityType.BOARD) {
+            boardedAt.putIfAbsent(userId, timestamp);
+            totals.putIfAbsent(userId, Duration.ZERO);
+            return;
+        }
+        LocalDateTime since = boardedAt.remove(userId);
+        if (since != null && !timestamp.isBefore(since)) {
+            totals.merge(userId, Duration.between(since, timestamp), Duration::plus);
+        }
+    }
+
+    /**
+     * Tempo total a bordo por ID do Discord, na ordem do primeiro embarque.
+     * Embarques ainda abertos são contados até {@code until}; se for nulo, são ignorados.
+     */
+    public Map<String, Duration> result(LocalDateTime until) {
+        Map<String, Duration> result = new LinkedHashMap<>(totals);
+        if (until != null) {
+            boardedAt.forEach((userId, since) -> {
+                if (!until.isBefore(since)) {
+                    result.merge(userId, Duration.between(since, until), Duration::plus);
+                }
+            });
+        }
+        return result;
+    }
+}
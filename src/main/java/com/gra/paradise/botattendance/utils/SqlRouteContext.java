@@ -0,0 +1,144 @@
+package com.gra.paradise.botattendance.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Contexto de contabilidade SQL por rota de interação
+ * Guarda, na thread atual, quantos statements, carregamentos de entidade, inicializações
+ * de coleção e quanto tempo de conexão a rota em execução (ex.: board_schedule) consumiu.
+ * Alimentado pelo StatementInspector e pelos listeners do Hibernate.
+ */
+public final class SqlRouteContext {
+
+    private static final int MAX_CAPTURED_SQL = 100;
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private SqlRouteContext() {
+    }
+
+    /**
+     * Inicia a contabilidade da rota na thread atual.
+     * Retorna false se já existe uma rota ativa (chamadas aninhadas somam na rota externa).
+     */
+    public static boolean begin(String route) {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(new Stats(route));
+        return true;
+    }
+
+    /**
+     * Encerra a rota atual e devolve o que foi contabilizado
+     */
+    public static Stats end() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        if (stats != null && stats.connectionAcquiredAt > 0) {
+            stats.onConnectionReleased();
+        }
+        return stats;
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    public static void onStatementPrepared(String sql) {
+        Stats stats = CURRENT.get();
+        if (stats != null && stats.sql.size() < MAX_CAPTURED_SQL) {
+            stats.sql.add(sql);
+        }
+    }
+
+    public static void onStatementExecuted() {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+        }
+    }
+
+    public static void onEntityLoaded() {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entityLoads++;
+        }
+    }
+
+    public static void onCollectionFetched() {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.collectionFetches++;
+        }
+    }
+
+    public static void onConnectionAcquired() {
+        Stats stats = CURRENT.get();
+        if (stats != null && stats.connectionAcquiredAt == 0) {
+            stats.connectionAcquiredAt = System.nanoTime();
+        }
+    }
+
+    public static void onConnectionReleased() {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.onConnectionReleased();
+        }
+    }
+
+    /**
+     * Contadores de uma rota. Só é acessado pela thread dona da rota.
+     */
+    public static final class Stats {
+        private final String route;
+        private final List<String> sql = new ArrayList<>();
+        private int statements;
+        private int entityLoads;
+        private int collectionFetches;
+        private long connectionHoldNanos;
+        private long connectionAcquiredAt;
+
+        private Stats(String route) {
+            this.route = route;
+        }
+
+        private void onConnectionReleased() {
+            if (connectionAcquiredAt > 0) {
+                connectionHoldNanos += System.nanoTime() - connectionAcquiredAt;
+                connectionAcquiredAt = 0;
+            }
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public int getEntityLoads() {
+            return entityLoads;
+        }
+
+        public int getCollectionFetches() {
+            return collectionFetches;
+        }
+
+        public long getConnectionHoldNanos() {
+            return connectionHoldNanos;
+        }
+
+        public List<String> getSql() {
+            return Collections.unmodifiableList(sql);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d statements, %d entidades, %d coleções, conexão %.1f ms",
+                    route, statements, entityLoads, collectionFetches, connectionHoldNanos / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.gra.paradise.botattendance.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Buffer de escrita adiada (write-behind)
+ * Acumula registros em memória e os entrega em lotes ao consumidor de flush,
+ * seja ao atingir o tamanho do lote (em background) ou quando flush() é chamado.
+ * Um lote que falha é regravado linha a linha; só as linhas que ainda falham voltam
+ * para a fila, e são descartadas depois de MAX_ATTEMPTS tentativas.
+ */
+@Slf4j
+public class WriteBehindBuffer<T> {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private final String name;
+    private final int batchSize;
+    private final Executor flushExecutor;
+    private final Consumer<List<T>> flusher;
+
+    private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile List<T> inFlight = List.of();
+    // Tentativas que falharam por registro; acessado só com o flushLock
+    private final Map<T, Integer> failedAttempts = new IdentityHashMap<>();
+
+    public WriteBehindBuffer(String name, int batchSize, Executor flushExecutor, Consumer<List<T>> flusher) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize deve ser positivo");
+        }
+        this.name = name;
+        this.batchSize = batchSize;
+        this.flushExecutor = flushExecutor;
+        this.flusher = flusher;
+    }
+
+    public void add(T item) {
+        queue.add(item);
+        if (size.incrementAndGet() >= batchSize && !flushLock.isLocked()) {
+            try {
+                flushExecutor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // add() roda em afterCommit: com o executor cheio, o flush periódico grava estes registros
+                log.debug("{}: executor cheio, {} registros ficam para o flush periódico", name, size.get());
+            }
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Registros ainda não confirmados no banco (na fila ou no lote em gravação) que atendem ao filtro.
+     * Permite ler as próprias escritas antes do flush.
+     */
+    public List<T> pending(Predicate<T> filter) {
+        Set<T> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<T> result = new ArrayList<>();
+        for (T item : inFlight) {
+            if (filter.test(item) && seen.add(item)) {
+                result.add(item);
+            }
+        }
+        for (T item : queue) {
+            if (filter.test(item) && seen.add(item)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Esvazia o buffer em lotes de até batchSize registros.
+     * Chamadas concorrentes são serializadas; cada lote é entregue uma única vez.
+     *
+     * @return número de registros entregues ao consumidor
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            int flushed = 0;
+            List<T> retry = new ArrayList<>();
+            List<T> batch;
+            while (!(batch = drain()).isEmpty()) {
+                try {
+                    flusher.accept(batch);
+                    flushed += batch.size();
+                    batch.forEach(failedAttempts::remove);
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao gravar lote de {} registros em {}; regravando linha a linha: {}", batch.size(), name, e.getMessage());
+                    flushed += flushRowByRow(batch, retry);
+                } finally {
+                    inFlight = List.of();
+                }
+            }
+            // Só depois do laço: uma falha persistente não pode prender este flush regravando a mesma linha
+            if (!retry.isEmpty()) {
+                queue.addAll(retry);
+                size.addAndGet(retry.size());
+            }
+            if (flushed > 0) {
+                log.debug("{}: {} registros gravados em lote", name, flushed);
+            }
+            return flushed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushRowByRow(List<T> batch, List<T> retry) {
+        int flushed = 0;
+        for (T item : batch) {
+            try {
+                flusher.accept(List.of(item));
+                failedAttempts.remove(item);
+                flushed++;
+            } catch (RuntimeException e) {
+                int attempts = failedAttempts.merge(item, 1, Integer::sum);
+                if (attempts < MAX_ATTEMPTS) {
+                    retry.add(item);
+                } else {
+                    failedAttempts.remove(item);
+                    log.error("Registro descartado em {} após {} tentativas: {}", name, attempts, item, e);
+                }
+            }
+        }
+        return flushed;
+    }
+
+    private List<T> drain() {
+        // Publica o lote como "em gravação" antes de retirá-lo da fila, para que pending() nunca o perca de vista
+        List<T> batch = new ArrayList<>(batchSize);
+        Iterator<T> iterator = queue.iterator();
+        while (batch.size() < batchSize && iterator.hasNext()) {
+            batch.add(iterator.next());
+        }
+        inFlight = List.copyOf(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            queue.poll();
+        }
+        size.addAndGet(-batch.size());
+        return batch;
+    }
+}
@@ -80,14 +80,11 @@ public class H2DatabaseValidationTest {
     @Test
     void testH2DatabaseEnumSupport() {
         // Test that H2 properly handles Java Enums
-        Schedule schedule = new Schedule();
-        schedule.setGuildId("guild456");
-        schedule.setTitle("Enum Test");
-        schedule.setCreatedById("456789");
-        schedule.setCreatedByUsername("enumtest");
-        
+        // A fresh instance per save: a removed one stays in the test transaction's persistence context
+
         // Test all aircraft types
         for (AircraftType aircraft : AircraftType.values()) {
+            Schedule schedule = enumTestSchedule();
             schedule.setAircraftType(aircraft);
             Schedule saved = scheduleRepository.save(schedule);
             assertThat(saved.getAircraftType()).isEqualTo(aircraft);
@@ -96,10 +93,20 @@ public class H2DatabaseValidationTest {
         
         // Test all mission types
         for (MissionType mission : MissionType.values()) {
+            Schedule schedule = enumTestSchedule();
             schedule.setMissionType(mission);
             Schedule saved = scheduleRepository.save(schedule);
             assertThat(saved.getMissionType()).isEqualTo(mission);
             scheduleRepository.delete(saved);
         }
     }
+
+    private static Schedule enumTestSchedule() {
+        Schedule schedule = new Schedule();
+        schedule.setGuildId("guild456");
+        schedule.setTitle("Enum Test");
+        schedule.setCreatedById("456789");
+        schedule.setCreatedByUsername("enumtest");
+        return schedule;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.gra.paradise.botattendance;
+
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.model.MissionType;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.model.ScheduleLog;
+import com.gra.paradise.botattendance.repository.ScheduleLogRepository;
+import com.gra.paradise.botattendance.repository.ScheduleRepository;
+import com.gra.paradise.botattendance.service.ScheduleLogManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de inserts de ScheduleLog no H2
+ * Compara o caminho antigo (um insert + commit por log) com o buffer write-behind
+ * do ScheduleLogManager, que agrupa logs de escalas concorrentes em lotes JDBC.
+ * Fora do mvn test: rodar com mvn -Pbenchmark test.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+public class ScheduleLogInsertBenchmarkTest {
+
+    private static final int SCHEDULES = 10;
+    private static final int LOGS_PER_SCHEDULE = 300;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ScheduleLogRepository scheduleLogRepository;
+
+    @Autowired
+    private ScheduleLogManager scheduleLogManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compareSingleRowAndBatchedInserts() throws Exception {
+        List<Schedule> schedules = createSchedules();
+        int total = SCHEDULES * LOGS_PER_SCHEDULE;
+
+        // Antes: um round trip e um commit por log
+        long start = System.nanoTime();
+        runConcurrently(schedules, schedule -> transactionTemplate.executeWithoutResult(status ->
+                scheduleLogRepository.save(new ScheduleLog(schedule, "EMBARKED", "1", "bench", " embarcou."))));
+        double singleRowPerSecond = total / seconds(start);
+
+        // Depois: logs vão para o buffer e são gravados em lotes
+        start = System.nanoTime();
+        runConcurrently(schedules, schedule ->
+                scheduleLogManager.createScheduleLog(schedule, "EMBARKED", "1", "bench", " embarcou."));
+        scheduleLogManager.flushPendingLogs();
+        double batchedPerSecond = total / seconds(start);
+
+        log.info("ScheduleLog inserts/s - linha a linha: {} | write-behind em lote: {} ({}x)",
+                Math.round(singleRowPerSecond), Math.round(batchedPerSecond),
+                String.format("%.1f", batchedPerSecond / singleRowPerSecond));
+
+        assertThat(scheduleLogRepository.count()).isEqualTo(2L * total);
+        for (Schedule schedule : schedules) {
+            assertThat(scheduleLogRepository.findByScheduleIdOrderByTimestampAsc(schedule.getId()))
+                    .hasSize(2 * LOGS_PER_SCHEDULE);
+        }
+    }
+
+    private void runConcurrently(List<Schedule> schedules, Consumer<Schedule> insert) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SCHEDULES);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (Schedule schedule : schedules) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < LOGS_PER_SCHEDULE; i++) {
+                        insert.accept(schedule);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<Schedule> createSchedules() {
+        List<Schedule> schedules = new ArrayList<>();
+        for (int i = 0; i < SCHEDULES; i++) {
+            Schedule schedule = new Schedule();
+            schedule.setGuildId("bench-guild");
+            schedule.setTitle("Benchmark " + i);
+            schedule.setAircraftType(AircraftType.EC135);
+            schedule.setMissionType(MissionType.PATROL);
+            schedule.setCreatedById("pilot-" + i);
+            schedule.setCreatedByUsername("Pilot " + i);
+            schedule.setStartTime(Instant.now());
+            schedule.setActive(true);
+            schedules.add(scheduleRepository.save(schedule));
+        }
+        return schedules;
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+}
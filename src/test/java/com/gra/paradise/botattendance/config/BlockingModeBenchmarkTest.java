@@ -0,0 +1,64 @@
+package com.gra.paradise.botattendance.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark da ponte para chamadas bloqueantes
+ * Simula uma rajada de interações em que cada uma faz uma chamada bloqueante (a espera de I/O do JDBC)
+ * via subscribeOn no blockingScheduler, e compara vazão, threads de plataforma e heap por modo.
+ * O modo VIRTUAL só roda em Java 21+. Fora do mvn test: rodar com mvn -Pbenchmark test.
+ */
+@Slf4j
+@Tag("benchmark")
+class BlockingModeBenchmarkTest {
+
+    private static final int INTERACTIONS = 2_000;
+    private static final Duration BLOCKING_CALL = Duration.ofMillis(20);
+
+    @Test
+    void compareBlockingModes() {
+        for (BlockingMode mode : BlockingMode.values()) {
+            if (mode == BlockingMode.VIRTUAL && !BlockingMode.virtualThreadsSupported()) {
+                log.info("Ponte bloqueante - VIRTUAL ignorado: requer Java 21");
+                continue;
+            }
+            run(mode);
+        }
+    }
+
+    private void run(BlockingMode mode) {
+        Scheduler scheduler = AsyncConfig.blockingScheduler(mode);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        long start = System.nanoTime();
+        Long completed = Flux.range(0, INTERACTIONS)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    Thread.sleep(BLOCKING_CALL.toMillis());
+                    return i;
+                }).subscribeOn(scheduler), INTERACTIONS)
+                .count()
+                .block(Duration.ofMinutes(2));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        log.info("Ponte bloqueante - {}: {} chamadas/s | pico de {} threads de plataforma | heap {} KB",
+                mode, Math.round(INTERACTIONS / seconds), threads.getPeakThreadCount(), (heapAfter - heapBefore) / 1024);
+        assertThat(completed).isEqualTo(INTERACTIONS);
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,67 @@
+package com.gra.paradise.botattendance.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Metadados da imagem nativa
+ * Entidades, tipos JSON do Discord4J, classes geradas do Caffeine e linhas da exportação precisam estar
+ * registrados para reflexão; builders e classes internas do Caffeine não.
+ */
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void entitiesAreReflective() {
+        NativeRuntimeHints.ENTITIES.forEach(entity -> assertThat(RuntimeHintsPredicates.reflection().onType(entity)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                .accepts(hints));
+        assertThat(RuntimeHintsPredicates.reflection().onType(CaffeineRegionFactory.class)).accepts(hints);
+    }
+
+    @Test
+    void discordJsonAndCaffeineClassesAreReflective() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("discord4j.discordjson.json.ImmutableApplicationCommandData$Json"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_METHODS))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("discord4j.discordjson.json.ImmutableApplicationCommandData"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.github.benmanes.caffeine.cache.SSMSA"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                .accepts(hints);
+    }
+
+    @Test
+    void onlyJacksonBoundAndGeneratedClassesAreRegistered() {
+        assertThat(hints.reflection().getTypeHint(
+                TypeReference.of("discord4j.discordjson.json.ImmutableApplicationCommandData$Builder"))).isNull();
+        assertThat(hints.reflection().getTypeHint(
+                TypeReference.of("com.github.benmanes.caffeine.cache.BoundedLocalCache"))).isNull();
+    }
+
+    @Test
+    void exportRowsAreReflective() {
+        NativeRuntimeHints.EXPORT_ROWS.forEach(row -> assertThat(RuntimeHintsPredicates.reflection().onType(row)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS))
+                .accepts(hints));
+    }
+
+    @Test
+    void imagesAreBundled() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("images/image.png")).accepts(hints);
+    }
+}
@@ -0,0 +1,112 @@
+package com.gra.paradise.botattendance.discord;
+
+import discord4j.discordjson.Id;
+import discord4j.discordjson.json.ApplicationCommandData;
+import discord4j.discordjson.json.ApplicationCommandOptionData;
+import discord4j.discordjson.json.ApplicationCommandRequest;
+import discord4j.rest.RestClient;
+import discord4j.rest.service.ApplicationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Registro de slash commands por hash
+ * Definição igual à registrada não gera overwrite; qualquer diferença gera um único overwrite,
+ * e no modo por guilda os globais antigos são esvaziados.
+ */
+class SlashCommandRegistrarTest {
+
+    private static final long APPLICATION_ID = 10L;
+
+    private final RestClient restClient = mock(RestClient.class);
+    private final ApplicationService applicationService = mock(ApplicationService.class);
+
+    @BeforeEach
+    void setUp() {
+        when(restClient.getApplicationId()).thenReturn(Mono.just(APPLICATION_ID));
+        when(restClient.getApplicationService()).thenReturn(applicationService);
+        when(applicationService.bulkOverwriteGlobalApplicationCommand(anyLong(), anyList())).thenReturn(Flux.empty());
+        when(applicationService.bulkOverwriteGuildApplicationCommand(anyLong(), anyLong(), anyList())).thenReturn(Flux.empty());
+    }
+
+    @Test
+    void unchangedCommandsAreNotOverwritten() {
+        when(applicationService.getGlobalApplicationCommands(APPLICATION_ID))
+                .thenReturn(Flux.just(registered("buscar-usuario", "Mostra um usuário"), registered("escalas-ativas", "Lista as escalas")));
+
+        registrar(List.of()).sync(List.of(request("escalas-ativas", "Lista as escalas"), request("buscar-usuario", "Mostra um usuário"))).block();
+
+        verify(applicationService, never()).bulkOverwriteGlobalApplicationCommand(anyLong(), anyList());
+    }
+
+    @Test
+    void changedDescriptionTriggersOneOverwrite() {
+        when(applicationService.getGlobalApplicationCommands(APPLICATION_ID))
+                .thenReturn(Flux.just(registered("buscar-usuario", "Texto antigo")));
+        List<ApplicationCommandRequest> commands = List.of(request("buscar-usuario", "Mostra um usuário"));
+
+        registrar(List.of()).sync(commands).block();
+
+        verify(applicationService, times(1)).bulkOverwriteGlobalApplicationCommand(APPLICATION_ID, commands);
+    }
+
+    @Test
+    void guildModeRegistersPerGuildAndClearsGlobals() {
+        List<ApplicationCommandRequest> commands = List.of(request("buscar-usuario", "Mostra um usuário"));
+        when(applicationService.getGuildApplicationCommands(APPLICATION_ID, 1L)).thenReturn(Flux.just(registered("buscar-usuario", "Mostra um usuário")));
+        when(applicationService.getGuildApplicationCommands(APPLICATION_ID, 2L)).thenReturn(Flux.empty());
+        when(applicationService.getGlobalApplicationCommands(APPLICATION_ID)).thenReturn(Flux.just(registered("buscar-usuario", "Mostra um usuário")));
+
+        registrar(List.of("1", " 2 ")).sync(commands).block();
+
+        verify(applicationService, never()).bulkOverwriteGuildApplicationCommand(eq(APPLICATION_ID), eq(1L), anyList());
+        verify(applicationService).bulkOverwriteGuildApplicationCommand(APPLICATION_ID, 2L, commands);
+        verify(applicationService).bulkOverwriteGlobalApplicationCommand(APPLICATION_ID, List.of());
+    }
+
+    private SlashCommandRegistrar registrar(List<String> guildIds) {
+        return new SlashCommandRegistrar(restClient, new SimpleMeterRegistry(), guildIds);
+    }
+
+    private static ApplicationCommandRequest request(String name, String description) {
+        return ApplicationCommandRequest.builder()
+                .name(name)
+                .description(description)
+                .addOption(option())
+                .build();
+    }
+
+    // Como a API devolve: com ids, tipo e dm_permission preenchidos
+    private static ApplicationCommandData registered(String name, String description) {
+        return ApplicationCommandData.builder()
+                .id(Id.of(1))
+                .applicationId(Id.of(APPLICATION_ID))
+                .version(Id.of(1))
+                .type(1)
+                .dmPermission(true)
+                .name(name)
+                .description(description)
+                .addOption(option())
+                .build();
+    }
+
+    private static ApplicationCommandOptionData option() {
+        return ApplicationCommandOptionData.builder()
+                .name("usuario")
+                .description("Nickname ou username do usuário")
+                .type(3)
+                .required(true)
+                .autocomplete(true)
+                .build();
+    }
+}
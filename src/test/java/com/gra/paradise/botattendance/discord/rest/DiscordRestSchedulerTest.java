@@ -0,0 +1,142 @@
+package com.gra.paradise.botattendance.discord.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Agendador REST do Discord
+ * Com um único slot em uso, a ordem de saída precisa seguir a prioridade das filas,
+ * e edições substituídas precisam completar vazias sem chegar ao Discord.
+ */
+class DiscordRestSchedulerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DiscordRestScheduler scheduler;
+    private Sinks.Empty<Void> blocker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new DiscordRestScheduler(meterRegistry, 1);
+        blocker = Sinks.empty();
+        // Ocupa o único slot até o teste liberar
+        scheduler.submit(RestLane.SYSTEM_STATUS, "channels/0/messages", blocker.asMono()).subscribe();
+    }
+
+    @Test
+    void interactionRepliesJumpAheadOfQueuedLogs() {
+        List<String> order = new CopyOnWriteArrayList<>();
+        scheduler.submit(RestLane.LOG, "channels/1/messages", Mono.fromRunnable(() -> order.add("log"))).subscribe();
+        scheduler.submit(RestLane.PUBLIC_EMBED, "channels/2/messages", Mono.fromRunnable(() -> order.add("embed"))).subscribe();
+        scheduler.submit(RestLane.INTERACTION, DiscordRestScheduler.INTERACTIONS_ROUTE, Mono.fromRunnable(() -> order.add("reply"))).subscribe();
+
+        assertEquals(1, scheduler.depth(RestLane.LOG));
+        assertEquals(1, scheduler.depth(RestLane.INTERACTION));
+
+        blocker.tryEmitEmpty();
+
+        assertEquals(List.of("reply", "embed", "log"), order);
+        assertEquals(0, scheduler.depth(RestLane.LOG));
+    }
+
+    @Test
+    void queuedEditIsShedWhenSuperseded() {
+        AtomicBoolean staleSent = new AtomicBoolean();
+        Mono<String> stale = scheduler.submit(RestLane.LOG, "channels/1/messages", "schedule-log:1",
+                Mono.fromCallable(() -> {
+                    staleSent.set(true);
+                    return "antigo";
+                }));
+        Mono<String> fresh = scheduler.submit(RestLane.LOG, "channels/1/messages", "schedule-log:1", Mono.just("novo"));
+
+        List<String> results = new CopyOnWriteArrayList<>();
+        stale.subscribe(results::add);
+        fresh.subscribe(results::add);
+        blocker.tryEmitEmpty();
+
+        assertFalse(staleSent.get());
+        assertEquals(List.of("novo"), results);
+        assertEquals(1.0, meterRegistry.get("discord.rest.shed").tag("lane", "LOG").counter().count());
+    }
+
+    @Test
+    void interactionsAreNeverShed() {
+        List<String> results = new CopyOnWriteArrayList<>();
+        scheduler.submit(RestLane.INTERACTION, DiscordRestScheduler.INTERACTIONS_ROUTE, "reply", Mono.just("a")).subscribe(results::add);
+        scheduler.submit(RestLane.INTERACTION, DiscordRestScheduler.INTERACTIONS_ROUTE, "reply", Mono.just("b")).subscribe(results::add);
+        blocker.tryEmitEmpty();
+
+        assertEquals(List.of("a", "b"), results);
+    }
+
+    @Test
+    void exhaustedRouteWaitsForItsBucketWithoutBlockingOtherRoutes() {
+        blocker.tryEmitEmpty();
+        DiscordRestScheduler unbounded = new DiscordRestScheduler(new SimpleMeterRegistry(), 10);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int n = i;
+            unbounded.submit(RestLane.LOG, "channels/1/messages", Mono.fromRunnable(() -> sent.add("c1-" + n))).subscribe();
+        }
+        unbounded.submit(RestLane.LOG, "channels/2/messages", Mono.fromRunnable(() -> sent.add("c2"))).subscribe();
+
+        // Bucket de 5 por canal: a sexta edição espera o token, a do outro canal não
+        assertEquals(6, sent.size());
+        assertTrue(sent.contains("c2"));
+        assertFalse(sent.contains("c1-5"));
+        assertEquals(1, unbounded.depth(RestLane.LOG));
+
+        Mono.delay(Duration.ofMillis(1500)).block();
+        assertTrue(sent.contains("c1-5"));
+    }
+
+    @Test
+    void earlierTokenRearmsTheWake() {
+        blocker.tryEmitEmpty();
+        DiscordRestScheduler unbounded = new DiscordRestScheduler(new SimpleMeterRegistry(), 100);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int n = i;
+            unbounded.submit(RestLane.LOG, "channels/1/messages", Mono.fromRunnable(() -> sent.add("c1-" + n))).subscribe();
+        }
+        // Canal esgotado arma o wake para ~1s; as respostas de interação repõem token a cada 20ms
+        for (int i = 0; i < 51; i++) {
+            int n = i;
+            unbounded.submit(RestLane.INTERACTION, DiscordRestScheduler.INTERACTIONS_ROUTE,
+                    Mono.fromRunnable(() -> sent.add("reply-" + n))).subscribe();
+        }
+        assertFalse(sent.contains("reply-50"));
+
+        Mono.delay(Duration.ofMillis(300)).block();
+        assertTrue(sent.contains("reply-50"));
+        assertFalse(sent.contains("c1-5"));
+    }
+
+    @Test
+    void cancellingTheCallerCancelsTheRunningCall() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Disposable caller = scheduler.submit(RestLane.LOG, "channels/1/messages",
+                Mono.never().doOnCancel(() -> cancelled.set(true))).subscribe();
+        blocker.tryEmitEmpty();
+        assertEquals(0, scheduler.depth(RestLane.LOG));
+
+        caller.dispose();
+
+        assertTrue(cancelled.get());
+        // O slot único foi liberado pelo cancelamento
+        List<String> sent = new CopyOnWriteArrayList<>();
+        scheduler.submit(RestLane.LOG, "channels/2/messages", Mono.fromRunnable(() -> sent.add("next"))).subscribe();
+        assertEquals(List.of("next"), sent);
+    }
+}
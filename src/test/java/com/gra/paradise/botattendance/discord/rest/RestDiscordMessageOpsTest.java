@@ -0,0 +1,148 @@
+package com.gra.paradise.botattendance.discord.rest;
+
+import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.core.spec.MessageCreateSpec;
+import discord4j.core.spec.MessageEditSpec;
+import discord4j.discordjson.Id;
+import discord4j.discordjson.json.MessageData;
+import discord4j.rest.RestClient;
+import discord4j.rest.RestResources;
+import discord4j.rest.http.client.ClientException;
+import discord4j.rest.request.DiscordWebRequest;
+import discord4j.rest.request.DiscordWebResponse;
+import discord4j.rest.request.Router;
+import discord4j.rest.service.ChannelService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Operações de mensagem por ID
+ * Cada escrita precisa ser uma única chamada REST, sem buscar canal ou mensagem antes,
+ * e uma mensagem apagada no Discord (404) precisa ser recriada ou tratada como já excluída.
+ */
+class RestDiscordMessageOpsTest {
+
+    private static final String CHANNEL = "100";
+    private static final String MESSAGE = "200";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChannelService channelService;
+    private Router router;
+    private RestDiscordMessageOps messageOps;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        channelService = mock(ChannelService.class);
+        RestClient restClient = mock(RestClient.class);
+        when(restClient.getChannelService()).thenReturn(channelService);
+        RestResources restResources = mock(RestResources.class);
+        router = mock(Router.class);
+        when(restResources.getRouter()).thenReturn(router);
+        when(restClient.getRestResources()).thenReturn(restResources);
+        messageOps = new RestDiscordMessageOps(restClient, meterRegistry);
+    }
+
+    @Test
+    void editIsASingleCallById() {
+        MessageData edited = message(MESSAGE);
+        when(channelService.editMessage(eq(100L), eq(200L), any())).thenReturn(Mono.just(edited));
+
+        MessageData result = messageOps.edit(CHANNEL, MESSAGE, editSpec()).block();
+
+        assertSame(edited, result);
+        verify(channelService).editMessage(eq(100L), eq(200L), any());
+        verifyNoMoreInteractions(channelService);
+        assertEquals(1.0, calls("edit"));
+    }
+
+    @Test
+    void editOrRecreatePostsNewMessageWhenOriginalWasDeleted() {
+        ClientException notFound = notFound();
+        when(channelService.editMessage(eq(100L), eq(200L), any())).thenReturn(Mono.error(notFound));
+        MessageData recreated = message("300");
+        when(channelService.createMessage(eq(100L), any())).thenReturn(Mono.just(recreated));
+
+        MessageData result = messageOps.editOrRecreate(CHANNEL, MESSAGE, editSpec(),
+                MessageCreateSpec.builder().addEmbed(embed()).build()).block();
+
+        assertNotNull(result);
+        assertEquals("300", result.id().asString());
+        assertEquals(1.0, calls("edit"));
+        assertEquals(1.0, calls("create"));
+    }
+
+    @Test
+    void editOrRecreateDoesNotRecreateOnOtherErrors() {
+        when(channelService.editMessage(anyLong(), anyLong(), any())).thenReturn(Mono.error(new IllegalStateException("timeout")));
+
+        assertThrows(IllegalStateException.class, () -> messageOps.editOrRecreate(CHANNEL, MESSAGE, editSpec(),
+                MessageCreateSpec.builder().addEmbed(embed()).build()).block());
+        verify(channelService, never()).createMessage(anyLong(), any());
+    }
+
+    @Test
+    void deleteOfMissingMessageCompletesEmpty() {
+        ClientException notFound = notFound();
+        when(channelService.deleteMessage(100L, 200L, "Escala encerrada")).thenReturn(Mono.error(notFound));
+
+        assertDoesNotThrow(() -> messageOps.delete(CHANNEL, MESSAGE, "Escala encerrada").block());
+        assertEquals(1.0, calls("delete"));
+    }
+
+    @Test
+    void existsIsFalseForMissingMessage() {
+        ClientException notFound = notFound();
+        when(channelService.getMessage(100L, 200L)).thenReturn(Mono.error(notFound));
+
+        assertEquals(Boolean.FALSE, messageOps.exists(CHANNEL, MESSAGE).block());
+    }
+
+    @Test
+    void startThreadReturnsThreadChannelId() {
+        DiscordWebResponse response = mock(DiscordWebResponse.class);
+        when(response.bodyToMono(Map.class)).thenReturn(Mono.just(Map.of("id", "999")));
+        ArgumentCaptor<DiscordWebRequest> request = ArgumentCaptor.forClass(DiscordWebRequest.class);
+        when(router.exchange(request.capture())).thenReturn(response);
+
+        assertEquals("999", messageOps.startThread(CHANNEL, MESSAGE, "G.R.A - 1").block());
+        assertEquals("/channels/100/messages/200/threads", request.getValue().getCompleteUri());
+        assertEquals(1.0, calls("thread"));
+    }
+
+    private double calls(String op) {
+        return meterRegistry.get("discord.rest.calls").tag("op", op).counter().count();
+    }
+
+    private static MessageEditSpec editSpec() {
+        return MessageEditSpec.builder().addEmbed(embed()).build();
+    }
+
+    private static EmbedCreateSpec embed() {
+        return EmbedCreateSpec.builder().title("Escala").build();
+    }
+
+    private static MessageData message(String id) {
+        MessageData message = mock(MessageData.class);
+        when(message.id()).thenReturn(Id.of(id));
+        return message;
+    }
+
+    private static ClientException notFound() {
+        ClientException exception = mock(ClientException.class);
+        when(exception.getStatus()).thenReturn(HttpResponseStatus.NOT_FOUND);
+        return exception;
+    }
+}
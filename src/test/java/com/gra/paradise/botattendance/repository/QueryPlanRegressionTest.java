@@ -0,0 +1,331 @@
+package com.gra.paradise.botattendance.repository;
+
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.model.MissionType;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.model.ScheduleLog;
+import com.gra.paradise.botattendance.model.User;
+import com.gra.paradise.botattendance.service.HistoryExportService;
+import com.gra.paradise.botattendance.service.HistoryExportService.Filter;
+import com.gra.paradise.botattendance.service.HistoryExportService.Format;
+import com.gra.paradise.botattendance.utils.SqlRouteContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regressão de planos de execução
+ * Chama cada query declarada nos repositórios, captura o SQL que o Hibernate realmente emitiu
+ * (StatementInspector do SqlAccountingConfig), roda EXPLAIN dele no H2 (modo PostgreSQL) e falha se uma
+ * query quente voltar a fazer table scan nas tabelas que ela deveria acessar por índice.
+ * Toda query nova precisa ganhar um caso aqui (o teste de cobertura garante isso).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryPlanRegressionTest {
+
+    private static final List<Class<?>> COVERED_REPOSITORIES = List.of(
+            ScheduleRepository.class,
+            ScheduleRepositoryOptimized.class,
+            UserRepository.class,
+            ScheduleLogRepository.class
+    );
+
+    private static final String GUILD = "guild-3";
+    private static final Instant OLD_THRESHOLD = Instant.now().minus(Duration.ofDays(30));
+    private static final Instant NOW = Instant.now();
+    private static final Filter EXPORT_FILTER = new Filter(GUILD, LocalDate.now().minusDays(30), null, null, null, 0, 500);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ScheduleRepositoryOptimized scheduleRepositoryOptimized;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ScheduleLogRepository scheduleLogRepository;
+
+    @Autowired
+    private HistoryExportService exportService;
+
+    @BeforeEach
+    void seed() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            users.add(new User("user-" + i, "user" + i, "User " + i));
+        }
+        userRepository.saveAll(users);
+
+        List<Schedule> schedules = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Schedule schedule = new Schedule();
+            schedule.setGuildId("guild-" + (i % 20));
+            schedule.setTitle("G.R.A - " + i);
+            schedule.setAircraftType(AircraftType.values()[i % AircraftType.values().length]);
+            schedule.setMissionType(MissionType.PATROL);
+            schedule.setCreatedById("pilot-" + i);
+            schedule.setCreatedByUsername("Pilot " + i);
+            schedule.setStartTime(Instant.now().minus(Duration.ofHours(i)));
+            schedule.setActive(i % 10 == 0);
+            schedule.setEndTime(i % 10 == 0 ? null : Instant.now().minus(Duration.ofHours(i % 48)));
+            schedule.setMessageId("message-" + i);
+            schedule.setChannelId("channel-" + (i % 20));
+            schedule.getCrewMembers().add(users.get(i % users.size()));
+            schedule.getCrewMembers().add(users.get((i + 7) % users.size()));
+            schedules.add(schedule);
+        }
+        scheduleRepository.saveAll(schedules);
+
+        List<ScheduleLog> logs = new ArrayList<>();
+        for (Schedule schedule : schedules) {
+            for (int i = 0; i < 5; i++) {
+                logs.add(new ScheduleLog(schedule, "EMBARKED", "user-" + i, "User " + i, " embarcou."));
+            }
+        }
+        scheduleLogRepository.saveAll(logs);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // ANALYZE faz commit no H2, então os dados são removidos explicitamente
+        jdbcTemplate.update("DELETE FROM schedule_logs");
+        jdbcTemplate.update("DELETE FROM schedule_crew");
+        jdbcTemplate.update("DELETE FROM schedules");
+        jdbcTemplate.update("DELETE FROM aviation_users");
+        // Deletes via JDBC não passam pelo Hibernate; o cache L2 precisa ser limpo junto
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void everyDeclaredRepositoryQueryHasAPlanCase() {
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : COVERED_REPOSITORIES) {
+            Arrays.stream(repository.getDeclaredMethods())
+                    .filter(method -> !method.isDefault() && !method.isSynthetic())
+                    .map(Method::getName)
+                    .forEach(name -> declared.add(repository.getSimpleName() + "." + name));
+        }
+        assertThat(planCases().keySet()).containsAll(declared);
+    }
+
+    @Test
+    void hotQueriesDoNotRegressToTableScans() {
+        List<String> regressions = new ArrayList<>();
+        planCases().forEach((name, planCase) -> {
+            List<String> statements = emittedSql(name, planCase.call());
+            assertThat(statements).as("%s não emitiu SQL (resultado veio do cache?)", name).isNotEmpty();
+            for (String sql : statements) {
+                String plan = explain(sql).toLowerCase(Locale.ROOT);
+                for (String table : planCase.indexedTables()) {
+                    if (plan.contains("public." + table + ".tablescan")) {
+                        regressions.add(name + " faz table scan em " + table + ":\n" + sql + "\n" + plan);
+                    }
+                }
+            }
+        });
+        assertThat(regressions).isEmpty();
+    }
+
+    /**
+     * Executa a chamada ao repositório capturando, pelo StatementInspector, o SQL que o Hibernate gerou.
+     * A transação é sempre desfeita (os casos de UPDATE/DELETE não alteram a massa) e o cache é limpo
+     * antes, para que queries cacheáveis cheguem ao banco.
+     */
+    private List<String> emittedSql(String name, RepositoryCall call) {
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+        assertThat(SqlRouteContext.begin("plan:" + name)).as("já existe uma rota ativa nesta thread").isTrue();
+        SqlRouteContext.Stats stats;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    call.run();
+                } catch (Exception e) {
+                    throw new IllegalStateException(name + " falhou", e);
+                }
+                // DELETEs derivados só saem no flush
+                entityManager.flush();
+                status.setRollbackOnly();
+            });
+        } finally {
+            stats = SqlRouteContext.end();
+        }
+        return stats.getSql();
+    }
+
+    /**
+     * EXPLAIN do SQL como o Hibernate o preparou. O H2 escolhe o plano sem olhar os valores,
+     * então os parâmetros vão como NULL.
+     */
+    private String explain(String sql) {
+        Object[] params = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        List<String> rows = jdbcTemplate.query("EXPLAIN " + sql, (rs, rowNum) -> rs.getString(1), params);
+        return String.join("\n", rows);
+    }
+
+    /**
+     * Uma chamada real a cada query dos repositórios. {@code indexedTables} lista as tabelas que
+     * precisam ser acessadas por índice em todo SQL emitido; lista vazia documenta uma query que
+     * pode varrer a tabela.
+     */
+    private Map<String, PlanCase> planCases() {
+        Map<String, PlanCase> cases = new LinkedHashMap<>();
+        List<String> schedulesAndCrew = List.of("schedules", "schedule_crew", "aviation_users");
+
+        // ScheduleRepository
+        cases.put("ScheduleRepository.findByActiveTrue", scan(
+                () -> scheduleRepository.findByActiveTrue()));
+        cases.put("ScheduleRepository.findByActiveTrueAndGuildId", indexed(
+                () -> scheduleRepository.findByActiveTrueAndGuildId(GUILD), List.of("schedules")));
+        cases.put("ScheduleRepository.countByActiveTrueAndGuildId", indexed(
+                () -> scheduleRepository.countByActiveTrueAndGuildId(GUILD), List.of("schedules")));
+        cases.put("ScheduleRepository.findByMessageIdAndChannelId", indexed(
+                () -> scheduleRepository.findByMessageIdAndChannelId("message-3", "channel-3"), List.of("schedules")));
+        cases.put("ScheduleRepository.findByIdAndGuildIdWithCrew", indexed(
+                () -> scheduleRepository.findByIdAndGuildIdWithCrew(3L, GUILD), schedulesAndCrew));
+        cases.put("ScheduleRepository.findByIdAndGuildId", indexed(
+                () -> scheduleRepository.findByIdAndGuildId(3L, GUILD), List.of("schedules")));
+        cases.put("ScheduleRepository.findActiveSchedulesWithCrewPaged", indexed(
+                () -> scheduleRepository.findActiveSchedulesWithCrewPaged(GUILD, PageRequest.of(0, 20)), schedulesAndCrew));
+        cases.put("ScheduleRepository.findByEndTimeBefore", indexed(
+                () -> scheduleRepository.findByEndTimeBefore(OLD_THRESHOLD), List.of("schedules")));
+        cases.put("ScheduleRepository.findActiveSchedulesByAircraftType", indexed(
+                () -> scheduleRepository.findActiveSchedulesByAircraftType(GUILD, AircraftType.EC135), schedulesAndCrew));
+        cases.put("ScheduleRepository.findActiveSchedulesByUser", indexed(
+                () -> scheduleRepository.findActiveSchedulesByUser(GUILD, "user-3"), schedulesAndCrew));
+        cases.put("ScheduleRepository.deactivateExpiredSchedules", indexed(
+                () -> scheduleRepository.deactivateExpiredSchedules(OLD_THRESHOLD), List.of("schedules")));
+        cases.put("ScheduleRepository.deleteExpiredSchedules", indexed(
+                () -> scheduleRepository.deleteExpiredSchedules(OLD_THRESHOLD), List.of("schedules")));
+        cases.put("ScheduleRepository.countActiveSchedulesByAircraftType", indexed(
+                () -> scheduleRepository.countActiveSchedulesByAircraftType(GUILD, AircraftType.EC135), List.of("schedules")));
+        cases.put("ScheduleRepository.getAircraftTypeStatistics", indexed(
+                () -> scheduleRepository.getAircraftTypeStatistics(GUILD), List.of("schedules")));
+        cases.put("ScheduleRepository.findExpiredInactiveSchedules", indexed(
+                () -> scheduleRepository.findExpiredInactiveSchedules(OLD_THRESHOLD), List.of("schedules")));
+        cases.put("ScheduleRepository.findActiveForReconciliation", indexed(
+                () -> scheduleRepository.findActiveForReconciliation(0L, NOW, Limit.of(25)), List.of("schedules")));
+        cases.put("ScheduleRepository.findCrewNicknames", indexed(
+                () -> scheduleRepository.findCrewNicknames(3L), schedulesAndCrew));
+        cases.put("ScheduleRepository.updateMessageId", indexed(
+                () -> scheduleRepository.updateMessageId(3L, "message-new"), List.of("schedules")));
+        cases.put("ScheduleRepository.updateLogThreadId", indexed(
+                () -> scheduleRepository.updateLogThreadId(3L, "thread-new"), List.of("schedules")));
+
+        // ScheduleRepositoryOptimized
+        cases.put("ScheduleRepositoryOptimized.findActiveSchedulesWithCrew", indexed(
+                () -> scheduleRepositoryOptimized.findActiveSchedulesWithCrew(GUILD), schedulesAndCrew));
+        cases.put("ScheduleRepositoryOptimized.findByIdAndGuildIdWithRelations", indexed(
+                () -> scheduleRepositoryOptimized.findByIdAndGuildIdWithRelations(3L, GUILD), schedulesAndCrew));
+        cases.put("ScheduleRepositoryOptimized.findHeaderByIdAndGuildId", indexed(
+                () -> scheduleRepositoryOptimized.findHeaderByIdAndGuildId(3L, GUILD), List.of("schedules")));
+        cases.put("ScheduleRepositoryOptimized.countActiveSchedulesByGuildId", indexed(
+                () -> scheduleRepositoryOptimized.countActiveSchedulesByGuildId(GUILD), List.of("schedules")));
+        cases.put("ScheduleRepositoryOptimized.findActiveSchedulesByAircraftType", indexed(
+                () -> scheduleRepositoryOptimized.findActiveSchedulesByAircraftType(GUILD, AircraftType.EC135), schedulesAndCrew));
+        cases.put("ScheduleRepositoryOptimized.findActiveSchedulesByDateRange", indexed(
+                () -> scheduleRepositoryOptimized.findActiveSchedulesByDateRange(GUILD, OLD_THRESHOLD, NOW), schedulesAndCrew));
+        cases.put("ScheduleRepositoryOptimized.findSchedulesExpiringSoon", indexed(
+                () -> scheduleRepositoryOptimized.findSchedulesExpiringSoon(OLD_THRESHOLD), List.of("schedules")));
+        cases.put("ScheduleRepositoryOptimized.findActiveSchedulesByUser", indexed(
+                () -> scheduleRepositoryOptimized.findActiveSchedulesByUser(GUILD, "user-3"), schedulesAndCrew));
+
+        // UserRepository
+        cases.put("UserRepository.findByDiscordId", indexed(
+                () -> userRepository.findByDiscordId("user-3"), List.of("aviation_users")));
+        cases.put("UserRepository.findByUsernameContainingIgnoreCase", scan(
+                () -> userRepository.findByUsernameContainingIgnoreCase("ser")));
+        cases.put("UserRepository.findByNicknameContainingIgnoreCase", scan(
+                () -> userRepository.findByNicknameContainingIgnoreCase("ser")));
+        cases.put("UserRepository.findAllUsersPaged", scan(
+                () -> userRepository.findAllUsersPaged(PageRequest.of(0, 20))));
+        cases.put("UserRepository.findUsersByActiveGuild", indexed(
+                () -> userRepository.findUsersByActiveGuild(GUILD), List.of("schedules", "schedule_crew")));
+        cases.put("UserRepository.countTotalUsers", scan(
+                () -> userRepository.countTotalUsers()));
+        cases.put("UserRepository.countActiveUsersByGuild", indexed(
+                () -> userRepository.countActiveUsersByGuild(GUILD), List.of("schedules", "schedule_crew")));
+        cases.put("UserRepository.searchUsers", scan(
+                () -> userRepository.searchUsers("ser")));
+        cases.put("UserRepository.findUsersWithoutSchedules", scan(
+                () -> userRepository.findUsersWithoutSchedules()));
+        cases.put("UserRepository.findByDiscordIdWithSchedules", indexed(
+                () -> userRepository.findByDiscordIdWithSchedules("user-3"), List.of("aviation_users", "schedule_crew", "schedules")));
+
+        // ScheduleLogRepository
+        cases.put("ScheduleLogRepository.findByScheduleIdOrderByTimestampAsc", indexed(
+                () -> scheduleLogRepository.findByScheduleIdOrderByTimestampAsc(3L), List.of("schedule_logs")));
+        cases.put("ScheduleLogRepository.findRecentLogs", indexed(
+                () -> scheduleLogRepository.findRecentLogs(List.of(3L, 4L, 5L), 10), List.of("schedule_logs")));
+        cases.put("ScheduleLogRepository.deleteByScheduleId", indexed(
+                () -> {
+                    scheduleLogRepository.deleteByScheduleId(3L);
+                    return null;
+                }, List.of("schedule_logs")));
+
+        // Exportação (HQL em sessão sobre o pool de background, fora dos repositórios)
+        cases.put("HistoryExportService.exportSchedules", indexed(
+                () -> exportService.exportSchedules(EXPORT_FILTER, Format.NDJSON, OutputStream.nullOutputStream()),
+                List.of("schedules")));
+        cases.put("HistoryExportService.exportLogs", indexed(
+                () -> exportService.exportLogs(EXPORT_FILTER, Format.NDJSON, OutputStream.nullOutputStream()),
+                List.of("schedule_logs", "schedules")));
+        return cases;
+    }
+
+    private static PlanCase indexed(RepositoryCall call, List<String> indexedTables) {
+        return new PlanCase(call, indexedTables);
+    }
+
+    private static PlanCase scan(RepositoryCall call) {
+        return new PlanCase(call, List.of());
+    }
+
+    @FunctionalInterface
+    private interface RepositoryCall {
+        Object run() throws Exception;
+    }
+
+    private record PlanCase(RepositoryCall call, List<String> indexedTables) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.gra.paradise.botattendance.repository;
+
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.model.MissionType;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.model.ScheduleLog;
+import com.gra.paradise.botattendance.model.User;
+import com.gra.paradise.botattendance.service.ScheduleServiceOptimized;
+import com.gra.paradise.botattendance.utils.JdbcRowCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contagem de linhas dos planos de busca de Schedule
+ * Com 30 tripulantes e 500 logs, o antigo JOIN FETCH de tripulação + logs trazia 15.000 linhas
+ * para uma única escala. Cada plano do catálogo precisa trafegar linhas proporcionais ao que usa.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ScheduleFetchPlanTest {
+
+    private static final String GUILD = "guild-fetch";
+    private static final int CREW = 30;
+    private static final int LOGS = 500;
+    private static final int RECENT = 10;
+
+    @TestConfiguration
+    static class RowCountingConfig {
+        @Bean
+        static BeanPostProcessor rowCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                            ? JdbcRowCounter.wrap(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private ScheduleRepositoryOptimized scheduleRepository;
+
+    @Autowired
+    private ScheduleLogRepository scheduleLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ScheduleServiceOptimized scheduleService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long scheduleId;
+
+    @BeforeEach
+    void seed() {
+        List<User> crew = new ArrayList<>();
+        for (int i = 0; i < CREW; i++) {
+            crew.add(new User("fetch-" + i, "fetch" + i, "Fetch " + i));
+        }
+        userRepository.saveAll(crew);
+
+        Schedule schedule = new Schedule();
+        schedule.setGuildId(GUILD);
+        schedule.setTitle("G.R.A - 1");
+        schedule.setAircraftType(AircraftType.EC135);
+        schedule.setMissionType(MissionType.PATROL);
+        schedule.setStartTime(Instant.now());
+        schedule.setCreatedById("pilot-fetch");
+        schedule.setCreatedByUsername("Piloto");
+        schedule.setActive(true);
+        schedule.getCrewMembers().addAll(crew);
+        schedule = scheduleRepository.save(schedule);
+        scheduleId = schedule.getId();
+
+        List<ScheduleLog> logs = new ArrayList<>();
+        for (int i = 0; i < LOGS; i++) {
+            logs.add(new ScheduleLog(schedule, "EMBARKED", "fetch-" + (i % CREW), "Fetch", " embarcou."));
+        }
+        scheduleLogRepository.saveAll(logs);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM schedule_logs");
+        jdbcTemplate.update("DELETE FROM schedule_crew");
+        jdbcTemplate.update("DELETE FROM schedules");
+        jdbcTemplate.update("DELETE FROM aviation_users");
+        // Deletes via JDBC não passam pelo Hibernate; o cache L2 precisa ser limpo junto
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void headerPlanReadsSingleRow() {
+        Schedule header = countRows(1, () -> scheduleRepository.findHeaderByIdAndGuildId(scheduleId, GUILD).orElseThrow());
+
+        assertThat(Hibernate.isInitialized(header.getCrewMembers())).isFalse();
+        assertThat(Hibernate.isInitialized(header.getLogs())).isFalse();
+    }
+
+    @Test
+    void crewPlanReadsOneRowPerCrewMember() {
+        Schedule schedule = countRows(CREW, () -> scheduleRepository.findByIdAndGuildIdWithRelations(scheduleId, GUILD).orElseThrow());
+
+        assertThat(schedule.getCrewMembers()).hasSize(CREW);
+        assertThat(Hibernate.isInitialized(schedule.getLogs())).isFalse();
+    }
+
+    @Test
+    void activeSchedulesPlanDoesNotMultiplyByLogs() {
+        List<Schedule> schedules = countRows(CREW, () -> scheduleRepository.findActiveSchedulesWithCrew(GUILD));
+
+        assertThat(schedules).hasSize(1);
+        assertThat(schedules.get(0).getCrewMembers()).hasSize(CREW);
+    }
+
+    @Test
+    void crewAndRecentLogsPlanReadsCrewPlusLimit() {
+        Map<Long, List<ScheduleLog>> recent = countRows(CREW + RECENT, () -> {
+            scheduleRepository.findByIdAndGuildIdWithRelations(scheduleId, GUILD).orElseThrow();
+            return scheduleService.getRecentLogs(List.of(scheduleId), RECENT);
+        });
+
+        assertThat(recent.get(scheduleId)).hasSize(RECENT);
+    }
+
+    private <T> T countRows(int maxRows, Supplier<T> query) {
+        return transactionTemplate.execute(status -> {
+            JdbcRowCounter.reset();
+            T result = query.get();
+            assertThat(JdbcRowCounter.rows())
+                    .as("linhas JDBC lidas (limite %d; o produto cartesiano seria %d)", maxRows, CREW * LOGS)
+                    .isLessThanOrEqualTo(maxRows);
+            return result;
+        });
+    }
+}
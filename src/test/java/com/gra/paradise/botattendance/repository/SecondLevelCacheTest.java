@@ -0,0 +1,79 @@
+package com.gra.paradise.botattendance.repository;
+
+import com.gra.paradise.botattendance.model.GuildConfig;
+import com.gra.paradise.botattendance.model.User;
+import com.gra.paradise.botattendance.utils.QueryBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache de segundo nível
+ * Leituras repetidas de User e GuildConfig por ID não podem ir ao banco,
+ * e as métricas de hit/miss por região precisam refletir isso.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GuildConfigRepository guildConfigRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM aviation_users");
+        jdbcTemplate.update("DELETE FROM guild_config");
+        // Deletes via JDBC não passam pelo Hibernate; o cache L2 precisa ser limpo junto
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void repeatedUserLookupsAreServedFromCache() throws Exception {
+        userRepository.save(new User("cached-1", "cached", "Cached"));
+        userRepository.findById("cached-1");
+
+        User user = QueryBudget.forRoute("user_lookup")
+                .maxStatements(0)
+                .assertWithin(() -> userRepository.findById("cached-1").orElseThrow());
+
+        assertThat(user.getNickname()).isEqualTo("Cached");
+        assertThat(meterRegistry.get("hibernate.l2.requests")
+                .tags("region", "users", "result", "hit")
+                .functionCounter()
+                .count()).isPositive();
+    }
+
+    @Test
+    void guildConfigIsServedFromCacheAfterSave() throws Exception {
+        GuildConfig config = new GuildConfig();
+        config.setGuildId("guild-l2");
+        config.setSystemChannelId("channel-1");
+        guildConfigRepository.save(config);
+        guildConfigRepository.findById("guild-l2");
+
+        GuildConfig cached = QueryBudget.forRoute("guild_config_lookup")
+                .maxStatements(0)
+                .assertWithin(() -> guildConfigRepository.findById("guild-l2").orElseThrow());
+
+        assertThat(cached.getSystemChannelId()).isEqualTo("channel-1");
+    }
+}
@@ -0,0 +1,149 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.discord.rest.DiscordMessageOps;
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.repository.ScheduleRepository;
+import discord4j.rest.http.client.ClientException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Reconciliação do boot
+ * Mensagem existente volta para os mapas, mensagem apagada é publicada de novo
+ * e escala sem canal (ou com o canal apagado) é encerrada como órfã. Canal sem permissão e escala que
+ * sempre falha são pulados.
+ */
+class DiscordStateReconcilerTest {
+
+    private final ScheduleRepository scheduleRepository = mock(ScheduleRepository.class);
+    private final ScheduleManager scheduleManager = mock(ScheduleManager.class);
+    private final ScheduleMessageManager scheduleMessageManager = mock(ScheduleMessageManager.class);
+    private final ScheduleMessagePublisher messagePublisher = mock(ScheduleMessagePublisher.class);
+    private final DiscordMessageOps messageOps = mock(DiscordMessageOps.class);
+    private final DiscordRestScheduler restScheduler = mock(DiscordRestScheduler.class);
+    private final TimerService timerService = new TimerService(Runnable::run, new SimpleMeterRegistry(), 1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DiscordStateReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        when(restScheduler.submit(any(), anyString(), any())).thenAnswer(invocation -> invocation.getArgument(2));
+        when(scheduleMessageManager.getSystemMessageGuildIds()).thenReturn(Set.of("guild"));
+        when(scheduleMessageManager.verifySystemMessage("guild")).thenReturn(Mono.just(false));
+        when(scheduleMessageManager.registerScheduleMessage(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+        when(scheduleMessageManager.updateSystemMessage(anyString())).thenReturn(Mono.empty());
+        reconciler = new DiscordStateReconciler(scheduleRepository, scheduleManager, scheduleMessageManager,
+                messagePublisher, messageOps, restScheduler, timerService, Schedulers.boundedElastic(), meterRegistry, true, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timerService.shutdown();
+    }
+
+    @Test
+    void repairsMessagesAndClosesOrphans() {
+        Schedule present = schedule(1L, "channel", "message-1");
+        Schedule deleted = schedule(2L, "channel", "message-2");
+        Schedule orphan = schedule(3L, null, null);
+        when(scheduleRepository.findActiveForReconciliation(anyLong(), any(), any()))
+                .thenReturn(List.of(present, deleted, orphan), List.of());
+        when(messageOps.exists("channel", "message-1")).thenReturn(Mono.just(true));
+        when(messageOps.exists("channel", "message-2")).thenReturn(Mono.just(false));
+        when(scheduleRepository.findCrewNicknames(2L)).thenReturn(List.of("Crew"));
+        when(messagePublisher.republishSchedulePublicMessage(deleted, List.of("Crew"))).thenReturn(Mono.empty());
+
+        reconciler.start();
+
+        verify(scheduleMessageManager, timeout(5000)).updateSystemMessage("guild");
+        verify(scheduleMessageManager).registerScheduleMessage("1", "channel", "message-1");
+        verify(messagePublisher).republishSchedulePublicMessage(deleted, List.of("Crew"));
+        verify(scheduleManager).closeOrphanSchedule("guild", 3L);
+        verify(scheduleRepository, times(2)).findActiveForReconciliation(anyLong(), any(), any());
+    }
+
+    @Test
+    void deletedChannelClosesOrphan() {
+        Schedule deleted = schedule(4L, "gone", "message-4");
+        when(scheduleRepository.findActiveForReconciliation(anyLong(), any(), any()))
+                .thenReturn(List.of(deleted), List.of());
+        when(messageOps.exists("gone", "message-4")).thenReturn(Mono.just(false));
+        when(scheduleRepository.findCrewNicknames(4L)).thenReturn(List.of());
+        ClientException notFound = clientError(HttpResponseStatus.NOT_FOUND);
+        when(messagePublisher.republishSchedulePublicMessage(deleted, List.of())).thenReturn(Mono.error(notFound));
+
+        reconciler.start();
+
+        verify(scheduleMessageManager, timeout(5000)).updateSystemMessage("guild");
+        verify(scheduleManager).closeOrphanSchedule("guild", 4L);
+    }
+
+    @Test
+    void forbiddenChannelIsSkippedWithoutClosing() throws InterruptedException {
+        Schedule hidden = schedule(6L, "hidden", "message-6");
+        when(scheduleRepository.findActiveForReconciliation(anyLong(), any(), any()))
+                .thenReturn(List.of(hidden), List.of());
+        ClientException forbidden = clientError(HttpResponseStatus.FORBIDDEN);
+        when(messageOps.exists("hidden", "message-6")).thenReturn(Mono.error(forbidden));
+
+        reconciler.start();
+        awaitFinished();
+
+        verify(scheduleManager, never()).closeOrphanSchedule(anyString(), anyLong());
+        verify(messagePublisher, never()).republishSchedulePublicMessage(any(), any());
+        assertThat(meterRegistry.get("discord.reconcile.schedules").tag("outcome", "skipped").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void failingScheduleIsSkippedAfterMaxAttempts() throws InterruptedException {
+        Schedule poison = schedule(5L, "channel", "message-5");
+        when(scheduleRepository.findActiveForReconciliation(anyLong(), any(), any()))
+                .thenReturn(List.of(poison), List.of(poison), List.of(poison), List.of());
+        when(messageOps.exists("channel", "message-5")).thenReturn(Mono.error(new IllegalStateException("timeout")));
+
+        reconciler.start();
+        awaitFinished();
+
+        verify(messageOps, times(3)).exists("channel", "message-5");
+        verify(scheduleRepository, times(4)).findActiveForReconciliation(anyLong(), any(), any());
+        assertThat(meterRegistry.get("discord.reconcile.schedules").tag("outcome", "skipped").counter().count()).isEqualTo(1.0);
+    }
+
+    private void awaitFinished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (reconciler.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(reconciler.isRunning()).isFalse();
+    }
+
+    private static ClientException clientError(HttpResponseStatus status) {
+        ClientException exception = mock(ClientException.class);
+        when(exception.getStatus()).thenReturn(status);
+        return exception;
+    }
+
+    private static Schedule schedule(Long id, String channelId, String messageId) {
+        Schedule schedule = new Schedule();
+        schedule.setId(id);
+        schedule.setGuildId("guild");
+        schedule.setActive(true);
+        schedule.setChannelId(channelId);
+        schedule.setMessageId(messageId);
+        return schedule;
+    }
+}
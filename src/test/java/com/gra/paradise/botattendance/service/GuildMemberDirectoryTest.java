@@ -0,0 +1,111 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.discord.DiscordGateway;
+import com.gra.paradise.botattendance.model.User;
+import discord4j.common.util.Snowflake;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.object.entity.Member;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+/**
+ * Resolução de nomes da tripulação pelo diretório de membros
+ * Membros já vistos não podem gerar chamadas ao Discord, e os demais
+ * precisam sair num único request-guild-members.
+ */
+class GuildMemberDirectoryTest {
+
+    private static final String GUILD_ID = "100";
+
+    @Mock
+    private GatewayDiscordClient gateway;
+
+    @Mock
+    private UserService userService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GuildMemberDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        directory = new GuildMemberDirectory(new DiscordGateway(Mono.just(gateway)), userService, meterRegistry);
+    }
+
+    @Test
+    void warmCrewIsResolvedWithoutCallingDiscord() {
+        directory.remember(GUILD_ID, "1", "Piloto");
+        directory.remember(GUILD_ID, "2", "Copiloto");
+
+        List<String> names = directory.resolveDisplayNames(GUILD_ID, List.of(user("1"), user("2"))).block();
+
+        assertEquals(List.of("Piloto", "Copiloto"), names);
+        verifyNoInteractions(gateway);
+        assertEquals(2.0, meterRegistry.get("discord.members.lookups").tag("result", "hit").counter().count());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void coldCrewIsFetchedInSingleBatchAndCached() {
+        directory.remember(GUILD_ID, "1", "Piloto");
+        Member copilot = member("2", "Copiloto");
+        Member gunner = member("3", "Artilheiro");
+        when(gateway.requestMembers(any(Snowflake.class), anySet())).thenReturn(Flux.just(copilot, gunner));
+
+        List<String> names = directory.resolveDisplayNames(GUILD_ID, List.of(user("1"), user("2"), user("3"))).block();
+
+        assertEquals(List.of("Piloto", "Copiloto", "Artilheiro"), names);
+        ArgumentCaptor<Set<Snowflake>> ids = ArgumentCaptor.forClass(Set.class);
+        verify(gateway, times(1)).requestMembers(eq(Snowflake.of(GUILD_ID)), ids.capture());
+        assertEquals(Set.of(Snowflake.of("2"), Snowflake.of("3")), ids.getValue());
+        assertEquals(Optional.of("Artilheiro"), directory.getDisplayName(GUILD_ID, "3"));
+        assertEquals(1.0, meterRegistry.get("discord.members.batch.requests").counter().count());
+    }
+
+    @Test
+    void storedNicknameIsUsedWhenGatewayFails() {
+        when(gateway.requestMembers(any(Snowflake.class), anySet()))
+                .thenReturn(Flux.error(new IllegalStateException("gateway indisponível")));
+
+        List<String> names = directory.resolveDisplayNames(GUILD_ID, List.of(user("4"))).block();
+
+        assertEquals(List.of("Nick 4"), names);
+    }
+
+    @Test
+    void forgottenMemberIsNoLongerCached() {
+        directory.remember(GUILD_ID, "5", "Saiu");
+        directory.forget(GUILD_ID, "5");
+
+        assertTrue(directory.getDisplayName(GUILD_ID, "5").isEmpty());
+    }
+
+    private static User user(String discordId) {
+        return new User(discordId, "user" + discordId, "Nick " + discordId);
+    }
+
+    private static Member member(String id, String nickname) {
+        Member member = mock(Member.class);
+        when(member.getId()).thenReturn(Snowflake.of(id));
+        when(member.getGuildId()).thenReturn(Snowflake.of(GUILD_ID));
+        when(member.getNickname()).thenReturn(Optional.of(nickname));
+        when(member.getUsername()).thenReturn("user" + id);
+        return member;
+    }
+}
@@ -0,0 +1,135 @@
+package com.gra.paradise.botattendance.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.model.MissionType;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.model.User;
+import com.gra.paradise.botattendance.repository.ScheduleRepository;
+import com.gra.paradise.botattendance.repository.UserRepository;
+import com.gra.paradise.botattendance.service.HistoryExportService.Filter;
+import com.gra.paradise.botattendance.service.HistoryExportService.Format;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exportação do histórico
+ * A paginação por keyset precisa continuar exatamente de onde a página anterior parou,
+ * e os filtros de aeronave e usuário (piloto ou tripulante) precisam valer no banco.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HistoryExportServiceTest {
+
+    private static final String GUILD = "export-guild";
+
+    @Autowired
+    private HistoryExportService exportService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> scheduleIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        User crew = userRepository.save(new User("export-crew", "crew", "Crew"));
+        scheduleIds.add(save("G.R.A - 1", AircraftType.EC135, "pilot-a", null));
+        scheduleIds.add(save("G.R.A - 2", AircraftType.MAVERICK, "pilot-b", crew));
+        scheduleIds.add(save("G.R.A - 3", AircraftType.EC135, "pilot-b", null));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM schedule_crew");
+        jdbcTemplate.update("DELETE FROM schedules");
+        jdbcTemplate.update("DELETE FROM aviation_users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void keysetPagesResumeAfterLastId() throws Exception {
+        List<JsonNode> firstPage = exportNdjson(new Filter(GUILD, null, null, null, null, 0, 2));
+        long lastId = firstPage.get(firstPage.size() - 1).get("id").asLong();
+        List<JsonNode> secondPage = exportNdjson(new Filter(GUILD, null, null, null, null, lastId, 2));
+
+        assertThat(firstPage).extracting(row -> row.get("id").asLong()).containsExactly(scheduleIds.get(0), scheduleIds.get(1));
+        assertThat(secondPage).extracting(row -> row.get("id").asLong()).containsExactly(scheduleIds.get(2));
+    }
+
+    @Test
+    void filtersByAircraftAndCrewMember() throws Exception {
+        assertThat(exportNdjson(new Filter(GUILD, null, null, AircraftType.EC135, null, 0, 10)))
+                .extracting(row -> row.get("title").asText())
+                .containsExactly("G.R.A - 1", "G.R.A - 3");
+        assertThat(exportNdjson(new Filter(GUILD, null, null, null, "export-crew", 0, 10)))
+                .extracting(row -> row.get("crewSize").asInt())
+                .containsExactly(1);
+    }
+
+    @Test
+    void csvHasHeaderAndOneLinePerSchedule() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.exportSchedules(new Filter(GUILD, null, null, null, "pilot-b", 0, 10), Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo(HistoryExportService.SCHEDULES_HEADER);
+    }
+
+    private List<JsonNode> exportNdjson(Filter filter) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportSchedules(filter, Format.NDJSON, out);
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+
+    private Long save(String title, AircraftType aircraftType, String pilotId, User crew) {
+        Schedule schedule = new Schedule();
+        schedule.setGuildId(GUILD);
+        schedule.setTitle(title);
+        schedule.setAircraftType(aircraftType);
+        schedule.setMissionType(MissionType.PATROL);
+        schedule.setStartTime(Instant.now());
+        schedule.setCreatedById(pilotId);
+        schedule.setCreatedByUsername("Piloto");
+        schedule.setActive(true);
+        if (crew != null) {
+            schedule.getCrewMembers().add(crew);
+        }
+        return scheduleRepository.save(schedule).getId();
+    }
+}
@@ -0,0 +1,54 @@
+package com.gra.paradise.botattendance.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Sugestões de missões OUTROS
+ * O uso recente precisa passar na frente do uso antigo e das sugestões fixas,
+ * e a busca vale tanto para o começo da descrição quanto para o começo de cada palavra.
+ */
+class OtherMissionSuggestionIndexTest {
+
+    private OtherMissionSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new OtherMissionSuggestionIndex(mock(DataSource.class), Runnable::run, 30);
+    }
+
+    @Test
+    void seedsWithStaticSuggestions() {
+        assertThat(index.suggest("recr", 25)).contains("Recrutamento", "Recrutamento GRA");
+        assertThat(index.suggest("gra", 25)).contains("Recrutamento GRA");
+        assertThat(index.suggest("formação", 25)).containsExactly("Formacao Semanal");
+    }
+
+    @Test
+    void recentUseOutranksOldUseAndSeeds() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            index.record("Recrutamento GOT", now.minus(Duration.ofDays(200)));
+        }
+        index.record("Recrutamento GIC", now);
+
+        assertThat(index.suggest("recrutamento g", 25).get(0)).isEqualTo("Recrutamento GIC");
+    }
+
+    @Test
+    void newDescriptionsAreSuggestedRightAway() {
+        index.record("Escolta de Comboio", Instant.now());
+        index.record("escolta de comboio", Instant.now());
+
+        assertThat(index.suggest("ESC", 25)).containsExactly("escolta de comboio");
+        assertThat(index.suggest("comb", 25)).containsExactly("escolta de comboio");
+        assertThat(index.suggest("", 1)).containsExactly("escolta de comboio");
+    }
+}
@@ -0,0 +1,87 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.discord.rest.DiscordMessageOps;
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.model.Schedule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Encerramento automático por inatividade
+ * Atividade renova o prazo, encerrar esquece a escala e um prazo vencido no boot
+ * leva a escala pelo caminho normal de encerramento.
+ */
+class ScheduleAutoCloseServiceTest {
+
+    private final ScheduleManager scheduleManager = mock(ScheduleManager.class);
+    private final ScheduleMessageManager scheduleMessageManager = mock(ScheduleMessageManager.class);
+    private final TimerService timerService = new TimerService(Runnable::run, new SimpleMeterRegistry(), 1);
+
+    @AfterEach
+    void tearDown() {
+        timerService.shutdown();
+    }
+
+    private ScheduleAutoCloseService service(long inactivityMinutes, long reminderMinutes) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ScheduleManager> scheduleManagerProvider = mock(ObjectProvider.class);
+        when(scheduleManagerProvider.getObject()).thenReturn(scheduleManager);
+        return new ScheduleAutoCloseService(scheduleManagerProvider, scheduleMessageManager, mock(DiscordMessageOps.class),
+                mock(DiscordRestScheduler.class), timerService, mock(DataSource.class), Runnable::run,
+                new SimpleMeterRegistry(), true, inactivityMinutes, reminderMinutes);
+    }
+
+    @Test
+    void touchReplacesDeadlineAndForgetCancelsIt() {
+        ScheduleAutoCloseService autoClose = service(240, 30);
+
+        autoClose.touch("guild", 1L);
+        autoClose.touch("guild", 1L);
+        assertThat(autoClose.tracked()).isEqualTo(1);
+        assertThat(timerService.pending()).isEqualTo(1);
+
+        autoClose.forget(1L);
+        assertThat(autoClose.tracked()).isZero();
+        assertThat(timerService.pending()).isZero();
+    }
+
+    @Test
+    void restoreDoesNotOverrideActivityAfterBoot() {
+        ScheduleAutoCloseService autoClose = service(240, 30);
+
+        autoClose.touch("guild", 1L);
+
+        assertThat(autoClose.restore("guild", 1L, Instant.EPOCH)).isFalse();
+        assertThat(autoClose.restore("guild", 2L, Instant.now())).isTrue();
+        assertThat(autoClose.tracked()).isEqualTo(2);
+    }
+
+    @Test
+    void overdueScheduleIsClosedThroughScheduleManager() {
+        Schedule schedule = new Schedule();
+        schedule.setId(1L);
+        schedule.setGuildId("guild");
+        schedule.setActive(true);
+        when(scheduleManager.findByIdAndGuildId(1L, "guild")).thenReturn(Optional.of(schedule));
+        when(scheduleManager.autoCloseSchedule("guild", 1L)).thenReturn(schedule);
+        when(scheduleMessageManager.removeScheduleMessage(anyString(), anyString())).thenReturn(Mono.empty());
+        ScheduleAutoCloseService autoClose = service(240, 0);
+
+        autoClose.restore("guild", 1L, Instant.EPOCH);
+
+        verify(scheduleManager, timeout(5000)).autoCloseSchedule("guild", 1L);
+        verify(scheduleMessageManager, timeout(5000)).removeScheduleMessage("1", "guild");
+        assertThat(autoClose.tracked()).isZero();
+    }
+}
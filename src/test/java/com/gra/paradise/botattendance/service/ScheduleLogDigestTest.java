@@ -0,0 +1,90 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.config.DiscordConfig;
+import com.gra.paradise.botattendance.discord.rest.DiscordMessageOps;
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.model.MissionType;
+import discord4j.discordjson.Id;
+import discord4j.discordjson.json.MessageData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Modo resumo dos logs
+ * Várias atividades da mesma guilda precisam sair numa única escrita, e os envios
+ * seguintes precisam editar a mesma mensagem em vez de criar outra.
+ */
+class ScheduleLogDigestTest {
+
+    private static final String GUILD_ID = "100";
+    private static final String CHANNEL_ID = "200";
+
+    @Mock
+    private DiscordConfig discordConfig;
+
+    @Mock
+    private DiscordMessageOps messageOps;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ScheduleLogDigest digest;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(discordConfig.getLogChannelId(GUILD_ID, MissionType.PATROL)).thenReturn(CHANNEL_ID);
+        MessageData posted = mock(MessageData.class);
+        when(posted.id()).thenReturn(Id.of("300"));
+        when(messageOps.create(eq(CHANNEL_ID), any())).thenReturn(Mono.just(posted));
+        when(messageOps.editOrRecreate(eq(CHANNEL_ID), eq("300"), any(), any())).thenReturn(Mono.just(posted));
+        digest = new ScheduleLogDigest(discordConfig, messageOps, new DiscordRestScheduler(meterRegistry, 4), meterRegistry);
+    }
+
+    @Test
+    void buffersActivityIntoOneWritePerFlush() {
+        digest.record(GUILD_ID, MissionType.PATROL, "G.R.A - 1 criada");
+        digest.record(GUILD_ID, MissionType.PATROL, "Piloto embarcou");
+        digest.record(GUILD_ID, MissionType.PATROL, "Copiloto embarcou");
+
+        digest.flushNow(GUILD_ID, MissionType.PATROL).block();
+
+        verify(messageOps, times(1)).create(eq(CHANNEL_ID), any());
+        verifyNoMoreInteractions(messageOps);
+        assertEquals(2.0, meterRegistry.get("discord.logs.digest.calls.saved").counter().count());
+        assertEquals(1, meterRegistry.get("discord.logs.digest.staleness").timer().count());
+    }
+
+    @Test
+    void laterFlushesEditTheSameDigestMessage() {
+        digest.record(GUILD_ID, MissionType.PATROL, "G.R.A - 1 criada");
+        digest.flushNow(GUILD_ID, MissionType.PATROL).block();
+        digest.record(GUILD_ID, MissionType.PATROL, "G.R.A - 1 encerrada");
+        digest.flushNow(GUILD_ID, MissionType.PATROL).block();
+
+        verify(messageOps, times(1)).create(eq(CHANNEL_ID), any());
+        verify(messageOps, times(1)).editOrRecreate(eq(CHANNEL_ID), eq("300"), any(), any());
+    }
+
+    @Test
+    void emptyDigestSendsNothing() {
+        digest.record(GUILD_ID, MissionType.PATROL, "G.R.A - 1 criada");
+        digest.flushNow(GUILD_ID, MissionType.PATROL).block();
+        clearInvocations(messageOps);
+
+        digest.flushAll();
+        digest.flushNow(GUILD_ID, MissionType.ACTION).block();
+
+        verify(messageOps, never()).create(anyString(), any());
+        verify(messageOps, never()).editOrRecreate(anyString(), anyString(), any(), any());
+    }
+}
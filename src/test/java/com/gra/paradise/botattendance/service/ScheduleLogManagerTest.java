@@ -0,0 +1,112 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.config.DiscordConfig;
+import com.gra.paradise.botattendance.discord.rest.DiscordMessageOps;
+import com.gra.paradise.botattendance.discord.rest.DiscordRestScheduler;
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.model.LogMode;
+import com.gra.paradise.botattendance.model.MissionType;
+import com.gra.paradise.botattendance.repository.GuildConfigRepository;
+import com.gra.paradise.botattendance.repository.ScheduleLogRepository;
+import com.gra.paradise.botattendance.repository.ScheduleRepository;
+import discord4j.discordjson.json.MessageData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Log final da escala
+ * No modo resumo o encerramento entra no resumo da guilda e o relatório em CSV
+ * ainda precisa ser publicado, depois do resumo.
+ */
+class ScheduleLogManagerTest {
+
+    private static final String GUILD_ID = "100";
+    private static final String CHANNEL_ID = "200";
+    private static final Long SCHEDULE_ID = 7L;
+
+    @Mock
+    private ScheduleLogRepository scheduleLogRepository;
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private DiscordMessageOps messageOps;
+
+    @Mock
+    private DiscordConfig discordConfig;
+
+    @Mock
+    private GuildConfigRepository guildConfigRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ScheduleLogDigest logDigest;
+
+    @Mock
+    private ScheduleReportService reportService;
+
+    private ScheduleLogManager logManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(discordConfig.getLogMode(GUILD_ID, MissionType.PATROL)).thenReturn(LogMode.DIGEST);
+        when(discordConfig.getLogChannelId(GUILD_ID, MissionType.PATROL)).thenReturn(CHANNEL_ID);
+        when(logDigest.flushNow(GUILD_ID, MissionType.PATROL)).thenReturn(Mono.empty());
+        MessageData posted = mock(MessageData.class);
+        when(messageOps.create(eq(CHANNEL_ID), any())).thenReturn(Mono.just(posted));
+        logManager = new ScheduleLogManager(scheduleLogRepository, scheduleRepository, messageOps, discordConfig,
+                guildConfigRepository, transactionTemplate, new DiscordRestScheduler(new SimpleMeterRegistry(), 4),
+                logDigest, reportService, Runnable::run, Schedulers.immediate());
+    }
+
+    @Test
+    void digestModePublishesReportAfterTheDigest() throws Exception {
+        Path file = Files.createTempFile("escala-", ".csv");
+        Files.writeString(file, ScheduleReportService.HEADER + "\n");
+        when(reportService.writeReport(SCHEDULE_ID))
+                .thenReturn(new ScheduleReportService.Report(file, "escala-7.csv", 1));
+
+        Instant end = Instant.now();
+        logManager.createFinalScheduleLogMessage(GUILD_ID, SCHEDULE_ID, "G.R.A - 1", AircraftType.EC135,
+                MissionType.PATROL, null, null, end.minusSeconds(3600), end, "Piloto", "Piloto", List.of()).block();
+
+        InOrder order = inOrder(logDigest, reportService, messageOps);
+        order.verify(logDigest).flushNow(GUILD_ID, MissionType.PATROL);
+        order.verify(reportService).writeReport(SCHEDULE_ID);
+        order.verify(messageOps).create(eq(CHANNEL_ID), any());
+        assertFalse(Files.exists(file), "o relatório temporário precisa ser apagado depois do envio");
+    }
+
+    @Test
+    void digestModeWithoutLogChannelSkipsReport() throws Exception {
+        when(discordConfig.getLogChannelId(GUILD_ID, MissionType.PATROL)).thenReturn(null);
+
+        Instant end = Instant.now();
+        logManager.createFinalScheduleLogMessage(GUILD_ID, SCHEDULE_ID, "G.R.A - 1", AircraftType.EC135,
+                MissionType.PATROL, null, null, end.minusSeconds(3600), end, "Piloto", "Piloto", List.of()).block();
+
+        verify(logDigest).flushNow(GUILD_ID, MissionType.PATROL);
+        verifyNoInteractions(reportService, messageOps);
+    }
+}
@@ -4,7 +4,6 @@ import com.gra.paradise.botattendance.exception.OnlyCreatorCanCloseScheduleExcep
 import com.gra.paradise.botattendance.exception.ScheduleNotFoundException;
 import com.gra.paradise.botattendance.model.Schedule;
 import com.gra.paradise.botattendance.repository.ScheduleRepository;
-import com.gra.paradise.botattendance.repository.ScheduleLogRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -25,9 +24,6 @@ class ScheduleManagerForceCloseTest {
     @Mock
     private ScheduleRepository scheduleRepository;
 
-    @Mock
-    private ScheduleLogRepository scheduleLogRepository;
-
     @Mock
     private DiscordService discordService;
 
@@ -43,12 +39,21 @@ class ScheduleManagerForceCloseTest {
     @Mock
     private CacheService cacheService;
 
+    @Mock
+    private CrewActivityRecorder crewActivityRecorder;
+
+    @Mock
+    private OtherMissionSuggestionIndex missionSuggestions;
+
+    @Mock
+    private ScheduleAutoCloseService autoClose;
+
     private ScheduleManager scheduleManager;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        scheduleManager = new ScheduleManager(scheduleRepository, scheduleLogRepository, userService, logManager, discordService, performanceMetrics, cacheService);
+        scheduleManager = new ScheduleManager(scheduleRepository, userService, logManager, discordService, performanceMetrics, cacheService, crewActivityRecorder, missionSuggestions, autoClose);
     }
 
     @Test
@@ -0,0 +1,146 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.model.MissionType;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.model.User;
+import com.gra.paradise.botattendance.repository.ScheduleRepository;
+import com.gra.paradise.botattendance.repository.UserRepository;
+import com.gra.paradise.botattendance.utils.QueryBudget;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Orçamento de queries das rotas quentes do ScheduleManager
+ * Cada rota roda sobre uma escala com tripulação cheia; se uma mudança introduzir N+1
+ * (uma query por tripulante ou por log), o número de statements estoura o orçamento.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ScheduleManagerQueryBudgetTest {
+
+    private static final String GUILD = "guild-budget";
+    private static final String PILOT = "pilot-1";
+    private static final int CREW = 30;
+
+    @Autowired
+    private ScheduleManager scheduleManager;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private ScheduleLogManager logManager;
+
+    @MockBean
+    private DiscordService discordService;
+
+    private Long scheduleId;
+
+    @BeforeEach
+    void seed() {
+        when(logManager.sendScheduleCreationLog(anyString(), any())).thenReturn(Mono.empty());
+        when(logManager.updateScheduleLogMessage(anyString(), any(), anyString())).thenReturn(Mono.empty());
+        when(logManager.createFinalScheduleLogMessage(any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), any(), any())).thenReturn(Mono.empty());
+
+        List<User> crew = new ArrayList<>();
+        for (int i = 0; i < CREW; i++) {
+            crew.add(new User("crew-" + i, "crew" + i, "Crew " + i));
+        }
+        userRepository.saveAll(crew);
+
+        Schedule schedule = new Schedule();
+        schedule.setGuildId(GUILD);
+        schedule.setTitle("G.R.A - 1");
+        schedule.setAircraftType(AircraftType.EC135);
+        schedule.setMissionType(MissionType.PATROL);
+        schedule.setStartTime(Instant.now());
+        schedule.setCreatedById(PILOT);
+        schedule.setCreatedByUsername("Piloto");
+        schedule.setActive(true);
+        schedule.getCrewMembers().addAll(crew);
+        scheduleId = scheduleRepository.save(schedule).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM schedule_logs");
+        jdbcTemplate.update("DELETE FROM crew_activities");
+        jdbcTemplate.update("DELETE FROM schedule_crew");
+        jdbcTemplate.update("DELETE FROM schedules");
+        jdbcTemplate.update("DELETE FROM aviation_users");
+        // Deletes via JDBC não passam pelo Hibernate; o cache L2 precisa ser limpo junto
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void createScheduleStaysWithinBudget() throws Exception {
+        Schedule created = QueryBudget.forRoute("create_schedule")
+                .maxStatements(3)
+                .maxCollectionFetches(0)
+                .assertWithin(() -> scheduleManager.createSchedule(GUILD, "G.R.A - 2", AircraftType.EC135,
+                        MissionType.PATROL, PILOT, "Piloto", null, null));
+
+        assertThat(created.getId()).isNotNull();
+    }
+
+    @Test
+    void boardScheduleDoesNotScaleWithCrew() throws Exception {
+        Schedule boarded = QueryBudget.forRoute("board_schedule")
+                .maxStatements(6)
+                .maxCollectionFetches(1)
+                .assertWithin(() -> scheduleManager.addCrewMember(GUILD, scheduleId, "crew-new", "crewnew", "Crew New"));
+
+        assertThat(boarded.getCrewMembers()).hasSize(CREW + 1);
+    }
+
+    @Test
+    void leaveScheduleDoesNotScaleWithCrew() throws Exception {
+        // Sair do início da lista renumera o crew_order dos demais; as atualizações saem em lote (batch_size 20)
+        Schedule left = QueryBudget.forRoute("leave_schedule")
+                .maxStatements(6)
+                .maxCollectionFetches(1)
+                .assertWithin(() -> scheduleManager.removeCrewMember(GUILD, scheduleId, "crew-0", "Crew 0"));
+
+        assertThat(left.getCrewMembers()).hasSize(CREW - 1);
+    }
+
+    @Test
+    void endScheduleDoesNotScaleWithCrew() throws Exception {
+        when(discordService.checkUserHasRole(anyString(), anyString(), anyString())).thenReturn(false);
+
+        Schedule closed = QueryBudget.forRoute("end_schedule")
+                .maxStatements(5)
+                .maxCollectionFetches(1)
+                .assertWithin(() -> scheduleManager.closeSchedule(GUILD, scheduleId, PILOT, "Piloto"));
+
+        assertThat(closed.isActive()).isFalse();
+    }
+}
@@ -0,0 +1,97 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.model.AircraftType;
+import com.gra.paradise.botattendance.model.CrewActivityType;
+import com.gra.paradise.botattendance.model.MissionType;
+import com.gra.paradise.botattendance.model.Schedule;
+import com.gra.paradise.botattendance.model.ScheduleLog;
+import com.gra.paradise.botattendance.model.User;
+import com.gra.paradise.botattendance.repository.ScheduleLogRepository;
+import com.gra.paradise.botattendance.repository.ScheduleRepository;
+import com.gra.paradise.botattendance.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relatório final da escala
+ * O CSV precisa trazer logs e eventos de tripulação (inclusive os ainda no buffer)
+ * e escapar vírgulas e aspas vindas dos detalhes digitados pelos usuários.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ScheduleReportServiceTest {
+
+    @Autowired
+    private ScheduleReportService reportService;
+
+    @Autowired
+    private CrewActivityRecorder crewActivityRecorder;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ScheduleLogRepository scheduleLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM schedule_logs");
+        jdbcTemplate.update("DELETE FROM crew_activities");
+        jdbcTemplate.update("DELETE FROM schedule_crew");
+        jdbcTemplate.update("DELETE FROM schedules");
+        jdbcTemplate.update("DELETE FROM aviation_users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void reportStreamsLogsAndCrewTimeline() throws Exception {
+        userRepository.save(new User("report-1", "crew1", "Crew 1"));
+        Schedule schedule = new Schedule();
+        schedule.setGuildId("report-guild");
+        schedule.setTitle("G.R.A - 1");
+        schedule.setAircraftType(AircraftType.EC135);
+        schedule.setMissionType(MissionType.PATROL);
+        schedule.setStartTime(Instant.now());
+        schedule.setCreatedById("pilot-1");
+        schedule.setCreatedByUsername("Piloto");
+        schedule.setActive(true);
+        Long scheduleId = scheduleRepository.save(schedule).getId();
+
+        scheduleLogRepository.save(new ScheduleLog(schedule, "CREATED", "pilot-1", "Piloto", "Escala criada: G.R.A - 1"));
+        scheduleLogRepository.save(new ScheduleLog(schedule, "BOARD", "report-1", "Crew 1", "embarcou, \"atrasado\""));
+        crewActivityRecorder.record(scheduleId, "report-1", CrewActivityType.BOARD);
+
+        ScheduleReportService.Report report = reportService.writeReport(scheduleId);
+        try {
+            List<String> lines = Files.readAllLines(report.file());
+
+            assertThat(report.rows()).isEqualTo(3);
+            assertThat(lines).hasSize(4);
+            assertThat(lines.get(0)).isEqualTo(ScheduleReportService.HEADER);
+            assertThat(lines).anyMatch(line -> line.startsWith("TRIPULACAO,") && line.contains(",report-1,Crew 1,BOARD,"));
+            assertThat(lines).anyMatch(line -> line.endsWith(",\"embarcou, \"\"atrasado\"\"\""));
+        } finally {
+            Files.deleteIfExists(report.file());
+        }
+    }
+}
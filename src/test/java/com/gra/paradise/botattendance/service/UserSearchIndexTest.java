@@ -0,0 +1,79 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.service.UserSearchIndex.Match;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Índice de busca de usuários
+ * Prefixos aparecem antes dos trechos do meio do nome, acentos e maiúsculas não importam,
+ * e renomear um usuário tira o nome antigo do índice.
+ */
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex(mock(DataSource.class), Runnable::run, new SimpleMeterRegistry());
+        index.upsert("1", "joao.silva", "João Silva");
+        index.upsert("2", "maria", "Maria Joaquina");
+        index.upsert("3", "pedro", "Pedro Alves");
+    }
+
+    @Test
+    void prefixMatchesComeBeforeSubstringMatches() {
+        // "ped" é prefixo de Pedro e só trecho do meio de Trapedeiro, que vem antes em ordem alfabética
+        index.upsert("0", "ana", "Ana Trapedeiro");
+
+        assertThat(index.search("ped", 10))
+                .extracting(Match::discordId)
+                .containsExactly("3", "0");
+        // Os dois são prefixo (de "joao" e de "joaquina"): a ordem entre eles não importa
+        assertThat(index.search("joa", 10))
+                .extracting(Match::discordId)
+                .containsExactlyInAnyOrder("1", "2");
+        assertThat(index.search("lves", 10))
+                .extracting(Match::discordId)
+                .containsExactly("3");
+        assertThat(index.search("ilva", 10).get(0).discordId()).isEqualTo("1");
+    }
+
+    @Test
+    void ignoresAccentsAndCase() {
+        assertThat(index.search("JOÃO", 10))
+                .extracting(Match::discordId)
+                .containsExactly("1");
+    }
+
+    @Test
+    void renameDropsOldName() {
+        index.upsert("3", "pedro", "Capitão Nascimento");
+
+        assertThat(index.search("alves", 10)).isEmpty();
+        assertThat(index.search("nasc", 10)).extracting(Match::discordId).containsExactly("3");
+    }
+
+    @Test
+    void refreshIgnoresUsersNotInIndex() {
+        index.refresh("99", "fantasma", "Fantasma");
+
+        assertThat(index.search("fantasma", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void respectsDiscordSuggestionLimit() {
+        for (int i = 0; i < 40; i++) {
+            index.upsert("bulk-" + i, "piloto" + i, null);
+        }
+
+        assertThat(index.search("pil", 100)).hasSize(UserSearchIndex.MAX_RESULTS);
+    }
+}
@@ -0,0 +1,98 @@
+package com.gra.paradise.botattendance.service;
+
+import com.gra.paradise.botattendance.model.User;
+import com.gra.paradise.botattendance.utils.QueryBudget;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Diretório de usuários
+ * O primeiro embarque custa um único MERGE, os seguintes nenhum statement,
+ * e mudanças de nickname chegam ao banco no flush em lote.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM aviation_users");
+        // Deletes via JDBC não passam pelo Hibernate; o cache L2 precisa ser limpo junto
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void firstBoardIsSingleUpsertAndNextOnesHitNothing() throws Exception {
+        User created = QueryBudget.forRoute("user_upsert")
+                .maxStatements(1)
+                .assertWithin(() -> userService.getOrCreateUser("dir-1", "dir1", "Dir 1"));
+
+        QueryBudget.forRoute("user_known")
+                .maxStatements(0)
+                .assertWithin(() -> userService.getOrCreateUser("dir-1", "dir1", "Dir 1"));
+
+        assertThat(created.getNickname()).isEqualTo("Dir 1");
+        assertThat(nicknameOf("dir-1")).isEqualTo("Dir 1");
+    }
+
+    @Test
+    void upsertRefreshesExistingRowWithoutDuplicating() {
+        jdbcTemplate.update("INSERT INTO aviation_users (discord_id, username, nickname) VALUES (?, ?, ?)",
+                "dir-2", "dir2", "Antigo");
+
+        userService.getOrCreateUser("dir-2", "dir2", "Novo");
+
+        assertThat(nicknameOf("dir-2")).isEqualTo("Novo");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM aviation_users WHERE discord_id = ?",
+                Integer.class, "dir-2")).isEqualTo(1);
+    }
+
+    @Test
+    void nicknameChangesAreWrittenOnFlush() throws Exception {
+        userService.getOrCreateUser("dir-3", "dir3", "Antes");
+
+        QueryBudget.forRoute("user_renamed")
+                .maxStatements(0)
+                .assertWithin(() -> userService.getOrCreateUser("dir-3", "dir3", "Depois"));
+        assertThat(nicknameOf("dir-3")).isEqualTo("Antes");
+
+        userService.flushPendingNames();
+
+        assertThat(nicknameOf("dir-3")).isEqualTo("Depois");
+    }
+
+    @Test
+    void memberEventsUpdateOnlyExistingUsers() {
+        jdbcTemplate.update("INSERT INTO aviation_users (discord_id, username, nickname) VALUES (?, ?, ?)",
+                "dir-4", "dir4", "Antigo");
+
+        userService.refreshNames("dir-4", "dir4", "Evento");
+        userService.refreshNames("dir-5", "dir5", "Desconhecido");
+        userService.flushPendingNames();
+
+        assertThat(nicknameOf("dir-4")).isEqualTo("Evento");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM aviation_users WHERE discord_id = ?",
+                Integer.class, "dir-5")).isZero();
+    }
+
+    private String nicknameOf(String discordId) {
+        return jdbcTemplate.queryForObject("SELECT nickname FROM aviation_users WHERE discord_id = ?",
+                String.class, discordId);
+    }
+}
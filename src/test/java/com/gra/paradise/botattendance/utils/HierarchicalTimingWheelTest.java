@@ -0,0 +1,69 @@
+package com.gra.paradise.botattendance.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roda de tempo hierárquica
+ * Prazos que começam nos níveis superiores precisam descer até o nível 0 e vencer
+ * na ordem certa, nunca antes do prazo; cancelar tira a tarefa da roda.
+ */
+class HierarchicalTimingWheelTest {
+
+    private final HierarchicalTimingWheel wheel = new HierarchicalTimingWheel("test-wheel", Duration.ofMillis(1), Runnable::run);
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    void firesInDeadlineOrderAcrossLevels() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        // 1ms por tick: 300ms e 5s começam nos níveis 1 e 2
+        wheel.schedule(Duration.ofMillis(5000), () -> { fired.add("5s"); done.countDown(); });
+        wheel.schedule(Duration.ofMillis(300), () -> { fired.add("300ms"); done.countDown(); });
+        wheel.schedule(Duration.ofMillis(10), () -> { fired.add("10ms"); done.countDown(); });
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).containsExactly("10ms", "300ms", "5s");
+        assertThat(wheel.pending()).isZero();
+    }
+
+    @Test
+    void neverFiresBeforeDeadline() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        long[] firedAfter = new long[1];
+        wheel.schedule(Duration.ofMillis(150), () -> {
+            firedAfter[0] = System.nanoTime() - start;
+            done.countDown();
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAfter[0]).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    void cancelledTimeoutDoesNotFire() throws InterruptedException {
+        CountDownLatch cancelledRan = new CountDownLatch(1);
+        CountDownLatch marker = new CountDownLatch(1);
+        HierarchicalTimingWheel.Timeout timeout = wheel.schedule(Duration.ofMillis(50), cancelledRan::countDown);
+        wheel.schedule(Duration.ofMillis(100), marker::countDown);
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(marker.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(cancelledRan.getCount()).isEqualTo(1);
+        assertThat(timeout.isCancelled()).isTrue();
+    }
+}
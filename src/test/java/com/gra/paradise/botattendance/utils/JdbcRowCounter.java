@@ -0,0 +1,70 @@
+package com.gra.paradise.botattendance.utils;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Contador de linhas JDBC para testes
+ * Envolve o DataSource e conta, por thread, quantas linhas os ResultSets devolveram
+ * (cada next() verdadeiro). Mede o que o Hibernate realmente trafega, antes de deduplicar entidades.
+ */
+public final class JdbcRowCounter {
+
+    private static final ThreadLocal<long[]> ROWS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private JdbcRowCounter() {
+    }
+
+    public static void reset() {
+        ROWS.get()[0] = 0;
+    }
+
+    public static long rows() {
+        return ROWS.get()[0];
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return proxy(Connection.class, super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return proxy(Connection.class, super.getConnection(username, password));
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (result instanceof ResultSet resultSet && method.getReturnType() == ResultSet.class) {
+                return proxy(ResultSet.class, resultSet);
+            }
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy((Class<Statement>) method.getReturnType(), statement);
+            }
+            if (type == ResultSet.class && method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                ROWS.get()[0]++;
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(JdbcRowCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,63 @@
+package com.gra.paradise.botattendance.utils;
+
+import com.gra.paradise.botattendance.model.CrewActivity;
+import com.gra.paradise.botattendance.model.CrewActivityType;
+import com.gra.paradise.botattendance.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OnboardTimeCalculatorTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 20, 0);
+    private static final User ALICE = new User("1", "alice", "Alice");
+    private static final User BOB = new User("2", "bob", "Bob");
+
+    @Test
+    void testSumsMultipleBoardingsOfSameMember() {
+        Map<String, Duration> result = OnboardTimeCalculator.calculate(Stream.of(
+                activity(ALICE, CrewActivityType.BOARD, 0),
+                activity(ALICE, CrewActivityType.LEAVE, 10),
+                activity(ALICE, CrewActivityType.BOARD, 30),
+                activity(ALICE, CrewActivityType.AUTO_LEAVE, 45)
+        ), null);
+
+        assertEquals(Duration.ofMinutes(25), result.get("1"));
+    }
+
+    @Test
+    void testOpenBoardingCountsUntilGivenInstant() {
+        Map<String, Duration> result = OnboardTimeCalculator.calculate(Stream.of(
+                activity(ALICE, CrewActivityType.BOARD, 0),
+                activity(BOB, CrewActivityType.BOARD, 5),
+                activity(ALICE, CrewActivityType.LEAVE, 20)
+        ), T0.plusMinutes(60));
+
+        assertEquals(Duration.ofMinutes(20), result.get("1"));
+        assertEquals(Duration.ofMinutes(55), result.get("2"));
+    }
+
+    @Test
+    void testIgnoresLeaveWithoutBoardAndKeepsFirstBoardOrder() {
+        Map<String, Duration> result = OnboardTimeCalculator.calculate(Stream.of(
+                activity(BOB, CrewActivityType.LEAVE, 0),
+                activity(BOB, CrewActivityType.BOARD, 1),
+                activity(ALICE, CrewActivityType.BOARD, 2),
+                activity(BOB, CrewActivityType.BOARD, 3),
+                activity(BOB, CrewActivityType.LEAVE, 11)
+        ), null);
+
+        assertEquals(Duration.ofMinutes(10), result.get("2"));
+        assertEquals(Duration.ZERO, result.get("1"));
+        assertEquals("2", result.keySet().iterator().next());
+    }
+
+    private static CrewActivity activity(User user, CrewActivityType type, int minute) {
+        return new CrewActivity(null, user, type, T0.plusMinutes(minute));
+    }
+}
@@ -0,0 +1,58 @@
+package com.gra.paradise.botattendance.utils;
+
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Orçamento de queries por rota para testes
+ * Executa o trabalho contabilizando o SQL no SqlRouteContext e falha se a rota passar
+ * do número de statements ou de coleções inicializadas sob demanda (sintoma de N+1).
+ */
+public final class QueryBudget {
+
+    private final String route;
+    private int maxStatements = Integer.MAX_VALUE;
+    private int maxCollectionFetches = Integer.MAX_VALUE;
+
+    private QueryBudget(String route) {
+        this.route = route;
+    }
+
+    public static QueryBudget forRoute(String route) {
+        return new QueryBudget(route);
+    }
+
+    public QueryBudget maxStatements(int maxStatements) {
+        this.maxStatements = maxStatements;
+        return this;
+    }
+
+    public QueryBudget maxCollectionFetches(int maxCollectionFetches) {
+        this.maxCollectionFetches = maxCollectionFetches;
+        return this;
+    }
+
+    /**
+     * Roda o trabalho na thread atual e valida o orçamento
+     */
+    public <T> T assertWithin(Callable<T> work) throws Exception {
+        assertThat(SqlRouteContext.begin(route)).as("já existe uma rota ativa nesta thread").isTrue();
+        T result;
+        SqlRouteContext.Stats stats;
+        try {
+            result = work.call();
+        } finally {
+            stats = SqlRouteContext.end();
+        }
+
+        String sql = String.join("\n  ", stats.getSql());
+        assertThat(stats.getStatements())
+                .as("statements da rota %s (%s)\n  %s", route, stats, sql)
+                .isLessThanOrEqualTo(maxStatements);
+        assertThat(stats.getCollectionFetches())
+                .as("coleções carregadas sob demanda na rota %s (%s)\n  %s", route, stats, sql)
+                .isLessThanOrEqualTo(maxCollectionFetches);
+        return result;
+    }
+}
@@ -0,0 +1,78 @@
+package com.gra.paradise.botattendance.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Buffer write-behind
+ * Um lote com falha não pode levar as linhas boas junto, uma linha ruim precisa ser descartada
+ * depois de MAX_ATTEMPTS flushes, e um executor cheio não pode derrubar quem chama add().
+ */
+class WriteBehindBufferTest {
+
+    @Test
+    void failedBatchFallsBackToRowByRowAndRetriesOnlyBadRows() {
+        List<String> written = new ArrayList<>();
+        WriteBehindBuffer<String> buffer = new WriteBehindBuffer<>("test", 10, Runnable::run, batch -> {
+            if (batch.contains("ruim")) {
+                throw new IllegalStateException("violação de constraint");
+            }
+            written.addAll(batch);
+        });
+        buffer.add("a");
+        buffer.add("ruim");
+        buffer.add("b");
+
+        assertThat(buffer.flush()).isEqualTo(2);
+        assertThat(written).containsExactly("a", "b");
+        assertThat(buffer.pending(item -> true)).containsExactly("ruim");
+
+        for (int i = 1; i < WriteBehindBuffer.MAX_ATTEMPTS; i++) {
+            buffer.flush();
+        }
+        assertThat(buffer.size()).isZero();
+        assertThat(written).containsExactly("a", "b");
+    }
+
+    @Test
+    void transientFailureIsRetriedOnNextFlush() {
+        List<String> written = new ArrayList<>();
+        boolean[] databaseDown = {true};
+        WriteBehindBuffer<String> buffer = new WriteBehindBuffer<>("test", 10, Runnable::run, batch -> {
+            if (databaseDown[0]) {
+                throw new IllegalStateException("conexão recusada");
+            }
+            written.addAll(batch);
+        });
+        buffer.add("a");
+        buffer.add("b");
+
+        assertThat(buffer.flush()).isZero();
+        assertThat(buffer.size()).isEqualTo(2);
+
+        databaseDown[0] = false;
+        assertThat(buffer.flush()).isEqualTo(2);
+        assertThat(written).containsExactly("a", "b");
+    }
+
+    @Test
+    void rejectedBackgroundFlushLeavesItemsForPeriodicFlush() {
+        List<String> written = new ArrayList<>();
+        WriteBehindBuffer<String> buffer = new WriteBehindBuffer<>("test", 1,
+                task -> {
+                    throw new RejectedExecutionException("fila cheia");
+                },
+                written::addAll);
+
+        buffer.add("a");
+
+        assertThat(buffer.size()).isEqualTo(1);
+        assertThat(buffer.flush()).isEqualTo(1);
+        assertThat(written).containsExactly("a");
+    }
+}
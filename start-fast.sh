@@ -0,0 +1,23 @@
+#!/bin/bash
+
+# Sobe o bot com AOT do Spring e o arquivo AppCDS gerado por: mvn -Pfast-startup package
+# Sem o arquivo (ou com outro JDK) cai para o boot normal do jar extraído.
+
+APP_DIR="$(cd "$(dirname "$0")" && pwd)/target/extracted"
+JAR=$(ls "$APP_DIR"/*.jar 2>/dev/null | head -1)
+ARCHIVE="$APP_DIR/application.jsa"
+
+if [ -z "$JAR" ]; then
+    echo "❌ Layout extraído não encontrado. Rode: ./mvnw -Pfast-startup package"
+    exit 1
+fi
+
+JVM_OPTS="-Xms64m -Xmx256m -XX:+UseG1GC -XX:MaxGCPauseMillis=200 -XX:+UseStringDeduplication"
+
+if [ -f "$ARCHIVE" ]; then
+    # -Xshare:auto: se o arquivo não bater com a JVM, a JVM ignora e sobe normalmente
+    exec java $JVM_OPTS -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -Dspring.aot.enabled=true -jar "$JAR" "$@"
+fi
+
+echo "⚠️ Arquivo CDS não encontrado, subindo sem ele"
+exec java $JVM_OPTS -Dspring.aot.enabled=true -jar "$JAR" "$@"
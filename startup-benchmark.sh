@@ -0,0 +1,46 @@
+#!/bin/bash
+
+# Benchmark de boot: tempo até pronto e RSS, com e sem AOT + AppCDS
+# Pré-requisito: ./mvnw -Pfast-startup package
+# Uso: ./startup-benchmark.sh [execuções por modo, padrão 5]
+
+RUNS=${1:-5}
+APP_DIR="$(cd "$(dirname "$0")" && pwd)/target/extracted"
+JAR=$(ls "$APP_DIR"/*.jar 2>/dev/null | head -1)
+ARCHIVE="$APP_DIR/application.jsa"
+
+if [ -z "$JAR" ] || [ ! -f "$ARCHIVE" ]; then
+    echo "❌ Jar extraído ou arquivo CDS ausente. Rode: ./mvnw -Pfast-startup package"
+    exit 1
+fi
+
+echo "⏱️ Benchmark de Boot - Bot Discord"
+echo "=================================="
+echo "Execuções por modo: $RUNS"
+echo ""
+
+# Perfil training: gateway stand-in, H2 em memória e saída logo após o contexto pronto
+run_mode() {
+    local label=$1
+    shift
+    local total_ms=0
+    local total_rss=0
+    for i in $(seq 1 "$RUNS"); do
+        local line=$(DATABASE_URL= java -Xms64m -Xmx256m -XX:+UseG1GC "$@" -Dspring.profiles.active=training -jar "$JAR" 2>&1 \
+            | grep "Treino de inicialização: pronto em")
+        local ms=$(echo "$line" | sed -E 's/.*pronto em ([0-9]+)ms.*/\1/')
+        local rss=$(echo "$line" | sed -E 's/.*RSS (-?[0-9]+)MB.*/\1/')
+        if [ -z "$line" ]; then
+            echo "❌ $label: execução $i não chegou ao fim do treino"
+            return 1
+        fi
+        echo "   $label #$i: ${ms}ms, ${rss}MB"
+        total_ms=$((total_ms + ms))
+        total_rss=$((total_rss + rss))
+    done
+    echo "📊 $label: média $((total_ms / RUNS))ms até pronto, $((total_rss / RUNS))MB de RSS"
+    echo ""
+}
+
+run_mode "Padrão" -Xshare:auto
+run_mode "AOT + AppCDS" -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -Dspring.aot.enabled=true